@@ -0,0 +1,90 @@
+package benchmark;
+
+import helper.RandomHelper;
+import model.ea.Individual;
+import model.ea.constraints.DefaultFitnessCalculator;
+import model.ea.constraints.IFitnessCalculator;
+import model.ea.constraints.ScratchFitnessCalculator;
+import model.schedule.DayRoster;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the evaluation and copy hot paths of individuals.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IndividualBenchmark {
+    /**
+     * Default fitness calculator.
+     */
+    private IFitnessCalculator defaultFitnessCalculator = new DefaultFitnessCalculator();
+
+    /**
+     * Scratch fitness calculator.
+     */
+    private IFitnessCalculator scratchFitnessCalculator = new ScratchFitnessCalculator();
+
+    /**
+     * Copy of the fixture individual without cached information, which is
+     * created before each call. It is a state of its own, thus only the
+     * benchmark using it pays for the per invocation setup.
+     */
+    @State(Scope.Thread)
+    public static class UncachedIndividual {
+        /**
+         * Copy of the fixture individual.
+         */
+        public Individual individual;
+
+        /**
+         * Clears the cached information before each call, otherwise the default
+         * calculator would only return cached values.
+         * @param fixture PeriodFixture instance
+         */
+        @Setup(Level.Invocation)
+        public void setUp(PeriodFixture fixture) {
+            individual = Individual.copy(fixture.individual);
+        }
+    }
+
+    @Benchmark
+    public float defaultFitnessCalculator(PeriodFixture fixture, UncachedIndividual uncached) {
+        return defaultFitnessCalculator.calculate(uncached.individual, fixture.period);
+    }
+
+    @Benchmark
+    public float scratchFitnessCalculator(PeriodFixture fixture) {
+        return scratchFitnessCalculator.calculate(fixture.individual, fixture.period);
+    }
+
+    @Benchmark
+    public float swapDelta(PeriodFixture fixture) {
+        int numberOfEmployees = fixture.period.getEmployees().size();
+        int numberOfDays = fixture.individual.getNumberOfDays();
+
+        return fixture.individual.getSwapDelta(RandomHelper.getInstance().getInt(numberOfEmployees),
+                RandomHelper.getInstance().getInt(numberOfEmployees),
+                RandomHelper.getInstance().getInt(numberOfDays));
+    }
+
+    @Benchmark
+    public boolean isFeasible(PeriodFixture fixture) {
+        return fixture.individual.isFeasible();
+    }
+
+    @Benchmark
+    public Individual copyIndividual(PeriodFixture fixture) {
+        return Individual.copy(fixture.individual);
+    }
+
+    @Benchmark
+    public DayRoster copyDayRoster(PeriodFixture fixture) {
+        return DayRoster.copy(fixture.individual.getDayRosters().get(0));
+    }
+}
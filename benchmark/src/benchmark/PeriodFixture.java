@@ -0,0 +1,54 @@
+package benchmark;
+
+import helper.ClassLoaderHelper;
+import helper.ConfigurationHelper;
+import model.ea.Individual;
+import model.ea.Population;
+import model.ea.construction.IConstructionHeuristic;
+import model.schedule.SchedulingPeriod;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmark fixture: a scheduling period loaded from the bundled instances and
+ * an initial population built by the configured construction heuristic.
+ */
+@State(Scope.Thread)
+public class PeriodFixture {
+    /**
+     * Instance file in the data directory.
+     */
+    @Param({"sprint01.xml", "medium01.xml", "long01.xml"})
+    public String instance;
+
+    /**
+     * The scheduling period.
+     */
+    public SchedulingPeriod period;
+
+    /**
+     * The initial population (benchmarked).
+     */
+    public Population population;
+
+    /**
+     * The best individual of the initial population.
+     */
+    public Individual individual;
+
+    /**
+     * Loads the scheduling period and builds the initial population.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        period = ClassLoaderHelper.getInstance().getParser().loadFile("data/" + instance);
+
+        IConstructionHeuristic constructionHeuristic = ClassLoaderHelper.getInstance().getConstructionHeuristic();
+        population = new Population();
+        for (int i = 0; i < ConfigurationHelper.getInstance().getPropertyInteger("IndividualsPerPopulation", 10); i++) {
+            population.addIndividualToPool(constructionHeuristic.getIndividual(period));
+        }
+        population.getOverallFitness(true);
+
+        individual = population.getBestIndividual();
+    }
+}
@@ -0,0 +1,59 @@
+package benchmark;
+
+import model.ea.Population;
+import model.ea.operators.IRecombination;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the recombination operators. Each call works on a fresh copy of the
+ * initial population.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RecombinationBenchmark {
+    /**
+     * Operator class in model.ea.operators.
+     */
+    @Param({"SimpleRecombination", "RandomRecombination", "SequentialRecombination",
+            "SingleDayRecombination"})
+    public String operator;
+
+    /**
+     * Operator instance.
+     */
+    private IRecombination operatorInstance;
+
+    /**
+     * Copy of the initial population.
+     */
+    private Population population;
+
+    /**
+     * Instantiates the operator.
+     * @throws Exception If the operator is not available
+     */
+    @Setup(Level.Trial)
+    public void setUpOperator() throws Exception {
+        operatorInstance = (IRecombination) Class.forName("model.ea.operators." + operator).newInstance();
+    }
+
+    /**
+     * Copies the initial population, the operator changes it.
+     * @param fixture PeriodFixture instance
+     */
+    @Setup(Level.Invocation)
+    public void setUpPopulation(PeriodFixture fixture) {
+        population = Population.copy(fixture.population);
+    }
+
+    @Benchmark
+    public Population recombine() {
+        return operatorInstance.recombine(population);
+    }
+}
@@ -0,0 +1,20 @@
+#!/bin/bash
+# Runs the JMH benchmarks of the benchmark module (build both modules in IntelliJ first).
+# All arguments are passed to JMH, e.g.:
+#   ./jmh.sh IndividualBenchmark -p instance=long01.xml
+#   ./jmh.sh -prof gc                (adds the allocation rate per operation)
+out_dir=out/production/ea_nurse_rostering
+benchmark_dir=out/test/ea_nurse_rostering_benchmark
+maven_dir=${MAVEN_REPOSITORY:-$HOME/.m2/repository}
+cp config.properties $out_dir
+cp config.properties.default $out_dir
+cp -r lib $out_dir/lib
+cp -r data $out_dir/data
+
+classpath=.:lib/xom-1.2.10.jar:$(pwd)/$benchmark_dir
+classpath=$classpath:$maven_dir/org/openjdk/jmh/jmh-core/1.37/jmh-core-1.37.jar
+classpath=$classpath:$maven_dir/net/sf/jopt-simple/jopt-simple/5.0.4/jopt-simple-5.0.4.jar
+classpath=$classpath:$maven_dir/org/apache/commons/commons-math3/3.6.1/commons-math3-3.6.1.jar
+
+cd $out_dir
+java -cp $classpath org.openjdk.jmh.Main "$@"
@@ -0,0 +1,123 @@
+package helper;
+
+import java.io.*;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Helper for checkpoint files, which hold the state of a solver to resume an
+ * interrupted run. The solver serializes its state into memory, the file is
+ * written by a background thread to a temporary file and renamed afterwards,
+ * thus the search does not wait for the disk and the checkpoint file is
+ * always complete.
+ */
+public class CheckpointHelper {
+    /**
+     * Singleton instance.
+     */
+    private final static CheckpointHelper instance = new CheckpointHelper();
+
+    /**
+     * Returns the singleton instance.
+     *
+     * @return Singleton instance
+     */
+    public static CheckpointHelper getInstance() {
+        return CheckpointHelper.instance;
+    }
+
+    /**
+     * Number of iterations between two checkpoints (0 for no checkpoints).
+     */
+    private final int interval = ConfigurationHelper.getInstance().getPropertyInteger("CheckpointInterval", 0);
+
+    /**
+     * Checkpoint file (resolved once, thus all checkpoints of a run replace the same file).
+     */
+    private final File file = new File(FilesystemHelper.getInstance().getFullPath(
+            ConfigurationHelper.getInstance().getProperty("CheckpointFilename", "checkpoint.bin")));
+
+    /**
+     * Executor of the background writes (created on first use).
+     */
+    private ExecutorService executor = null;
+
+    /**
+     * Private constructor to avoid bypassing singleton.
+     */
+    private CheckpointHelper() {}
+
+    /**
+     * Returns true, if a checkpoint is due after a number of iterations.
+     * @param iteration Number of iterations done
+     * @return True, if a checkpoint has to be written
+     */
+    public boolean isDue(int iteration) {
+        return interval > 0 && iteration > 0 && iteration % interval == 0;
+    }
+
+    /**
+     * Writes a checkpoint file in the background. A running write is finished
+     * first, thus the last written checkpoint is always the latest one.
+     * @param data Serialized state
+     */
+    public synchronized void write(final byte[] data) {
+        if (executor == null) {
+            executor = ConcurrencyHelper.getInstance().createExecutorService(1, "checkpoint");
+        }
+
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    writeFile(data);
+                } catch (IOException e) {
+                    System.err.println("Error writing checkpoint file: " + e.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * Writes a temporary file in the directory of the checkpoint file and
+     * renames it to the checkpoint file.
+     * @param data Serialized state
+     * @throws IOException Exception on IO error.
+     */
+    private void writeFile(byte[] data) throws IOException {
+        File temporaryFile = File.createTempFile(file.getName() + ".", ".tmp", file.getAbsoluteFile().getParentFile());
+
+        try {
+            FileOutputStream outputStream = new FileOutputStream(temporaryFile);
+            try {
+                outputStream.write(data);
+            } finally {
+                outputStream.close();
+            }
+            FilesystemHelper.getInstance().replaceFile(temporaryFile, file);
+        } finally {
+            if (temporaryFile.exists()) {
+                temporaryFile.delete();
+            }
+        }
+    }
+
+    /**
+     * Reads a checkpoint file.
+     * @param filename File name of the checkpoint (place holders are replaced)
+     * @return Serialized state
+     * @throws IOException Exception on IO error.
+     */
+    public byte[] read(String filename) throws IOException {
+        File checkpointFile = new File(FilesystemHelper.getInstance().getFullPath(filename));
+        byte[] data = new byte[(int) checkpointFile.length()];
+
+        DataInputStream inputStream = new DataInputStream(new FileInputStream(checkpointFile));
+        try {
+            inputStream.readFully(data);
+        } finally {
+            inputStream.close();
+        }
+
+        return data;
+    }
+}
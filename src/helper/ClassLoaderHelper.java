@@ -1,7 +1,9 @@
 package helper;
 
+import model.ea.ISolver;
 import model.ea.constraints.IFitnessCalculator;
 import model.ea.operators.IEnvironmentSelection;
+import model.ea.operators.ILocalSearch;
 import model.ea.operators.IMutation;
 import model.ea.operators.IRecombination;
 import model.ea.construction.IConstructionHeuristic;
@@ -9,6 +11,10 @@ import model.ea.operators.IMatingSelection;
 import parser.IParser;
 import writer.IWriter;
 
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Helper methods for loading correct classes.
  */
@@ -31,19 +37,73 @@ public class ClassLoaderHelper {
      */
     private ClassLoaderHelper() {}
 
+    /**
+     * Cache of resolved classes per configuration key.
+     */
+    private final Map<String, Class<?>> classes = new ConcurrentHashMap<String, Class<?>>();
+
+    /**
+     * Cache of shared (stateless) instances per configuration key.
+     */
+    private final Map<String, Object> sharedInstances = new ConcurrentHashMap<String, Object>();
+
+    /**
+     * Resolves the configured class once and caches it. The configured name is
+     * looked up in the package prefix, as fully qualified name and finally as
+     * (simple or fully qualified) name of a provider registered for the ServiceLoader.
+     * @param configurationKey Configuration key
+     * @param configurationFallback Fallback configuration
+     * @param packagePrefix Prefix for package
+     * @param type Implemented interface
+     * @return Class instance or null
+     */
+    private Class<?> getClass(String configurationKey, String configurationFallback, String packagePrefix, Class<?> type) {
+        Class<?> loadingClass = classes.get(configurationKey);
+        if (loadingClass != null) {
+            return loadingClass;
+        }
+
+        String name = ConfigurationHelper.getInstance().getProperty(configurationKey, configurationFallback).trim();
+        try {
+            loadingClass = Class.forName(packagePrefix + name);
+        } catch (ClassNotFoundException e) {
+            try {
+                loadingClass = Class.forName(name);
+            } catch (ClassNotFoundException fullyQualifiedException) {
+                // try to discover the class by registered service providers
+                for (Object provider: ServiceLoader.load(type)) {
+                    if (provider.getClass().getSimpleName().equals(name) || provider.getClass().getName().equals(name)) {
+                        loadingClass = provider.getClass();
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (loadingClass == null || !type.isAssignableFrom(loadingClass)) {
+            new ClassNotFoundException(name + " (" + configurationKey + ") is no " + type.getName()).printStackTrace();
+            return null;
+        }
+
+        classes.put(configurationKey, loadingClass);
+        return loadingClass;
+    }
+
     /**
      * Instantiates a new object from a configuration.
      * @param configurationKey Configuration key
      * @param configurationFallback Fallback configuration
      * @param packagePrefix Prefix for package
+     * @param type Implemented interface
      * @return Object instance
      */
-    private Object getLoadedClass(String configurationKey, String configurationFallback, String packagePrefix) {
+    private Object getLoadedClass(String configurationKey, String configurationFallback, String packagePrefix, Class<?> type) {
         try {
             // try to instantiate the appropriate object
-            Class loadingClass = Class.forName(packagePrefix
-                    + ConfigurationHelper.getInstance().getProperty(configurationKey, configurationFallback));
-            return loadingClass.newInstance();
+            Class<?> loadingClass = getClass(configurationKey, configurationFallback, packagePrefix, type);
+            if (loadingClass != null) {
+                return loadingClass.newInstance();
+            }
         } catch (Throwable e) {
             e.printStackTrace();
         }
@@ -51,12 +111,33 @@ public class ClassLoaderHelper {
         return null;
     }
 
+    /**
+     * Returns a shared instance of a stateless object from a configuration. The
+     * instance is created on first use.
+     * @param configurationKey Configuration key
+     * @param configurationFallback Fallback configuration
+     * @param packagePrefix Prefix for package
+     * @param type Implemented interface
+     * @return Object instance
+     */
+    private Object getSharedInstance(String configurationKey, String configurationFallback, String packagePrefix, Class<?> type) {
+        Object instance = sharedInstances.get(configurationKey);
+        if (instance == null) {
+            instance = getLoadedClass(configurationKey, configurationFallback, packagePrefix, type);
+            if (instance != null) {
+                sharedInstances.put(configurationKey, instance);
+            }
+        }
+
+        return instance;
+    }
+
     /**
      * Returns the file parser for the scheduling period definitions.
      * @return Instance that implements IParser
      */
     public IParser getParser() {
-        Object instance = getLoadedClass("Parser", "XmlParser", "parser.");
+        Object instance = getLoadedClass("Parser", "StaxParser", "parser.", IParser.class);
         if (instance == null) {
             return null;
         }
@@ -69,7 +150,7 @@ public class ClassLoaderHelper {
      * @return Instance that implements IWriter
      */
     public IWriter getWriter() {
-        Object instance = getLoadedClass("Writer", "XmlWriter", "writer.");
+        Object instance = getLoadedClass("Writer", "StreamingXmlWriter", "writer.", IWriter.class);
         if (instance == null) {
             return null;
         }
@@ -78,11 +159,11 @@ public class ClassLoaderHelper {
     }
 
     /**
-     * Returns the implementing construction heuristic.
+     * Returns the implementing construction heuristic (shared instance).
      * @return Instance that implements IConstructionHeuristic
      */
     public IConstructionHeuristic getConstructionHeuristic() {
-        Object instance = getLoadedClass("ConstructionHeuristic", "SimpleConstructionHeuristic", "model.ea.construction.");
+        Object instance = getSharedInstance("ConstructionHeuristic", "SimpleConstructionHeuristic", "model.ea.construction.", IConstructionHeuristic.class);
         if (instance == null) {
             return null;
         }
@@ -95,7 +176,7 @@ public class ClassLoaderHelper {
      * @return Instance that implements IConstructionHeuristic
      */
     public IMatingSelection getMatingSelectionOperator() {
-        Object instance = getLoadedClass("MatingSelectionOperator", "SimpleMatingSelectionOperator", "model.ea.operators.");
+        Object instance = getLoadedClass("MatingSelectionOperator", "SimpleMatingSelection", "model.ea.operators.", IMatingSelection.class);
         if (instance == null) {
             return null;
         }
@@ -108,7 +189,7 @@ public class ClassLoaderHelper {
      * @return Instance that implements IRecombinationOperator
      */
     public IRecombination getRecombinationOperator() {
-        Object instance = getLoadedClass("RecombinationOperator", "SimpleRecombinationOperator", "model.ea.operators.");
+        Object instance = getLoadedClass("RecombinationOperator", "SimpleRecombination", "model.ea.operators.", IRecombination.class);
         if (instance == null) {
             return null;
         }
@@ -121,7 +202,7 @@ public class ClassLoaderHelper {
      * @return Instance that implements IMutationOperator
      */
     public IMutation getMutationOperator() {
-        Object instance = getLoadedClass("MutationOperator", "SimpleMutationOperator", "model.ea.operators.");
+        Object instance = getLoadedClass("MutationOperator", "SimpleMutation", "model.ea.operators.", IMutation.class);
         if (instance == null) {
             return null;
         }
@@ -129,12 +210,25 @@ public class ClassLoaderHelper {
         return (IMutation) instance;
     }
 
+    /**
+     * Returns the implementing local search operator.
+     * @return Instance that implements ILocalSearch
+     */
+    public ILocalSearch getLocalSearchOperator() {
+        Object instance = getLoadedClass("LocalSearchOperator", "HillClimbingLocalSearch", "model.ea.operators.", ILocalSearch.class);
+        if (instance == null) {
+            return null;
+        }
+
+        return (ILocalSearch) instance;
+    }
+
     /**
      * Returns the implementing environmental selection operator.
      * @return Instance that implements IEnvironmentSelectionOperator
      */
     public IEnvironmentSelection getEnvironmentSelectionOperator() {
-        Object instance = getLoadedClass("EnvironmentSelectionOperator", "SimpleEnvironmentSelectionOperator", "model.ea.operators.");
+        Object instance = getLoadedClass("EnvironmentSelectionOperator", "SimpleEnvironmentSelection", "model.ea.operators.", IEnvironmentSelection.class);
         if (instance == null) {
             return null;
         }
@@ -143,15 +237,28 @@ public class ClassLoaderHelper {
     }
 
     /**
-     * Returns the implementing fitness calculator.
+     * Returns the implementing fitness calculator (shared instance).
      * @return Instance that implements IFitnessCalculator
      */
     public IFitnessCalculator getFitnessCalculator() {
-        Object instance = getLoadedClass("FitnessCalculator", "DefaultFitnessCalculator", "model.ea.constraints.");
+        Object instance = getSharedInstance("FitnessCalculator", "DefaultFitnessCalculator", "model.ea.constraints.", IFitnessCalculator.class);
         if (instance == null) {
             return null;
         }
 
         return (IFitnessCalculator) instance;
     }
+
+    /**
+     * Returns the solver for the scheduling period.
+     * @return Instance that implements ISolver
+     */
+    public ISolver getSolver() {
+        Object instance = getLoadedClass("Solver", "EvolutionaryCycle", "model.ea.", ISolver.class);
+        if (instance == null) {
+            return null;
+        }
+
+        return (ISolver) instance;
+    }
 }
@@ -0,0 +1,152 @@
+package helper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Helper methods for concurrent calculations.
+ */
+public class ConcurrencyHelper {
+    /**
+     * Singleton instance.
+     */
+    private final static ConcurrencyHelper instance = new ConcurrencyHelper();
+
+    /**
+     * Returns the singleton instance.
+     *
+     * @return Singleton instance
+     */
+    public static ConcurrencyHelper getInstance() {
+        return ConcurrencyHelper.instance;
+    }
+
+    /**
+     * Number of threads used for calculations.
+     */
+    private final int numberOfThreads;
+
+    /**
+     * Executor service (null, if calculations are sequential).
+     */
+    private ExecutorService executorService = null;
+
+    /**
+     * Private constructor to avoid bypassing singleton.
+     */
+    private ConcurrencyHelper() {
+        // zero or less means one thread per available processor
+        int threads = ConfigurationHelper.getInstance().getPropertyInteger("EvaluationThreads", 1);
+        numberOfThreads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Returns the number of threads used for calculations.
+     * @return Number of threads
+     */
+    public int getNumberOfThreads() {
+        return numberOfThreads;
+    }
+
+    /**
+     * Returns true, if calculations are done by more than one thread.
+     * @return True, if parallel
+     */
+    public boolean isParallel() {
+        return numberOfThreads > 1;
+    }
+
+    /**
+     * Returns the executor service, creates it on first use.
+     * @return ExecutorService instance
+     */
+    private synchronized ExecutorService getExecutorService() {
+        if (executorService == null) {
+            executorService = createExecutorService(numberOfThreads, "calculation");
+        }
+
+        return executorService;
+    }
+
+    /**
+     * Creates an executor service with a fixed number of threads. Its threads are
+     * daemon threads, thus they do not prevent the application from exiting.
+     * @param threads Number of threads
+     * @param name Name prefix of the threads
+     * @return ExecutorService instance
+     */
+    public ExecutorService createExecutorService(int threads, String name) {
+        return Executors.newFixedThreadPool(threads, createThreadFactory(name));
+    }
+
+    /**
+     * Creates a scheduled executor service with a single daemon thread.
+     * @param name Name prefix of the thread
+     * @return ScheduledExecutorService instance
+     */
+    public ScheduledExecutorService createScheduledExecutorService(String name) {
+        return Executors.newSingleThreadScheduledExecutor(createThreadFactory(name));
+    }
+
+    /**
+     * Creates a factory for named daemon threads.
+     * @param name Name prefix of the threads
+     * @return ThreadFactory instance
+     */
+    private ThreadFactory createThreadFactory(final String name) {
+        return new ThreadFactory() {
+            private int number = 0;
+
+            @Override
+            public synchronized Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, name + "-" + number++);
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+    }
+
+    /**
+     * Runs all tasks, concurrently if configured, and returns their results in
+     * the order of the tasks.
+     * @param tasks List of tasks
+     * @param <T> Type of result
+     * @return List of results
+     */
+    public <T> List<T> invokeAll(List<? extends Callable<T>> tasks) {
+        return invokeAll(tasks, isParallel() && tasks.size() > 1 ? getExecutorService() : null);
+    }
+
+    /**
+     * Runs all tasks with an executor service and returns their results in the
+     * order of the tasks.
+     * @param tasks List of tasks
+     * @param executor ExecutorService instance, null to run the tasks in the current thread
+     * @param <T> Type of result
+     * @return List of results
+     */
+    public <T> List<T> invokeAll(List<? extends Callable<T>> tasks, ExecutorService executor) {
+        List<T> results = new ArrayList<T>(tasks.size());
+
+        try {
+            if (executor == null) {
+                for (Callable<T> task: tasks) {
+                    results.add(task.call());
+                }
+            } else {
+                for (Future<T> future: executor.invokeAll(tasks)) {
+                    results.add(future.get());
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+
+        return results;
+    }
+}
@@ -120,7 +120,22 @@ public class ConfigurationHelper {
             return fallback;
         }
 
-        return Long.getLong(configuration.getProperty(key));
+        return Long.valueOf(configuration.getProperty(key).trim());
+    }
+
+    /**
+     * Returns a configuration property as double.
+     * @param key Configuration key.
+     * @param fallback Fallback value.
+     * @return Configuration property for key with fallback.
+     */
+    public double getPropertyDouble(String key, double fallback) {
+        String doubleNumber = configuration.getProperty(key);
+        if (doubleNumber == null || doubleNumber.trim().equals("")) {
+            return fallback;
+        }
+
+        return Double.valueOf(configuration.getProperty(key).trim());
     }
 
     /**
@@ -57,6 +57,21 @@ public class FilesystemHelper {
         return (new File(parsePlaceholders(filename))).getAbsolutePath();
     }
 
+    /**
+     * Replaces a file by another one, e.g. by a completely written temporary
+     * file. The rename is atomic on POSIX file systems, thus readers see either
+     * the old or the new file. Where a rename can't replace an existing file,
+     * the target is deleted first.
+     * @param sourceFile Source file (renamed)
+     * @param destFile Destination file (replaced)
+     * @throws IOException Exception on IO error.
+     */
+    public void replaceFile(File sourceFile, File destFile) throws IOException {
+        if (!sourceFile.renameTo(destFile) && !(destFile.delete() && sourceFile.renameTo(destFile))) {
+            throw new IOException("Can't rename " + sourceFile + " to " + destFile);
+        }
+    }
+
     /**
      * Copies a file. See: http://stackoverflow.com/a/115086
      * @param sourceFile Source file
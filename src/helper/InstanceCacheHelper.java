@@ -0,0 +1,161 @@
+package helper;
+
+import model.schedule.BinaryPeriodFormat;
+import model.schedule.SchedulingPeriod;
+import parser.IParser;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+
+/**
+ * Helper for the cache of parsed scheduling periods. A parsed period is stored
+ * in a binary format, keyed by a hash of the content of the source file and
+ * of the settings the parser depends on. Thus a cached period is used as long
+ * as neither the source file nor the settings change, without comparing time
+ * stamps. Cache files are read through memory mapping.
+ */
+public class InstanceCacheHelper {
+    /**
+     * Singleton instance.
+     */
+    private final static InstanceCacheHelper instance = new InstanceCacheHelper();
+
+    /**
+     * Returns the singleton instance.
+     *
+     * @return Singleton instance
+     */
+    public static InstanceCacheHelper getInstance() {
+        return InstanceCacheHelper.instance;
+    }
+
+    /**
+     * Parsed periods are cached, if true.
+     */
+    private final boolean enabled = ConfigurationHelper.getInstance().getPropertyBoolean("InstanceCache");
+
+    /**
+     * Directory of the cache files.
+     */
+    private final String directory = ConfigurationHelper.getInstance().getProperty("InstanceCacheDirectory", "%h/.ea_nurse_rostering/cache");
+
+    /**
+     * Private constructor to avoid bypassing singleton.
+     */
+    private InstanceCacheHelper() {}
+
+    /**
+     * Returns the scheduling period of a file from the cache or, if it is not
+     * cached yet, parses and caches it.
+     * @param path Path to the scheduling period definition file
+     * @param parser IParser instance used, if the period is not cached
+     * @return SchedulingPeriod instance or null
+     */
+    public SchedulingPeriod loadFile(String path, IParser parser) {
+        File cacheFile = enabled ? getCacheFile(path) : null;
+
+        if (cacheFile != null && cacheFile.isFile()) {
+            try {
+                SchedulingPeriod period = readFile(cacheFile);
+                period.setSourceFile(new File(path).getAbsolutePath());
+                period.compile();
+
+                return period;
+            } catch (Exception e) {
+                // a damaged or outdated cache file is replaced
+                System.err.println("Ignoring cache file " + cacheFile + ": " + e.getMessage());
+            }
+        }
+
+        SchedulingPeriod period = parser.loadFile(path);
+        if (cacheFile != null && period != null) {
+            try {
+                writeFile(cacheFile, period);
+            } catch (IOException e) {
+                System.err.println("Error writing cache file: " + e.getMessage());
+            }
+        }
+
+        return period;
+    }
+
+    /**
+     * Returns the cache file of a source file, named by the hash of its content,
+     * of the format version and of the weighted attributes, which are parsed.
+     * @param path Path to the scheduling period definition file
+     * @return Cache file or null, if the source file can't be read
+     */
+    private File getCacheFile(String path) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            digest.update((BinaryPeriodFormat.VERSION + "|"
+                    + ConfigurationHelper.getInstance().getProperty("WeightedAttributes", "") + "|").getBytes("UTF-8"));
+
+            FileInputStream inputStream = new FileInputStream(path);
+            try {
+                FileChannel channel = inputStream.getChannel();
+                digest.update(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            } finally {
+                inputStream.close();
+            }
+
+            StringBuilder name = new StringBuilder();
+            for (byte value: digest.digest()) {
+                name.append(String.format("%02x", value));
+            }
+
+            return new File(FilesystemHelper.getInstance().getFullPath(directory), name.append(".bin").toString());
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads a cache file through memory mapping.
+     * @param cacheFile Cache file
+     * @return SchedulingPeriod instance (not compiled)
+     * @throws IOException Exception on IO error or an unknown format.
+     */
+    private SchedulingPeriod readFile(File cacheFile) throws IOException {
+        FileInputStream inputStream = new FileInputStream(cacheFile);
+        try {
+            FileChannel channel = inputStream.getChannel();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            return BinaryPeriodFormat.getInstance().read(buffer);
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    /**
+     * Writes a cache file to a temporary file and renames it, thus concurrent
+     * runs never read a partly written cache file.
+     * @param cacheFile Cache file
+     * @param period SchedulingPeriod instance
+     * @throws IOException Exception on IO error.
+     */
+    private void writeFile(File cacheFile, SchedulingPeriod period) throws IOException {
+        File cacheDirectory = cacheFile.getParentFile();
+        if (!cacheDirectory.isDirectory() && !cacheDirectory.mkdirs()) {
+            throw new IOException("Can't create directory " + cacheDirectory);
+        }
+
+        File temporaryFile = File.createTempFile(cacheFile.getName() + ".", ".tmp", cacheDirectory);
+        try {
+            DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile)));
+            try {
+                BinaryPeriodFormat.getInstance().write(period, outputStream);
+            } finally {
+                outputStream.close();
+            }
+            FilesystemHelper.getInstance().replaceFile(temporaryFile, cacheFile);
+        } finally {
+            if (temporaryFile.exists()) {
+                temporaryFile.delete();
+            }
+        }
+    }
+}
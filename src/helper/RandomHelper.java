@@ -1,6 +1,8 @@
 package helper;
 
+import java.io.*;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Helper methods for arrays.
@@ -21,16 +23,89 @@ public class RandomHelper {
     }
 
     /**
-     * Random instance
+     * Seed of the main random stream, the seeds of all other streams are derived from it.
      */
-    private Random random;
+    private final long seed;
+
+    /**
+     * Number of random streams created by threads without an assigned stream.
+     */
+    private final AtomicLong threadStreams = new AtomicLong();
+
+    /**
+     * Random stream of the current thread. Each thread uses its own stream, the
+     * first thread gets the main stream, other threads get derived streams unless
+     * a stream is assigned explicitly (e.g. by an island).
+     */
+    private final ThreadLocal<Random> random = new ThreadLocal<Random>() {
+        @Override
+        protected Random initialValue() {
+            long index = threadStreams.getAndIncrement();
+            return index == 0 ? new Random(seed) : getStream(-index);
+        }
+    };
 
     /**
      * Private constructor to avoid bypassing singleton.
      */
     private RandomHelper() {
-        long seed = ConfigurationHelper.getInstance().getPropertyLong("RandomSeed", System.nanoTime());
-        random = new Random(seed);
+        seed = ConfigurationHelper.getInstance().getPropertyLong("RandomSeed", System.nanoTime());
+    }
+
+    /**
+     * Returns a new random stream derived from the seed. Streams with different
+     * indices are independent, the same index always results in the same stream.
+     * @param index Index of the stream
+     * @return Random instance
+     */
+    public Random getStream(long index) {
+        // mix seed and index (SplitMix64 finalizer), thus neighbouring indices get unrelated seeds
+        long mixed = seed + (index + 1) * 0x9E3779B97F4A7C15L;
+        mixed = (mixed ^ (mixed >>> 30)) * 0xBF58476D1CE4E5B9L;
+        mixed = (mixed ^ (mixed >>> 27)) * 0x94D049BB133111EBL;
+
+        return new Random(mixed ^ (mixed >>> 31));
+    }
+
+    /**
+     * Assigns a random stream to the current thread.
+     * @param stream Random instance
+     */
+    public void setStream(Random stream) {
+        random.set(stream);
+    }
+
+    /**
+     * Returns the state of the random stream of the current thread, e.g. for a
+     * checkpoint. The stream continues unchanged.
+     * @return Serialized state
+     */
+    public byte[] getState() {
+        try {
+            ByteArrayOutputStream state = new ByteArrayOutputStream();
+            ObjectOutputStream outputStream = new ObjectOutputStream(state);
+            outputStream.writeObject(random.get());
+            outputStream.close();
+
+            return state.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Restores the random stream of the current thread from a state returned by
+     * getState(), thus it continues with the same random numbers.
+     * @param state Serialized state
+     */
+    public void setState(byte[] state) {
+        try {
+            ObjectInputStream inputStream = new ObjectInputStream(new ByteArrayInputStream(state));
+            random.set((Random) inputStream.readObject());
+            inputStream.close();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
     }
 
     /**
@@ -40,7 +115,15 @@ public class RandomHelper {
      * @return Random integer between min and max
      */
     public int getInt(int min, int max) {
-        return random.nextInt(max - min) + min;
+        return random.get().nextInt(max - min) + min;
+    }
+
+    /**
+     * Returns a random double between 0 (inclusive) and 1 (exclusive).
+     * @return Random double
+     */
+    public double getDouble() {
+        return random.get().nextDouble();
     }
 
     /**
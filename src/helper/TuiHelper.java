@@ -72,7 +72,8 @@ public class TuiHelper {
      * @param max Maximum progress
      */
     public void showProgress(int progress, int max) {
-        if (progress == 0) {
+        // a resumed calculation starts with a later progress
+        if (progress == 0 || startTime == 0) {
             startTime = System.nanoTime();
         }
 
@@ -91,6 +92,15 @@ public class TuiHelper {
         }
     }
 
+    /**
+     * Shows why a calculation stopped before the maximum number of iterations.
+     * @param reason Reason
+     * @param iterations Number of iterations done
+     */
+    public void showTermination(String reason, int iterations) {
+        System.out.println("Stopped after " + iterations + " iterations: " + reason);
+    }
+
     /**
      * Outputs memory usage.
      * See: http://viralpatel.net/blogs/getting-jvm-heap-size-used-memory-total-memory-using-java-runtime/
@@ -1,22 +1,54 @@
 package model.ea;
 
+import helper.CheckpointHelper;
 import helper.ClassLoaderHelper;
 import helper.ConfigurationHelper;
+import helper.RandomHelper;
 import helper.TuiHelper;
 import model.ea.operators.IEnvironmentSelection;
+import model.ea.operators.ILocalSearch;
 import model.ea.operators.IMatingSelection;
 import model.ea.operators.IMutation;
 import model.ea.operators.IRecombination;
 import model.schedule.SchedulingPeriod;
+import writer.AnytimeWriter;
+
+import java.io.*;
+import java.util.List;
 
 /**
  * This class implements an evolutionary cycle for the evolutionary algorithm.
  */
-public class EvolutionaryCycle {
+public class EvolutionaryCycle implements ISolver {
+    /**
+     * Identifies checkpoint files ("EANR").
+     */
+    private static final int CHECKPOINT_MAGIC = 0x45414E52;
+
+    /**
+     * Version of the checkpoint format.
+     */
+    private static final int CHECKPOINT_VERSION = 1;
+
+    /**
+     * Scheduling period (set on initialization).
+     */
+    private SchedulingPeriod period = null;
+
+    /**
+     * Termination condition (created on initialization).
+     */
+    private TerminationCondition termination = null;
+
     /**
-     * Current iteration.
+     * Last shown progress.
      */
-    private int iteration = 0;
+    private int progress = -1;
+
+    /**
+     * Iteration of the last written or read checkpoint.
+     */
+    private int checkpointIteration = 0;
 
     /**
      * Maximum number of iterations.
@@ -33,6 +65,11 @@ public class EvolutionaryCycle {
      */
     private boolean useMutation = ConfigurationHelper.getInstance().getPropertyBoolean("UseMutation");
 
+    /**
+     * The local search operator is used, if true.
+     */
+    private boolean useLocalSearch = ConfigurationHelper.getInstance().getPropertyBoolean("UseLocalSearch");
+
     /**
      * Holds the mating selection operator instance.
      */
@@ -48,6 +85,11 @@ public class EvolutionaryCycle {
      */
     private IMutation mutationOperator = ClassLoaderHelper.getInstance().getMutationOperator();
 
+    /**
+     * Holds the local search operator instance (only if used).
+     */
+    private ILocalSearch localSearchOperator = useLocalSearch ? ClassLoaderHelper.getInstance().getLocalSearchOperator() : null;
+
     /**
      * Holds the environment selection operator instance.
      */
@@ -58,59 +100,168 @@ public class EvolutionaryCycle {
      */
     private Population initPopulation = null;
 
+    /**
+     * Holds the current population.
+     */
+    private Population population = null;
+
     /**
      * Returns the initializing population.
      * @return Initialization population instance
      */
+    @Override
     public Population getInitPopulation() {
         return initPopulation;
     }
 
+    /**
+     * Returns the current population.
+     * @return Population instance
+     */
+    public Population getPopulation() {
+        return population;
+    }
+
+    /**
+     * Returns the maximum number of iterations.
+     * @return Maximum number of iterations
+     */
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
     /**
      * Runs the evolutionary cycle.
      * @param period SchedulingPeriod instance
      * @return Population instance
      */
+    @Override
     public Population evolutionize(SchedulingPeriod period) {
-        initPopulation = generateInitializationPopulation(period);
+        initialize(period);
+
+        return run();
+    }
+
+    /**
+     * Resumes the evolutionary cycle from a checkpoint file and runs it until
+     * the termination condition is met.
+     * @param period SchedulingPeriod instance the checkpoint was written for
+     * @param filename File name of the checkpoint
+     * @return Population instance
+     */
+    public Population resume(SchedulingPeriod period, String filename) {
+        try {
+            readCheckpoint(new DataInputStream(new ByteArrayInputStream(
+                    CheckpointHelper.getInstance().read(filename))), period);
+        } catch (IOException e) {
+            throw new RuntimeException("Can't resume from checkpoint " + filename + ": " + e.getMessage(), e);
+        }
+        AnytimeWriter.getInstance().offer(population);
+
+        return run();
+    }
+
+    /**
+     * Runs the evolutionary cycle, while the termination condition is not met.
+     * @return Population instance
+     */
+    private Population run() {
+        while (!isTerminationCondition()) {
+            // write a checkpoint, if due (the state is complete between two iterations)
+            if (termination.getIteration() != checkpointIteration
+                    && CheckpointHelper.getInstance().isDue(termination.getIteration())) {
+                writeCheckpoint();
+            }
+
+            iterate();
+        }
+
+        return getResult();
+    }
+
+    /**
+     * Generates and benchmarks the initializing population, the current
+     * population starts as a copy of it.
+     * @param period SchedulingPeriod instance
+     */
+    public void initialize(SchedulingPeriod period) {
+        this.period = period;
+        initPopulation = Population.createInitialPopulation(period);
         initPopulation.benchmark();
 
-        Population population = Population.copy(initPopulation);
+        population = Population.copy(initPopulation);
+        termination = new TerminationCondition(period, maxIterations);
+        AnytimeWriter.getInstance().offer(population);
+    }
+
+    /**
+     * Runs one iteration (generation) of the evolutionary cycle.
+     */
+    public void iterate() {
         Population children;
 
-        // evolutionize cycle, while termination condition is not met
-        while (!isTerminationCondition()) {
-            // get selection of mating individuals
-            Population parents = matingSelectionOperator.select(population);
-            children = new Population();
+        // get selection of mating individuals
+        Population parents = matingSelectionOperator.select(population);
+        children = new Population();
 
-            // recombine individuals (if used)
-            if (useRecombination) {
-                 children = recombinationOperator.recombine(parents);
-            }
+        // recombine individuals (if used)
+        if (useRecombination) {
+             children = recombinationOperator.recombine(parents);
+        }
 
-            // mutate individuals (if used)
-            if (useMutation) {
-            	// if recombination was used, mutate the new created children
-            	if (useRecombination) {
-            		children = mutationOperator.mutate(children);
-            	} else {
-                    // if not, mutate the selected parents
-                    children = mutationOperator.mutate(parents);
-            	}
-            }
+        // mutate individuals (if used)
+        if (useMutation) {
+        	// if recombination was used, mutate the new created children
+        	if (useRecombination) {
+        		children = mutationOperator.mutate(children);
+        	} else {
+                // if not, mutate the selected parents
+                children = mutationOperator.mutate(parents);
+        	}
+        }
+
+        // improve the new individuals by local search (if used), the operators change the
+        // individuals in place, thus the parents (members of the population) are improved as copies
+        if (useLocalSearch) {
+            children = localSearchOperator.improve(useRecombination || useMutation ? children : Population.copy(parents));
+        }
 
-            // benchmark new generation
-            population.addIndividualsToPool(children.getPool());
-            population.benchmark();
+        // benchmark new generation
+        population.addIndividualsToPool(children.getPool());
+        population.benchmark();
+
+        // get environmental selection from new generation
+        environmentSelectionOperator.select(population);
+        population.benchmark();
+
+        // write the best individual, if it improved
+        AnytimeWriter.getInstance().offer(population);
+    }
 
-            // get environmental selection from new generation
-            environmentSelectionOperator.select(population);
-            population.benchmark();
+    /**
+     * Replaces the worst individuals of the current population by immigrants,
+     * if the immigrants are fitter.
+     * @param immigrants List of Individual instances
+     */
+    public void immigrate(List<Individual> immigrants) {
+        List<Individual> pool = population.sortByFitness().getPool();
+
+        for (Individual immigrant: immigrants) {
+            int worst = pool.size() - 1;
+            if (worst >= 0 && immigrant.getFitness() < pool.get(worst).getFitness()) {
+                pool.set(worst, immigrant);
+                population.sortByFitness();
+            }
         }
+        population.benchmark();
+    }
 
-        // cycle is terminated, return the latest solution or initialized
-        // population, of solution is not better
+    /**
+     * Returns the latest population or the initialized population, if the
+     * solution is not better.
+     * @return Population instance
+     */
+    public Population getResult() {
         return population.getBestIndividual().getFitness()
                 <= initPopulation.getBestIndividual().getFitness()
             ? population
@@ -118,27 +269,85 @@ public class EvolutionaryCycle {
     }
 
     /**
-     * Returns true, if the termination condition is met.
-     * @return True, if termination condition is met
+     * Writes a checkpoint: the termination state, the random stream and the
+     * genomes of the initializing and the current population. The state is
+     * serialized into memory, the file is written in the background.
      */
-    private boolean isTerminationCondition() {
-        TuiHelper.getInstance().showProgress(iteration, maxIterations);
-        return ++iteration > maxIterations;
+    private void writeCheckpoint() {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(data);
+
+        try {
+            output.writeInt(CHECKPOINT_MAGIC);
+            output.writeInt(CHECKPOINT_VERSION);
+            output.writeUTF(period.getId() == null ? "" : period.getId());
+            output.writeInt(period.getCompiled().getNumberOfEmployees());
+            output.writeInt(period.getCompiled().getNumberOfDays());
+
+            termination.write(output);
+            byte[] random = RandomHelper.getInstance().getState();
+            output.writeInt(random.length);
+            output.write(random);
+
+            initPopulation.write(output);
+            population.write(output);
+            output.close();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        checkpointIteration = termination.getIteration();
+        CheckpointHelper.getInstance().write(data.toByteArray());
     }
 
     /**
-     * Returns a generated initialization population for a specific scheduling period.
-     * @param period SchedulingPeriod instance
-     * @return Population instance
+     * Reads a checkpoint written by writeCheckpoint().
+     * @param input DataInput instance
+     * @param period SchedulingPeriod instance the checkpoint was written for
+     * @throws IOException Exception on IO error or if the checkpoint does not fit the period.
      */
-    private Population generateInitializationPopulation(SchedulingPeriod period) {
-        Population population = new Population();
+    private void readCheckpoint(DataInput input, SchedulingPeriod period) throws IOException {
+        if (input.readInt() != CHECKPOINT_MAGIC || input.readInt() != CHECKPOINT_VERSION) {
+            throw new IOException("Unknown checkpoint format.");
+        }
+        if (!input.readUTF().equals(period.getId() == null ? "" : period.getId())
+                || input.readInt() != period.getCompiled().getNumberOfEmployees()
+                || input.readInt() != period.getCompiled().getNumberOfDays()) {
+            throw new IOException("Checkpoint was written for another scheduling period.");
+        }
+
+        this.period = period;
+        termination = new TerminationCondition(period, maxIterations);
+        termination.read(input);
+        byte[] random = new byte[input.readInt()];
+        input.readFully(random);
+        RandomHelper.getInstance().setState(random);
+
+        initPopulation = Population.read(input, period);
+        population = Population.read(input, period);
+        checkpointIteration = termination.getIteration();
+        progress = -1;
+    }
+
+    /**
+     * Returns true, if the termination condition is met.
+     * @return True, if termination condition is met
+     */
+    private boolean isTerminationCondition() {
+        // there is nothing to check before the first iteration
+        boolean met = maxIterations <= 0
+                || progress >= 0 && termination.isMet(population.getBestFitness());
 
-        for (int i = 0; i < ConfigurationHelper.getInstance().getPropertyInteger("IndividualsPerPopulation", 10); i++) {
-            Individual individual = ClassLoaderHelper.getInstance().getConstructionHeuristic().getIndividual(period);
-            population.addIndividualToPool(individual);
+        // show the progress, if it changed
+        int current = met ? termination.getMaxProgress() : termination.getProgress();
+        if (current != progress) {
+            progress = current;
+            TuiHelper.getInstance().showProgress(progress, termination.getMaxProgress());
+        }
+        if (met && termination.getIteration() < maxIterations) {
+            TuiHelper.getInstance().showTermination(termination.getReason(), termination.getIteration());
         }
 
-        return population;
+        return met;
     }
 }
@@ -0,0 +1,215 @@
+package model.ea;
+
+import model.schedule.CompiledPeriod;
+import model.schedule.DayRoster;
+
+import java.util.Arrays;
+
+/**
+ * Keeps track of the hard constraints of a genome: the number of employees
+ * planned for each day and shift type and the number of assignments to
+ * employees without the required skills. Each change of an assignment updates
+ * the counters in constant time, thus the feasibility is known without
+ * scanning the genome.
+ */
+public class HardConstraintState {
+    /**
+     * The compiled scheduling period.
+     */
+    private final CompiledPeriod compiled;
+
+    /**
+     * Number of employees (row length of the genome).
+     */
+    private final int numberOfEmployees;
+
+    /**
+     * Number of shift types.
+     */
+    private final int numberOfShiftTypes;
+
+    /**
+     * Number of planned employees per day and shift type (days x shift types).
+     */
+    private int[] planned;
+
+    /**
+     * Number of day and shift type pairs whose planned employees differ from the cover.
+     */
+    private int uncovered = 0;
+
+    /**
+     * Number of assignments to employees without the required skills.
+     */
+    private int unskilled = 0;
+
+    /**
+     * Creates the state of the first days of a genome.
+     * @param compiled CompiledPeriod instance
+     * @param genome Genome (days x employees)
+     * @param numberOfDays Number of days in use
+     */
+    public HardConstraintState(CompiledPeriod compiled, byte[] genome, int numberOfDays) {
+        this.compiled = compiled;
+        this.numberOfEmployees = compiled.getNumberOfEmployees();
+        this.numberOfShiftTypes = compiled.getNumberOfShiftTypes();
+        this.planned = new int[Math.max(numberOfDays, compiled.getNumberOfDays()) * numberOfShiftTypes];
+
+        for (int day = 0; day < numberOfDays; day++) {
+            addDay(genome, day);
+        }
+    }
+
+    /**
+     * Creates a copy of a state.
+     * @param state HardConstraintState instance
+     */
+    public HardConstraintState(HardConstraintState state) {
+        this.compiled = state.compiled;
+        this.numberOfEmployees = state.numberOfEmployees;
+        this.numberOfShiftTypes = state.numberOfShiftTypes;
+        this.planned = state.planned.clone();
+        this.uncovered = state.uncovered;
+        this.unskilled = state.unskilled;
+    }
+
+    /**
+     * Returns true, if all hard constraints are satisfied.
+     * @return True, if feasible
+     */
+    public boolean isFeasible() {
+        return uncovered == 0 && unskilled == 0;
+    }
+
+    /**
+     * Adds the assignments of a day row of a genome, e.g. of an appended day.
+     * @param genome Genome (days x employees)
+     * @param day Day index
+     */
+    public void addDay(byte[] genome, int day) {
+        if ((day + 1) * numberOfShiftTypes > planned.length) {
+            planned = Arrays.copyOf(planned, (day + 1) * numberOfShiftTypes);
+        }
+
+        // a day without assignments is uncovered for each demanded shift type
+        for (int shiftType = 0; shiftType < numberOfShiftTypes; shiftType++) {
+            if (compiled.getCover(day, shiftType) != 0) {
+                uncovered++;
+            }
+        }
+        for (int employee = 0, offset = day * numberOfEmployees; employee < numberOfEmployees; employee++) {
+            add(day, employee, genome[offset + employee]);
+        }
+    }
+
+    /**
+     * Removes the assignments of a day row of a genome, e.g. before the row is replaced.
+     * @param genome Genome (days x employees)
+     * @param day Day index
+     */
+    public void removeDay(byte[] genome, int day) {
+        for (int employee = 0, offset = day * numberOfEmployees; employee < numberOfEmployees; employee++) {
+            remove(day, employee, genome[offset + employee]);
+        }
+        for (int shiftType = 0; shiftType < numberOfShiftTypes; shiftType++) {
+            if (compiled.getCover(day, shiftType) != 0) {
+                uncovered--;
+            }
+        }
+    }
+
+    /**
+     * Updates the state for a changed assignment.
+     * @param day Day index
+     * @param employee Employee index
+     * @param previousShiftType Previous shift type index or DayRoster.FREE
+     * @param shiftType New shift type index or DayRoster.FREE
+     */
+    public void assign(int day, int employee, int previousShiftType, int shiftType) {
+        if (previousShiftType != shiftType) {
+            remove(day, employee, previousShiftType);
+            add(day, employee, shiftType);
+        }
+    }
+
+    /**
+     * Returns true, if the hard constraints are satisfied after a change of an
+     * assignment. The state is left unchanged.
+     * @param day Day index
+     * @param employee Employee index
+     * @param previousShiftType Previous shift type index or DayRoster.FREE
+     * @param shiftType New shift type index or DayRoster.FREE
+     * @return True, if feasible after the change
+     */
+    public boolean isFeasible(int day, int employee, int previousShiftType, int shiftType) {
+        if (previousShiftType == shiftType) {
+            return isFeasible();
+        }
+
+        int changedUnskilled = unskilled;
+        int changedUncovered = uncovered;
+        if (previousShiftType != DayRoster.FREE) {
+            if (!compiled.hasRequiredSkills(employee, previousShiftType)) {
+                changedUnskilled--;
+            }
+            changedUncovered += getCoverChange(day, previousShiftType, -1);
+        }
+        if (shiftType != DayRoster.FREE) {
+            if (!compiled.hasRequiredSkills(employee, shiftType)) {
+                changedUnskilled++;
+            }
+            changedUncovered += getCoverChange(day, shiftType, 1);
+        }
+
+        return changedUncovered == 0 && changedUnskilled == 0;
+    }
+
+    /**
+     * Adds an assignment.
+     * @param day Day index
+     * @param employee Employee index
+     * @param shiftType Shift type index or DayRoster.FREE
+     */
+    private void add(int day, int employee, int shiftType) {
+        if (shiftType == DayRoster.FREE) {
+            return;
+        }
+        if (!compiled.hasRequiredSkills(employee, shiftType)) {
+            unskilled++;
+        }
+        uncovered += getCoverChange(day, shiftType, 1);
+        planned[day * numberOfShiftTypes + shiftType]++;
+    }
+
+    /**
+     * Removes an assignment.
+     * @param day Day index
+     * @param employee Employee index
+     * @param shiftType Shift type index or DayRoster.FREE
+     */
+    private void remove(int day, int employee, int shiftType) {
+        if (shiftType == DayRoster.FREE) {
+            return;
+        }
+        if (!compiled.hasRequiredSkills(employee, shiftType)) {
+            unskilled--;
+        }
+        uncovered += getCoverChange(day, shiftType, -1);
+        planned[day * numberOfShiftTypes + shiftType]--;
+    }
+
+    /**
+     * Returns the change of the number of uncovered day and shift type pairs,
+     * if the planned employees of a day and shift type change.
+     * @param day Day index
+     * @param shiftType Shift type index
+     * @param change Change of the planned employees (1 or -1)
+     * @return Change of the uncovered pairs (-1, 0 or 1)
+     */
+    private int getCoverChange(int day, int shiftType, int change) {
+        int cover = compiled.getCover(day, shiftType);
+        int count = planned[day * numberOfShiftTypes + shiftType];
+
+        return (count + change != cover ? 1 : 0) - (count != cover ? 1 : 0);
+    }
+}
@@ -0,0 +1,21 @@
+package model.ea;
+
+import model.schedule.SchedulingPeriod;
+
+/**
+ * Defines the general interface for solvers of a scheduling period.
+ */
+public interface ISolver {
+    /**
+     * Runs the solver.
+     * @param period SchedulingPeriod instance
+     * @return Population instance holding the solution(s)
+     */
+    Population evolutionize(SchedulingPeriod period);
+
+    /**
+     * Returns the initializing population.
+     * @return Initialization population instance
+     */
+    Population getInitPopulation();
+}
@@ -5,7 +5,11 @@ import helper.DateTimeHelper;
 import model.ea.constraints.IFitnessCalculator;
 import model.schedule.*;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * This class represents an individual (a solution) for the evolutionary algorithm.
@@ -14,12 +18,12 @@ public class Individual {
     /**
      * Last global identifier.
      */
-    private static long lastId = 0;
+    private static final AtomicLong lastId = new AtomicLong();
 
     /**
      * Identifier for this instance.
      */
-    private long id = lastId++;
+    private long id = lastId.getAndIncrement();
 
     /**
      * Returns the identifier of this instance.
@@ -35,85 +39,85 @@ public class Individual {
     private Float fitness = null;
 
     /**
-     * List of all rosters for all days
+     * Genome of all rosters for all days: one row per day holding the shift
+     * type index (or DayRoster.FREE) for each employee index.
      */
-    private List<DayRoster> roster = new ArrayList<DayRoster>();
+    private byte[] genome = null;
 
     /**
-     * The scheduling period for this individual.
+     * Number of day rows in use.
      */
-    private SchedulingPeriod period = null;
+    private int numberOfDays = 0;
 
     /**
-     * The fitness calculator instance
+     * DayRoster views onto the genome rows (created on demand).
      */
-    private IFitnessCalculator fitnessCalculator = ClassLoaderHelper.getInstance().getFitnessCalculator();
+    private DayRoster[] views = null;
 
     /**
-     * Cache for assignments for each employee.
+     * List of all rosters for all days (backed by the genome).
      */
-    private Map<Employee, Map<DayRoster, Boolean>> assignments = new HashMap<Employee, Map<DayRoster, Boolean>>();
+    private List<DayRoster> roster = new RosterList();
 
     /**
-     * Cache for number of assignments per employee.
-     */
-    private Map<Employee, Integer> numAssignments = new HashMap<Employee, Integer>();
-
-    /**
-     * Cache for maximum number of consecutive assignments per employee.
-     */
-    private Map<Employee, Integer> numConsecutiveMaxWork = new HashMap<Employee, Integer>();
-
-    /**
-     * Cache for minimum number of consecutive assignments per employee.
+     * The scheduling period for this individual.
      */
-    private Map<Employee, Integer> numConsecutiveMinWork = new HashMap<Employee, Integer>();
-
+    private SchedulingPeriod period = null;
 
     /**
-     * Cache for maximum number of consecutive free days per employee.
+     * The fitness calculator instance
      */
-    private Map<Employee, Integer> numConsecutiveMaxFree = new HashMap<Employee, Integer>();
+    private IFitnessCalculator fitnessCalculator = ClassLoaderHelper.getInstance().getFitnessCalculator();
 
     /**
-     * Cache for minimum number of consecutive free days per employee.
+     * Fitness part of each employee (by employee index) as calculated for the
+     * evaluated genome.
      */
-    private Map<Employee, Integer> numConsecutiveMinFree = new HashMap<Employee, Integer>();
+    private float[] employeeFitness = null;
 
     /**
-     * Cache for total number of working weekends per employee.
+     * Copy of the genome the fitness parts of the employees are calculated for.
+     * Employees whose assignments differ from this copy have to be recalculated.
      */
-    private Map<Employee, Integer> numWeekendsTotal = new HashMap<Employee, Integer>();
+    private byte[] evaluatedGenome = null;
 
     /**
-     * Cache for minimum number of consecutive working weekends per employee.
+     * Number of days of the evaluated genome.
      */
-    private Map<Employee, Integer> numConsecutiveWeekendsMin = new HashMap<Employee, Integer>();
+    private int evaluatedDays = 0;
 
     /**
-     * Cache for maximum number of consecutive working weekends per employee.
+     * Cache for the work calendar of each employee (by employee index).
      */
-    private Map<Employee, Integer> numConsecutiveWeekendsMax = new HashMap<Employee, Integer>();
+    private WorkCalendar[] calendars = null;
 
     /**
-     * Cache for identical shift types during weekend per employee.
+     * Caches for information derived from the rosters (created on first use, a
+     * fitness calculator may not need them at all).
      */
-    private Map<Employee, Boolean> identicalShiftTypesDuringWeekend = new HashMap<Employee, Boolean>();
+    private Caches caches = null;
 
     /**
-     * Cache for complete working weekend per employee.
+     * Incrementally updated state of the hard constraints (created on first use).
      */
-    private Map<Employee, Boolean> completeWeekends = new HashMap<Employee, Boolean>();
+    private HardConstraintState hardConstraints = null;
 
     /**
-     * Cache for no night shifts before weekend per employee.
+     * Returns the genome (one row per day holding the shift type index or
+     * DayRoster.FREE for each employee index). The genome must not be changed.
+     * @return Genome
      */
-    private Map<Employee, Boolean> noNightShiftsBeforeWeekends = new HashMap<Employee, Boolean>();
+    public byte[] getGenome() {
+        return genome;
+    }
 
     /**
-     * Cache for unwanted patterns deviation per employee.
+     * Returns the number of days.
+     * @return Number of days
      */
-    private Map<Employee, Float> unwantedPatternsDeviations = new HashMap<Employee, Float>();
+    public int getNumberOfDays() {
+        return numberOfDays;
+    }
 
     /**
      * Returns the List of DayRoster instances.
@@ -125,61 +129,84 @@ public class Individual {
 
     /**
      * Returns true, if this individual is a feasible solution, i.e. all
-     * hard constraints are satisfied.
+     * hard constraints are satisfied. The hard constraint state is updated with
+     * each change, thus this is a constant time check. With assertions enabled
+     * the state is verified by checking all days.
      * @return True, if this individual is a feasible solution
      */
     public boolean isFeasible() {
-        // check, if hard  constraints for each planned day are satisfied
-        for (DayRoster dayRoster: roster) {
-            Map<ShiftType, List<Employee>> plannedEmployees = new HashMap<ShiftType, List<Employee>>();
-            Map<ShiftType, Integer> preferredCounts = new HashMap<ShiftType, Integer>();
-
-            for (Map<ShiftType, Employee> map: dayRoster.getDayRoster()) {
-                for (Map.Entry<ShiftType, Employee> roster : map.entrySet()) {
-                    ShiftType shiftType = roster.getKey();
-                    Employee employee = roster.getValue();
-
-                    if (plannedEmployees.containsKey(shiftType)) {
-                        // only add, if not in list already
-                        if (!plannedEmployees.get(shiftType).contains(employee)) {
-                            plannedEmployees.get(shiftType).add(employee);
-                        }
-                    } else {
-                        List<Employee> employees = new ArrayList<Employee>();
-                        employees.add(employee);
-                        plannedEmployees.put(shiftType, employees);
-                    }
+        if (genome == null) {
+            return true;
+        }
 
-                    if (!preferredCounts.containsKey(shiftType)) {
-                        preferredCounts.put(shiftType, period.getPreferredEmployeeCount(shiftType, dayRoster.getDate()));
-                    }
-                }
-            }
+        boolean feasible = getHardConstraints().isFeasible();
+        assert feasible == checkFeasibility() : "Hard constraint state differs from genome of individual " + id;
 
-            // check, if size of each planned employees is equal preferred counts and each employee assigned only once
-            List<Employee> employeesAssigned = new ArrayList<Employee>();
-            for (Map.Entry<ShiftType, List<Employee>> planned: plannedEmployees.entrySet()) {
-                ShiftType shiftType1 = planned.getKey();
-                List<Employee> employees = planned.getValue();
+        return feasible;
+    }
 
-                for (Employee employee : employees) {
-                    if (employeesAssigned.contains(employee)) {
-                        // employee is assigned today, solution infeasible
+    /**
+     * Returns true, if this individual is a feasible solution after swapping
+     * the assignments of two employees on the given days. The individual is
+     * left unchanged.
+     * @param employee1 Index of first employee
+     * @param employee2 Index of second employee
+     * @param days Day numbers
+     * @return True, if feasible after the swap
+     */
+    public boolean isSwapFeasible(int employee1, int employee2, int... days) {
+        getHardConstraints();
+
+        swapAssignments(employee1, employee2, days);
+        boolean feasible = hardConstraints.isFeasible();
+        swapAssignments(employee1, employee2, days);
+
+        return feasible;
+    }
+
+    /**
+     * Returns the hard constraint state, creates it from the genome on first use.
+     * @return HardConstraintState instance
+     */
+    private HardConstraintState getHardConstraints() {
+        if (hardConstraints == null) {
+            hardConstraints = new HardConstraintState(period.getCompiled(), genome, numberOfDays);
+        }
+
+        return hardConstraints;
+    }
+
+    /**
+     * Checks all hard constraints by scanning all days of the genome.
+     * @return True, if all hard constraints are satisfied
+     */
+    private boolean checkFeasibility() {
+        CompiledPeriod compiled = period.getCompiled();
+        int numberOfShiftTypes = compiled.getNumberOfShiftTypes();
+        int numberOfEmployees = compiled.getNumberOfEmployees();
+        int[] plannedCounts = new int[numberOfShiftTypes];
+
+        // check, if hard  constraints for each planned day are satisfied
+        for (int day = 0; day < numberOfDays; day++) {
+            Arrays.fill(plannedCounts, 0);
+            for (int employee = 0, offset = day * numberOfEmployees; employee < numberOfEmployees; employee++) {
+                int shiftTypeIndex = genome[offset + employee];
+                if (shiftTypeIndex != DayRoster.FREE) {
+                    // if the nurse doesn't have the required skill, the demand is unsatisfied
+                    if (!compiled.hasRequiredSkills(employee, shiftTypeIndex)) {
                         return false;
-                    } else {
-                        employeesAssigned.add(employee);
                     }
+                    plannedCounts[shiftTypeIndex]++;
                 }
+            }
 
-                if (!preferredCounts.containsKey(shiftType1) || !(employees.size() == preferredCounts.get(shiftType1))) {
+            // Check, if number of planned employees is equal preferred counts. Each employee
+            // is assigned only once per day by construction of the genome.
+            for (int shiftTypeIndex = 0; shiftTypeIndex < numberOfShiftTypes; shiftTypeIndex++) {
+                if (plannedCounts[shiftTypeIndex] != compiled.getCover(day, shiftTypeIndex)) {
                     return false;
                 }
             }
-
-            // check if demand for the day is satisfied
-            if (!dayRoster.isDemandedShiftAssignedToNurse()) {
-                return false;
-            }
         }
 
         // no hard constraint is unsatisfied, this is a feasible solution
@@ -194,12 +221,266 @@ public class Individual {
     public float getFitness(boolean forceRecalculation) {
         // if fitness value is not calculated, calculate now
         if (fitness == null || forceRecalculation) {
-            fitness = fitnessCalculator.calculate(this, period);
+            fitness = calculateFitness();
         }
 
         return fitness;
     }
 
+    /**
+     * Calculates the fitness as sum of the fitness parts of all employees. The
+     * roster may have been changed in place, thus only the parts of employees
+     * with changed assignments are recalculated.
+     * @return Fitness value
+     */
+    private float calculateFitness() {
+        // an individual without rosters has nothing to be cached
+        if (genome == null) {
+            return fitnessCalculator.calculate(this, period);
+        }
+
+        int numberOfEmployees = period.getEmployees().size();
+        float sum = 0;
+
+        if (!isEvaluated()) {
+            // no (usable) fitness parts yet, calculate all of them
+            clearCaches();
+            employeeFitness = new float[numberOfEmployees];
+            evaluatedGenome = genome.clone();
+            evaluatedDays = numberOfDays;
+            for (int employee = 0; employee < numberOfEmployees; employee++) {
+                employeeFitness[employee] = fitnessCalculator.calculate(this, period, period.getCompiled().getEmployee(employee));
+            }
+        } else {
+            for (int employee = 0; employee < numberOfEmployees; employee++) {
+                updateEmployeeFitness(employee);
+            }
+        }
+
+        for (int employee = 0; employee < numberOfEmployees; employee++) {
+            sum += employeeFitness[employee];
+        }
+
+        return sum;
+    }
+
+    /**
+     * Returns true, if there are fitness parts for the current genome layout.
+     * @return True, if fitness parts are available
+     */
+    private boolean isEvaluated() {
+        return employeeFitness != null
+                && evaluatedDays == numberOfDays
+                && evaluatedGenome.length == genome.length;
+    }
+
+    /**
+     * Returns true, if the assignments of an employee differ from the ones
+     * the fitness part was calculated for.
+     * @param employee Employee index
+     * @return True, if the assignments of the employee changed
+     */
+    private boolean isChanged(int employee) {
+        int numberOfEmployees = period.getEmployees().size();
+
+        for (int offset = employee; offset < numberOfDays * numberOfEmployees; offset += numberOfEmployees) {
+            if (genome[offset] != evaluatedGenome[offset]) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Recalculates the fitness part of an employee, if the assignments of the
+     * employee changed, and returns it.
+     * @param employee Employee index
+     * @return Fitness part of the employee
+     */
+    private float updateEmployeeFitness(int employee) {
+        if (isChanged(employee)) {
+            int numberOfEmployees = period.getEmployees().size();
+
+            employeeFitness[employee] = calculateEmployeeFitness(employee);
+            for (int offset = employee; offset < numberOfDays * numberOfEmployees; offset += numberOfEmployees) {
+                evaluatedGenome[offset] = genome[offset];
+            }
+        }
+
+        return employeeFitness[employee];
+    }
+
+    /**
+     * Calculates the fitness part of an employee for the current genome.
+     * @param employee Employee index
+     * @return Fitness part of the employee
+     */
+    private float calculateEmployeeFitness(int employee) {
+        Employee instance = period.getCompiled().getEmployee(employee);
+
+        clearCaches(instance);
+        return fitnessCalculator.calculate(this, period, instance);
+    }
+
+    /**
+     * Returns the fitness part of an employee, i.e. the deviations of all soft
+     * constraints of this employee.
+     * @param employee Employee index
+     * @return Fitness part of the employee
+     */
+    public float getEmployeeFitness(int employee) {
+        if (!isEvaluated()) {
+            calculateFitness();
+        }
+
+        return updateEmployeeFitness(employee);
+    }
+
+    /**
+     * Returns the change of the fitness value, if the assignments of two employees
+     * are swapped on the given days. Only the two employees are recalculated, the
+     * individual is left unchanged.
+     *
+     * A swap of a working and a free employee on a single day reassigns the shift,
+     * a swap on two days where each employee works the same shift type on one of
+     * the days exchanges the nurses like SwappingNursesMutation.
+     * @param employee1 Index of first employee
+     * @param employee2 Index of second employee
+     * @param days Day numbers
+     * @return Fitness delta (negative, if the swap is an improvement)
+     */
+    public float getSwapDelta(int employee1, int employee2, int... days) {
+        float before = getEmployeeFitness(employee1) + getEmployeeFitness(employee2);
+
+        swapAssignments(employee1, employee2, days);
+        float after = calculateEmployeeFitness(employee1) + calculateEmployeeFitness(employee2);
+
+        // swap back, cached information belongs to the swapped roster
+        swapAssignments(employee1, employee2, days);
+        clearCaches(period.getCompiled().getEmployee(employee1));
+        clearCaches(period.getCompiled().getEmployee(employee2));
+
+        return after - before;
+    }
+
+    /**
+     * Swaps the assignments of two employees on the given days and updates the
+     * fitness value by recalculating the two employees only.
+     * @param employee1 Index of first employee
+     * @param employee2 Index of second employee
+     * @param days Day numbers
+     * @return Fitness delta (negative, if the swap is an improvement)
+     */
+    public float swap(int employee1, int employee2, int... days) {
+        float before = getEmployeeFitness(employee1) + getEmployeeFitness(employee2);
+
+        swapAssignments(employee1, employee2, days);
+        float delta = updateEmployeeFitness(employee1) + updateEmployeeFitness(employee2) - before;
+
+        if (fitness != null) {
+            fitness += delta;
+        }
+
+        return delta;
+    }
+
+    /**
+     * Swaps the genome values of two employees on the given days.
+     * @param employee1 Index of first employee
+     * @param employee2 Index of second employee
+     * @param days Day numbers
+     */
+    private void swapAssignments(int employee1, int employee2, int... days) {
+        for (int day: days) {
+            int shiftTypeIndex1 = getShiftTypeIndex(day, employee1);
+            setAssignment(day, employee1, getShiftTypeIndex(day, employee2));
+            setAssignment(day, employee2, shiftTypeIndex1);
+        }
+    }
+
+    /**
+     * Returns the shift type index of an employee on a day.
+     * @param day Day number
+     * @param employee Employee index
+     * @return Shift type index or DayRoster.FREE
+     */
+    public int getShiftTypeIndex(int day, int employee) {
+        return genome[day * period.getEmployees().size() + employee];
+    }
+
+    /**
+     * Returns true, if this individual is a feasible solution after assigning
+     * a shift type to an employee on a day. The individual is left unchanged.
+     * @param day Day number
+     * @param employee Employee index
+     * @param shiftTypeIndex Shift type index or DayRoster.FREE
+     * @return True, if feasible after the assignment
+     */
+    public boolean isAssignmentFeasible(int day, int employee, int shiftTypeIndex) {
+        return getHardConstraints().isFeasible(day, employee, getShiftTypeIndex(day, employee), shiftTypeIndex);
+    }
+
+    /**
+     * Returns the change of the fitness value, if a shift type is assigned to
+     * an employee on a day. Only the employee is recalculated, the individual
+     * is left unchanged.
+     * @param day Day number
+     * @param employee Employee index
+     * @param shiftTypeIndex Shift type index or DayRoster.FREE
+     * @return Fitness delta (negative, if the assignment is an improvement)
+     */
+    public float getAssignmentDelta(int day, int employee, int shiftTypeIndex) {
+        float before = getEmployeeFitness(employee);
+        int previousShiftTypeIndex = getShiftTypeIndex(day, employee);
+
+        setAssignment(day, employee, shiftTypeIndex);
+        float after = calculateEmployeeFitness(employee);
+
+        // assign back, cached information belongs to the changed roster
+        setAssignment(day, employee, previousShiftTypeIndex);
+        clearCaches(period.getCompiled().getEmployee(employee));
+
+        return after - before;
+    }
+
+    /**
+     * Assigns a shift type to an employee on a day (replacing the previous
+     * assignment) and updates the fitness value by recalculating the employee only.
+     * @param day Day number
+     * @param employee Employee index
+     * @param shiftTypeIndex Shift type index or DayRoster.FREE
+     * @return Fitness delta (negative, if the assignment is an improvement)
+     */
+    public float assign(int day, int employee, int shiftTypeIndex) {
+        float before = getEmployeeFitness(employee);
+
+        setAssignment(day, employee, shiftTypeIndex);
+        float delta = updateEmployeeFitness(employee) - before;
+
+        if (fitness != null) {
+            fitness += delta;
+        }
+
+        return delta;
+    }
+
+    /**
+     * Sets the genome value of an employee on a day and updates the hard constraint state.
+     * @param day Day number
+     * @param employee Employee index
+     * @param shiftTypeIndex Shift type index or DayRoster.FREE
+     */
+    private void setAssignment(int day, int employee, int shiftTypeIndex) {
+        int offset = day * period.getEmployees().size() + employee;
+        int previousShiftTypeIndex = genome[offset];
+        genome[offset] = (byte) shiftTypeIndex;
+
+        if (hardConstraints != null) {
+            hardConstraints.assign(day, employee, previousShiftTypeIndex, shiftTypeIndex);
+        }
+    }
+
     /**
      * Returns the fitness value for this individual. The lower the value, the better.
      * @return Fitness value
@@ -208,6 +489,14 @@ public class Individual {
         return getFitness(false);
     }
 
+    /**
+     * Returns the SchedulingPeriod instance.
+     * @return SchedulingPeriod instance
+     */
+    public SchedulingPeriod getSchedulingPeriod() {
+        return period;
+    }
+
     /**
      * Setter for SchedulingPeriod instance.
      * @param period SchedulingPeriod instance
@@ -225,21 +514,117 @@ public class Individual {
         copyInstance.fitness = individual.fitness;
         copyInstance.period = individual.period;
 
-        // deep copy day roster
-        for (DayRoster dayRoster: individual.roster) {
-            copyInstance.roster.add(DayRoster.copy(dayRoster));
+        // deep copy day rosters, employees and shift types are referenced by index
+        copyInstance.genome = individual.genome == null ? null : individual.genome.clone();
+        copyInstance.numberOfDays = individual.numberOfDays;
+
+        // copy the fitness parts, thus only changed employees are recalculated
+        if (individual.employeeFitness != null) {
+            copyInstance.employeeFitness = individual.employeeFitness.clone();
+            copyInstance.evaluatedGenome = individual.evaluatedGenome.clone();
+            copyInstance.evaluatedDays = individual.evaluatedDays;
+        }
+        if (individual.hardConstraints != null) {
+            copyInstance.hardConstraints = new HardConstraintState(individual.hardConstraints);
         }
 
         return copyInstance;
     }
 
     /**
-     * Adds a DayRoster instance to all rosters and takes care of updating
-     * TimeUnit instances.
+     * Writes the genome of this individual, e.g. into a checkpoint. The fitness
+     * is not written, it is recalculated after reading.
+     * @param output DataOutput instance
+     * @throws IOException Exception on IO error.
+     */
+    public void write(DataOutput output) throws IOException {
+        output.writeInt(numberOfDays);
+        output.writeInt(genome == null ? 0 : genome.length);
+        if (genome != null) {
+            output.write(genome);
+        }
+    }
+
+    /**
+     * Reads an individual written by write().
+     * @param input DataInput instance
+     * @param period SchedulingPeriod instance the individual was written for
+     * @return Individual instance
+     * @throws IOException Exception on IO error or if the genome does not fit the period.
+     */
+    public static Individual read(DataInput input, SchedulingPeriod period) throws IOException {
+        Individual individual = new Individual();
+        individual.period = period;
+        individual.numberOfDays = input.readInt();
+
+        int length = input.readInt();
+        if (length % period.getEmployees().size() != 0 || individual.numberOfDays * period.getEmployees().size() > length) {
+            throw new IOException("Genome does not fit the scheduling period.");
+        }
+        if (length > 0) {
+            individual.genome = new byte[length];
+            input.readFully(individual.genome);
+        }
+
+        return individual;
+    }
+
+    /**
+     * Returns the DayRoster view of a day.
+     * @param day Day number
+     * @return DayRoster instance
+     */
+    private DayRoster getDayRoster(int day) {
+        if (views == null) {
+            views = new DayRoster[genome.length / period.getEmployees().size()];
+        }
+        if (views[day] == null) {
+            final int viewDay = day;
+            views[day] = new DayRoster(period, genome, day * period.getEmployees().size(), period.getCompiled().getDate(day),
+                    new DayRoster.AssignmentListener() {
+                        @Override
+                        public void assigned(int employeeIndex, int previousShiftTypeIndex, int shiftTypeIndex) {
+                            // keep the hard constraint state up to date with changes through the view
+                            if (hardConstraints != null) {
+                                hardConstraints.assign(viewDay, employeeIndex, previousShiftTypeIndex, shiftTypeIndex);
+                            }
+                        }
+                    });
+        }
+
+        return views[day];
+    }
+
+    /**
+     * Copies the roster information of a DayRoster instance into a day row.
+     * @param day Day number
+     * @param dayRoster DayRoster instance
+     */
+    private void setDayRoster(int day, DayRoster dayRoster) {
+        dayRoster.copyRowTo(genome, day * period.getEmployees().size());
+    }
+
+    /**
+     * Adds a DayRoster instance to all rosters. The roster information is
+     * copied into the genome, the given instance is not referenced.
      * @param dayRoster DayRoster instance
      */
     public void addDayRoster(DayRoster dayRoster) {
-        roster.add(dayRoster);
+        int numberOfEmployees = period.getEmployees().size();
+
+        // allocate the genome for the whole period at once
+        if (genome == null || (numberOfDays + 1) * numberOfEmployees > genome.length) {
+            int capacity = Math.max(numberOfDays + 1, DateTimeHelper.getInstance().getNumberOfDays(period));
+            genome = genome == null
+                    ? new byte[capacity * numberOfEmployees]
+                    : Arrays.copyOf(genome, capacity * numberOfEmployees);
+            views = null;
+        }
+
+        setDayRoster(numberOfDays++, dayRoster);
+        if (hardConstraints != null) {
+            hardConstraints.addDay(genome, numberOfDays - 1);
+        }
     }
 
     /**
@@ -249,42 +634,36 @@ public class Individual {
      */
     public int getNumAssignments(Employee employee) {
         // check, if number of assignments is already calculated
-        if (numAssignments.containsKey(employee)) {
-            return numAssignments.get(employee);
+        if (getCaches().numAssignments.containsKey(employee)) {
+            return getCaches().numAssignments.get(employee);
         }
 
         // calculate number of assignments and store in cache
-        int assignments = 0;
-        for (DayRoster dayRoster: roster) {
-            if (dayRoster.isEmployeePlanned(employee)) {
-                assignments++;
-            }
-        }
-        numAssignments.put(employee, assignments);
+        int assignments = getWorkCalendar(employee).getNumberOfWorkingDays();
+        getCaches().numAssignments.put(employee, assignments);
 
         return assignments;
     }
 
     /**
-     * Returns a map of DayRoster -> Boolean where Boolean is True, if employee is working that day.
+     * Returns the work calendar of an employee, i.e. a bitset of the days the
+     * employee is working.
      * @param employee Employee instance
-     * @return Map with True/False values for each day of an employee
+     * @return WorkCalendar instance
      */
-    private Map<DayRoster, Boolean> getAssignments(Employee employee) {
-        // return assignments, if already calculated
-        if (assignments.containsKey(employee)) {
-            return assignments.get(employee);
+    public WorkCalendar getWorkCalendar(Employee employee) {
+        if (calendars == null) {
+            calendars = new WorkCalendar[period.getEmployees().size()];
         }
 
-        // build a map for each day roster with employee planned booleans
-        Map<DayRoster, Boolean> assigned = new LinkedHashMap<DayRoster, Boolean>();
-        for (DayRoster dayRoster: roster) {
-            assigned.put(dayRoster, dayRoster.isEmployeePlanned(employee));
+        // build the calendar from the genome column of the employee and store in cache
+        WorkCalendar calendar = calendars[employee.getIndex()];
+        if (calendar == null) {
+            calendar = new WorkCalendar(genome, period.getEmployees().size(), employee.getIndex(), numberOfDays);
+            calendars[employee.getIndex()] = calendar;
         }
 
-        // store assignments in cache and return result
-        assignments.put(employee, assigned);
-        return assigned;
+        return calendar;
     }
 
     /**
@@ -293,54 +672,14 @@ public class Individual {
      */
     private void calculateConsecutiveDays(Employee employee) {
         // calculate number of consecutive events and store in caches
-        int consecutiveWork = 0, consecutiveFree = 0,
-                lastMinConsecutiveWork = 0, lastMaxConsecutiveWork = 0,
-                lastMinConsecutiveFree = 0, lastMaxConsecutiveFree = 0;
-        boolean yesterdayWork = false, yesterdayFree = false;
-        for (Map.Entry<DayRoster, Boolean> entry: getAssignments(employee).entrySet()) {
-            if (entry.getValue()) {
-                // employee works today, check if employee also worked yesterday
-                if (yesterdayWork) {
-                    consecutiveWork++;
-                }
-
-                // employee has not free today, update last numbers of consecutive free days
-                if (consecutiveFree > lastMaxConsecutiveFree) {
-                    lastMaxConsecutiveFree = consecutiveFree;
-                }
-                if (lastMinConsecutiveFree == 0
-                        || consecutiveFree > 0 && consecutiveFree < lastMinConsecutiveFree) {
-                    lastMinConsecutiveFree = consecutiveFree;
-                }
-
-                consecutiveFree = 0;
-                yesterdayWork = true;
-                yesterdayFree = false;
-            } else {
-                // employee has free today, check if employee had free yesterday
-                if (yesterdayFree) {
-                    consecutiveFree++;
-                }
-
-                // employee does not work today, update last numbers of consecutive assignments
-                if (consecutiveWork > lastMaxConsecutiveWork) {
-                    lastMaxConsecutiveWork = consecutiveWork;
-                }
-                if (lastMinConsecutiveWork == 0
-                        || consecutiveWork > 0 && consecutiveWork < lastMinConsecutiveWork) {
-                    lastMinConsecutiveWork = consecutiveWork;
-                }
-
-                consecutiveWork = 0;
-                yesterdayWork = false;
-                yesterdayFree = true;
-            }
-        }
-
-        numConsecutiveMinWork.put(employee, lastMinConsecutiveWork);
-        numConsecutiveMaxWork.put(employee, lastMaxConsecutiveWork);
-        numConsecutiveMinFree.put(employee, lastMinConsecutiveFree);
-        numConsecutiveMaxFree.put(employee, lastMaxConsecutiveFree);
+        WorkCalendar calendar = getWorkCalendar(employee);
+        int[] consecutiveWork = calendar.getConsecutiveDays(true);
+        int[] consecutiveFree = calendar.getConsecutiveDays(false);
+
+        getCaches().numConsecutiveMinWork.put(employee, consecutiveWork[0]);
+        getCaches().numConsecutiveMaxWork.put(employee, consecutiveWork[1]);
+        getCaches().numConsecutiveMinFree.put(employee, consecutiveFree[0]);
+        getCaches().numConsecutiveMaxFree.put(employee, consecutiveFree[1]);
     }
 
     /**
@@ -368,12 +707,12 @@ public class Individual {
      * @return Float of deviation for unwanted patterns per employee
      */
     private float getUnwantedPatternInformation(Employee employee) {
-        if (unwantedPatternsDeviations.containsKey(employee)) {
-            return unwantedPatternsDeviations.get(employee);
+        if (getCaches().unwantedPatternsDeviations.containsKey(employee)) {
+            return getCaches().unwantedPatternsDeviations.get(employee);
         }
 
         // we have no deviation information, calculate and add
-        unwantedPatternsDeviations.put(employee, calculateUnwantedPatternsDeviation(employee));
+        getCaches().unwantedPatternsDeviations.put(employee, calculateUnwantedPatternsDeviation(employee));
 
         // re-run this method to return the calculated values
         return getUnwantedPatternInformation(employee);
@@ -385,7 +724,7 @@ public class Individual {
      * @return Minimum number of consecutive working days per employee
      */
     public int getNumMinConsecutiveWork(Employee employee) {
-        return getDayInformation(employee, numConsecutiveMinWork);
+        return getDayInformation(employee, getCaches().numConsecutiveMinWork);
     }
 
     /**
@@ -394,7 +733,7 @@ public class Individual {
      * @return Maximum number of consecutive working days per employee
      */
     public int getNumMaxConsecutiveWork(Employee employee) {
-        return getDayInformation(employee, numConsecutiveMaxWork);
+        return getDayInformation(employee, getCaches().numConsecutiveMaxWork);
     }
 
     /**
@@ -403,7 +742,7 @@ public class Individual {
      * @return Minimum number of consecutive free days per employee
      */
     public int getNumMinConsecutiveFree(Employee employee) {
-        return getDayInformation(employee, numConsecutiveMinFree);
+        return getDayInformation(employee, getCaches().numConsecutiveMinFree);
     }
 
     /**
@@ -412,64 +751,20 @@ public class Individual {
      * @return Maximum number of consecutive free days per employee
      */
     public int getNumMaxConsecutiveFree(Employee employee) {
-        return getDayInformation(employee, numConsecutiveMaxFree);
+        return getDayInformation(employee, getCaches().numConsecutiveMaxFree);
     }
 
     /**
-     * Calculates the unwanted pattern information per employee
+     * Calculates the unwanted pattern information per employee. All unwanted
+     * patterns of the contract are matched in one pass by its pattern automaton.
      * @param employee Employee instance
      */
     private float calculateUnwantedPatternsDeviation(Employee employee) {
-        float deviation = 0;
-
-        // calculate for every unwanted pattern per employee
-        for (Pattern pattern: employee.getContract().getUnwantedPatterns()) {
-            Boolean satisfied = true;
-            //PatternEntry[] patternEntries = (PatternEntry[]) pattern.getEntries().values().toArray();
-            List<PatternEntry> patternEntries = new ArrayList<PatternEntry>(pattern.getEntries().values());
-            int peIndex = 0; // pattern entry index
-
-            // check for each day
-            for (Map.Entry<DayRoster, Boolean> dayRosterEntry: getAssignments(employee).entrySet()) {
-                DayRoster dayRoster = dayRosterEntry.getKey();
-                Boolean working = dayRosterEntry.getValue();
-                PatternEntry patternEntry = patternEntries.get(peIndex);
-
-                // if current day matches pattern entry day or is any day
-                if (patternEntry.isDayAny()
-                        || patternEntry.getDay().equals(dayRoster.getDay())) {
-
-                    // If
-                    //  shift type of employee matches pattern entry shift type
-                    //  or is any shift type
-                    //  or employee is working and should not have a shift assigned
-                    ShiftType shiftType = dayRoster.getShiftTypeForEmployee(employee);
-                    if ((working && patternEntry.isShiftTypeNone())
-                            || patternEntry.isShiftTypeAny()
-                            || (shiftType != null && patternEntry.getShiftType().equals(shiftType))) {
-
-                        // Increase peIndex to check next pattern element.
-                        // If all pattern elements matched, this unwanted pattern soft-constraint
-                        // is unsatisfied.
-                        if (++peIndex >= patternEntries.size()) {
-                            satisfied = false;
-                            break;
-                        }
-                    } else {
-                        peIndex = 0; // reset peIndex, as unwanted pattern is not complete
-                    }
-                } else {
-                    peIndex = 0; // reset peIndex, as unwanted pattern is not complete
-                }
-            }
-
-            // if unwanted pattern is unsatisfied, add deviation
-            if (!satisfied) {
-                deviation += pattern.getWeight();
-            }
-        }
+        CompiledPeriod compiled = period.getCompiled();
+        PatternAutomaton automaton = compiled.getPatternAutomaton(compiled.getContractIndex(employee.getIndex()));
 
-        return deviation;
+        return automaton.getDeviation(genome, compiled.getNumberOfEmployees(), employee.getIndex(),
+                compiled.getDaysOfWeek(), numberOfDays);
     }
 
     /**
@@ -477,70 +772,42 @@ public class Individual {
      * @param employee Employee instance
      */
     private void calculateWeekends(Employee employee) {
-        // calculate number of consecutive events and store in caches
-        int consecutiveWork = 0, totalWork = 0,
-                lastMinConsecutiveWeekendWork = 0, lastMaxConsecutiveWeekendWork = 0;
+        CompiledPeriod compiled = period.getCompiled();
+        int contract = compiled.getContractIndex(employee.getIndex());
+        long[] weekendMask = compiled.getWeekendMask(contract);
+        int[] weekendDays = compiled.getWeekendDays(contract);
+        WorkCalendar calendar = getWorkCalendar(employee);
 
-        boolean lastWeekendWork = false,
-                completeWeekend = true,
-                identicalShiftTypes = true,
-                noNight = true;
-
-        ShiftType lastShift = null;
-
-        for (Map.Entry<DayRoster, Boolean> entry: getAssignments(employee).entrySet()) {
-            DayRoster dayRoster = entry.getKey();
-            Boolean working = entry.getValue();
-
-            if (!DateTimeHelper.getInstance().isWeekend(dayRoster.getDate(), employee.getContract())) {
-                // this day is not a weekend as of weekend definition in contract, go on..
-                continue;
-            }
+        // consecutive events are counted on the sequence of weekend days (as of weekend definition in contract)
+        int[] consecutiveWork = calendar.select(weekendDays).getConsecutiveDays(true);
 
-            if (working) {
-                // this is a weekend day and the employee is working
-                totalWork++;
-
-                // if employee worked last weekend day, increase consecutiveWork
-                if (lastWeekendWork) {
-                    consecutiveWork++;
-                }
-
-                lastWeekendWork = true;
+        boolean identicalShiftTypes = true,
+                noNight = true;
 
-                // check identical shift types
-                if (lastShift == null) {
-                    lastShift = dayRoster.getShiftTypeForEmployee(employee);
-                } else if (lastShift != dayRoster.getShiftTypeForEmployee(employee)) {
+        // compare the shift types with the shift type of the first working weekend day
+        int firstDay = calendar.getFirstWorkingDay(weekendMask);
+        if (firstDay >= 0) {
+            int numberOfEmployees = compiled.getNumberOfEmployees();
+            int firstShiftType = genome[firstDay * numberOfEmployees + employee.getIndex()];
+            for (int day: weekendDays) {
+                int shiftType = genome[day * numberOfEmployees + employee.getIndex()];
+                if (day > firstDay && shiftType != DayRoster.FREE && shiftType != firstShiftType) {
                     // there was another shift type, identicalShiftTypes is not true anymore
                     identicalShiftTypes = false;
+                    break;
                 }
-            } else {
-                // employee does not work today, update last numbers of consecutive events
-                if (consecutiveWork > lastMaxConsecutiveWeekendWork) {
-                    lastMaxConsecutiveWeekendWork = consecutiveWork;
-                }
-                if (lastMinConsecutiveWeekendWork == 0
-                        || consecutiveWork > 0 && consecutiveWork < lastMinConsecutiveWeekendWork) {
-                    lastMinConsecutiveWeekendWork = consecutiveWork;
-                }
-                // check, if last shift type was not a night shift
-                if (lastShift != null && lastShift.isNight()) {
-                    noNight = false;
-                }
-
-                consecutiveWork = 0;
-                lastWeekendWork = false;
-                completeWeekend = false;
             }
+
+            // check, if the first shift type was not a night shift followed by a free weekend day
+            noNight = !compiled.isNight(firstShiftType) || !calendar.hasFreeDayAfter(weekendMask, firstDay);
         }
 
-        numWeekendsTotal.put(employee, totalWork);
-        numConsecutiveWeekendsMin.put(employee, lastMinConsecutiveWeekendWork);
-        numConsecutiveWeekendsMax.put(employee, lastMaxConsecutiveWeekendWork);
-        completeWeekends.put(employee, completeWeekend);
-        identicalShiftTypesDuringWeekend.put(employee, identicalShiftTypes);
-        noNightShiftsBeforeWeekends.put(employee, noNight);
+        getCaches().numWeekendsTotal.put(employee, calendar.getNumberOfWorkingDays(weekendMask));
+        getCaches().numConsecutiveWeekendsMin.put(employee, consecutiveWork[0]);
+        getCaches().numConsecutiveWeekendsMax.put(employee, consecutiveWork[1]);
+        getCaches().completeWeekends.put(employee, calendar.isWorkingOnAll(weekendMask));
+        getCaches().identicalShiftTypesDuringWeekend.put(employee, identicalShiftTypes);
+        getCaches().noNightShiftsBeforeWeekends.put(employee, noNight);
     }
 
     /**
@@ -567,7 +834,7 @@ public class Individual {
      * @return Total number of working weekends per employee
      */
     public int getNumTotalWeekendsWork(Employee employee) {
-        return (Integer) getWeekendInformation(employee, numWeekendsTotal);
+        return (Integer) getWeekendInformation(employee, getCaches().numWeekendsTotal);
     }
 
     /**
@@ -576,7 +843,7 @@ public class Individual {
      * @return Minimum number of consecutive working weekends per employee
      */
     public int getNumMinConsecutiveWeekendsWork(Employee employee) {
-        return (Integer) getWeekendInformation(employee, numConsecutiveWeekendsMin);
+        return (Integer) getWeekendInformation(employee, getCaches().numConsecutiveWeekendsMin);
     }
 
     /**
@@ -585,7 +852,7 @@ public class Individual {
      * @return Maximum number of consecutive working weekends per employee
      */
     public int getNumMaxConsecutiveWeekendsWork(Employee employee) {
-        return (Integer) getWeekendInformation(employee, numConsecutiveWeekendsMax);
+        return (Integer) getWeekendInformation(employee, getCaches().numConsecutiveWeekendsMax);
     }
 
     /**
@@ -594,7 +861,7 @@ public class Individual {
      * @return True, if employee has to work completely on weekends, otherwise false
      */
     public boolean isCompleteWeekends(Employee employee) {
-        return (Boolean) getWeekendInformation(employee, completeWeekends);
+        return (Boolean) getWeekendInformation(employee, getCaches().completeWeekends);
     }
 
     /**
@@ -612,7 +879,7 @@ public class Individual {
      * @return True, if employee has only identical shift types on weekends, otherwise false
      */
     public boolean isIdenticalShiftType(Employee employee) {
-        return (Boolean) getWeekendInformation(employee, identicalShiftTypesDuringWeekend);
+        return (Boolean) getWeekendInformation(employee, getCaches().identicalShiftTypesDuringWeekend);
     }
 
     /**
@@ -621,17 +888,52 @@ public class Individual {
      * @return True, if employee has no night shifts before a free weekends, otherwise false
      */
     public boolean isNoNightShiftsBeforeFreeWeekend(Employee employee) {
-        return (Boolean) getWeekendInformation(employee, noNightShiftsBeforeWeekends);
+        return (Boolean) getWeekendInformation(employee, getCaches().noNightShiftsBeforeWeekends);
     }
 
     /**
      * Resets the rosters.
      */
     public void resetRosters() {
-        int rosterSize = roster.size();
-        for (int i = rosterSize-1; i >= 0; i--) {
-            roster.remove(i);
+        numberOfDays = 0;
+        if (genome != null) {
+            Arrays.fill(genome, DayRoster.FREE);
         }
+        employeeFitness = null;
+        hardConstraints = null;
+        clearCaches();
+    }
+
+    /**
+     * Clears the cached information derived from the rosters of an employee.
+     * @param employee Employee instance
+     */
+    private void clearCaches(Employee employee) {
+        if (calendars != null) {
+            calendars[employee.getIndex()] = null;
+        }
+        if (caches != null) {
+            caches.numAssignments.remove(employee);
+            caches.numConsecutiveMaxWork.remove(employee);
+            caches.numConsecutiveMinWork.remove(employee);
+            caches.numConsecutiveMaxFree.remove(employee);
+            caches.numConsecutiveMinFree.remove(employee);
+            caches.numWeekendsTotal.remove(employee);
+            caches.numConsecutiveWeekendsMin.remove(employee);
+            caches.numConsecutiveWeekendsMax.remove(employee);
+            caches.identicalShiftTypesDuringWeekend.remove(employee);
+            caches.completeWeekends.remove(employee);
+            caches.noNightShiftsBeforeWeekends.remove(employee);
+            caches.unwantedPatternsDeviations.remove(employee);
+        }
+    }
+
+    /**
+     * Clears all cached information derived from the rosters.
+     */
+    private void clearCaches() {
+        calendars = null;
+        caches = null;
     }
 
     /**
@@ -640,17 +942,12 @@ public class Individual {
      * @return Deviation
      */
     public float getDayOffRequestsDeviation(Employee employee) {
+        CompiledPeriod compiled = period.getCompiled();
         float deviation = 0;
 
-        for (DayOff dayOff: employee.getDayOffRequests()) {
-            for (Map.Entry<DayRoster, Boolean> assignment: getAssignments(employee).entrySet()) {
-                if (assignment.getKey().getDate().equals(dayOff.getDate())) {
-                    if (assignment.getValue().equals(true)) {
-                        deviation += dayOff.getWeight();
-                    }
-
-                    break;
-                }
+        for (int day = 0; day < numberOfDays; day++) {
+            if (isPlanned(day, employee.getIndex())) {
+                deviation += compiled.getDayOffWeight(employee.getIndex(), day);
             }
         }
 
@@ -663,23 +960,28 @@ public class Individual {
      * @return Deviation
      */
     public float getShiftOffRequestsDeviation(Employee employee) {
+        CompiledPeriod compiled = period.getCompiled();
         float deviation = 0;
 
-        for (ShiftOff shiftOff: employee.getShiftOffRequests()) {
-            for (Map.Entry<DayRoster, Boolean> assignment: getAssignments(employee).entrySet()) {
-                if (assignment.getKey().getDate().equals(shiftOff.getDate())) {
-                    if (assignment.getValue().equals(true)) {
-                        deviation += shiftOff.getWeight();
-                    }
-
-                    break;
-                }
+        for (int day = 0; day < numberOfDays; day++) {
+            if (isPlanned(day, employee.getIndex())) {
+                deviation += compiled.getShiftOffWeight(employee.getIndex(), day);
             }
         }
 
         return deviation;
     }
 
+    /**
+     * Returns true, if an employee is planned on a day.
+     * @param day Day index
+     * @param employee Employee index
+     * @return True, if planned
+     */
+    private boolean isPlanned(int day, int employee) {
+        return genome[day * period.getEmployees().size() + employee] != DayRoster.FREE;
+    }
+
     @Override
     public String toString() {
         String nl = System.getProperty("line.separator");
@@ -693,4 +995,125 @@ public class Individual {
 
         return out.toString();
     }
+
+    /**
+     * Returns the caches, creates them on first use.
+     * @return Caches instance
+     */
+    private Caches getCaches() {
+        if (caches == null) {
+            caches = new Caches();
+        }
+
+        return caches;
+    }
+
+    /**
+     * Caches for information derived from the rosters per employee.
+     */
+    private static class Caches {
+        /**
+         * Cache for number of assignments per employee.
+         */
+        private Map<Employee, Integer> numAssignments = new HashMap<Employee, Integer>();
+
+        /**
+         * Cache for maximum number of consecutive assignments per employee.
+         */
+        private Map<Employee, Integer> numConsecutiveMaxWork = new HashMap<Employee, Integer>();
+
+        /**
+         * Cache for minimum number of consecutive assignments per employee.
+         */
+        private Map<Employee, Integer> numConsecutiveMinWork = new HashMap<Employee, Integer>();
+
+
+        /**
+         * Cache for maximum number of consecutive free days per employee.
+         */
+        private Map<Employee, Integer> numConsecutiveMaxFree = new HashMap<Employee, Integer>();
+
+        /**
+         * Cache for minimum number of consecutive free days per employee.
+         */
+        private Map<Employee, Integer> numConsecutiveMinFree = new HashMap<Employee, Integer>();
+
+        /**
+         * Cache for total number of working weekends per employee.
+         */
+        private Map<Employee, Integer> numWeekendsTotal = new HashMap<Employee, Integer>();
+
+        /**
+         * Cache for minimum number of consecutive working weekends per employee.
+         */
+        private Map<Employee, Integer> numConsecutiveWeekendsMin = new HashMap<Employee, Integer>();
+
+        /**
+         * Cache for maximum number of consecutive working weekends per employee.
+         */
+        private Map<Employee, Integer> numConsecutiveWeekendsMax = new HashMap<Employee, Integer>();
+
+        /**
+         * Cache for identical shift types during weekend per employee.
+         */
+        private Map<Employee, Boolean> identicalShiftTypesDuringWeekend = new HashMap<Employee, Boolean>();
+
+        /**
+         * Cache for complete working weekend per employee.
+         */
+        private Map<Employee, Boolean> completeWeekends = new HashMap<Employee, Boolean>();
+
+        /**
+         * Cache for no night shifts before weekend per employee.
+         */
+        private Map<Employee, Boolean> noNightShiftsBeforeWeekends = new HashMap<Employee, Boolean>();
+
+        /**
+         * Cache for unwanted patterns deviation per employee.
+         */
+        private Map<Employee, Float> unwantedPatternsDeviations = new HashMap<Employee, Float>();
+    }
+
+    /**
+     * List of DayRoster views backed by the genome. Setting or adding a
+     * DayRoster copies its roster information into the genome.
+     */
+    private class RosterList extends AbstractList<DayRoster> {
+        @Override
+        public DayRoster get(int index) {
+            if (index < 0 || index >= numberOfDays) {
+                throw new IndexOutOfBoundsException("Day: " + index + ", days: " + numberOfDays);
+            }
+
+            return getDayRoster(index);
+        }
+
+        @Override
+        public DayRoster set(int index, DayRoster dayRoster) {
+            DayRoster previous = DayRoster.copy(get(index));
+            if (hardConstraints != null) {
+                hardConstraints.removeDay(genome, index);
+            }
+            setDayRoster(index, dayRoster);
+            if (hardConstraints != null) {
+                hardConstraints.addDay(genome, index);
+            }
+
+            return previous;
+        }
+
+        @Override
+        public void add(int index, DayRoster dayRoster) {
+            if (index != numberOfDays) {
+                throw new UnsupportedOperationException("Day rosters can only be appended.");
+            }
+
+            addDayRoster(dayRoster);
+        }
+
+        @Override
+        public int size() {
+            return numberOfDays;
+        }
+    }
 }
@@ -0,0 +1,244 @@
+package model.ea;
+
+import helper.ConcurrencyHelper;
+import helper.ConfigurationHelper;
+import helper.RandomHelper;
+import helper.TuiHelper;
+import model.schedule.SchedulingPeriod;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class implements the island model for the evolutionary algorithm: several
+ * independent evolutionary cycles (islands) run concurrently, each with its own
+ * random stream, and exchange their best individuals periodically.
+ */
+public class IslandCycle implements ISolver {
+    /**
+     * Number of islands.
+     */
+    private int numberOfIslands = ConfigurationHelper.getInstance().getPropertyInteger("Islands", 4);
+
+    /**
+     * Number of iterations between two migrations.
+     */
+    private int migrationInterval = ConfigurationHelper.getInstance().getPropertyInteger("MigrationInterval", 50);
+
+    /**
+     * Number of individuals each island sends per migration.
+     */
+    private int numberOfMigrants = ConfigurationHelper.getInstance().getPropertyInteger("Migrants", 1);
+
+    /**
+     * Migration topology, either "Ring" (to the next island) or "Complete" (to all other islands).
+     */
+    private String topology = ConfigurationHelper.getInstance().getProperty("MigrationTopology", "Ring");
+
+    /**
+     * Evolutionary cycle of each island.
+     */
+    private List<EvolutionaryCycle> islands = new ArrayList<EvolutionaryCycle>();
+
+    /**
+     * Random stream of each island.
+     */
+    private List<Random> streams = new ArrayList<Random>();
+
+    /**
+     * Set by the first island, which meets the termination condition, to stop all islands.
+     */
+    private volatile boolean stopped = false;
+
+    /**
+     * Holds the initializing population (all initializing populations of the islands).
+     */
+    private Population initPopulation = null;
+
+    /**
+     * Returns the initializing population.
+     * @return Initialization population instance
+     */
+    @Override
+    public Population getInitPopulation() {
+        return initPopulation;
+    }
+
+    /**
+     * Runs the evolutionary cycles of all islands.
+     * @param period SchedulingPeriod instance
+     * @return Population instance holding the populations of all islands
+     */
+    @Override
+    public Population evolutionize(final SchedulingPeriod period) {
+        ExecutorService executor = ConcurrencyHelper.getInstance().createExecutorService(numberOfIslands, "island");
+
+        try {
+            for (int i = 0; i < numberOfIslands; i++) {
+                islands.add(new EvolutionaryCycle());
+                streams.add(RandomHelper.getInstance().getStream(i));
+            }
+
+            // initialize all islands
+            runIslands(executor, new IslandTask() {
+                @Override
+                public void run(EvolutionaryCycle island) {
+                    island.initialize(period);
+                }
+            });
+
+            int maxIterations = islands.get(0).getMaxIterations();
+            final TerminationCondition termination = new TerminationCondition(period, maxIterations);
+            TuiHelper.getInstance().showProgress(0, termination.getMaxProgress());
+
+            // evolutionize all islands until the next migration, while termination condition is not met
+            // (checked by each island after each of its iterations)
+            boolean met = maxIterations <= 0;
+            while (!met) {
+                final int iterations = Math.min(migrationInterval, maxIterations - termination.getIteration());
+                final AtomicInteger done = new AtomicInteger();
+                runIslands(executor, new IslandTask() {
+                    @Override
+                    public void run(EvolutionaryCycle island) {
+                        int i = 0;
+                        while (i < iterations && !stopped) {
+                            island.iterate();
+                            i++;
+                            if (termination.isMetWithin(island.getPopulation().getBestFitness(), i)) {
+                                stopped = true;
+                            }
+                        }
+
+                        // count the iterations of the island, which got furthest
+                        int current = done.get();
+                        while (i > current && !done.compareAndSet(current, i)) {
+                            current = done.get();
+                        }
+                    }
+                });
+
+                met = termination.isMet(getBestFitness(), done.get()) || stopped;
+                if (!met) {
+                    migrate();
+                }
+                TuiHelper.getInstance().showProgress(met ? termination.getMaxProgress() : termination.getProgress(),
+                        termination.getMaxProgress());
+            }
+            if (termination.getIteration() < maxIterations) {
+                TuiHelper.getInstance().showTermination(termination.getReason(), termination.getIteration());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // collect the results of all islands
+        initPopulation = new Population();
+        Population population = new Population();
+        for (EvolutionaryCycle island: islands) {
+            initPopulation.addIndividualsToPool(island.getInitPopulation().getPool());
+            population.addIndividualsToPool(island.getResult().getPool());
+        }
+        initPopulation.benchmark(false);
+        population.benchmark(false);
+
+        return population;
+    }
+
+    /**
+     * Runs a task for each island concurrently. Each island uses its own random
+     * stream, independent of the thread it runs on.
+     * @param executor ExecutorService instance
+     * @param task Task to run
+     */
+    private void runIslands(ExecutorService executor, final IslandTask task) {
+        List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+
+        for (int i = 0; i < numberOfIslands; i++) {
+            final EvolutionaryCycle island = islands.get(i);
+            final Random stream = streams.get(i);
+            tasks.add(new Callable<Object>() {
+                @Override
+                public Object call() {
+                    RandomHelper.getInstance().setStream(stream);
+                    task.run(island);
+                    return null;
+                }
+            });
+        }
+
+        ConcurrencyHelper.getInstance().invokeAll(tasks, executor);
+    }
+
+    /**
+     * Sends copies of the best individuals of each island to its neighbours
+     * as of the configured topology.
+     */
+    private void migrate() {
+        // select all migrants first, thus immigrants are not sent on in the same migration
+        List<List<Individual>> migrants = new ArrayList<List<Individual>>();
+        for (EvolutionaryCycle island: islands) {
+            List<Individual> pool = island.getPopulation().sortByFitness().getPool();
+            List<Individual> best = new ArrayList<Individual>();
+            for (int i = 0; i < numberOfMigrants && i < pool.size(); i++) {
+                best.add(Individual.copy(pool.get(i)));
+            }
+            migrants.add(best);
+        }
+
+        for (int i = 0; i < numberOfIslands; i++) {
+            if (topology.equals("Complete")) {
+                // send to all other islands
+                for (int j = 0; j < numberOfIslands; j++) {
+                    if (j != i) {
+                        islands.get(j).immigrate(copy(migrants.get(i)));
+                    }
+                }
+            } else {
+                // send to the next island of the ring
+                islands.get((i + 1) % numberOfIslands).immigrate(migrants.get(i));
+            }
+        }
+    }
+
+    /**
+     * Returns the best fitness of all islands.
+     * @return Best fitness
+     */
+    private float getBestFitness() {
+        float best = Float.POSITIVE_INFINITY;
+        for (EvolutionaryCycle island: islands) {
+            best = Math.min(best, island.getPopulation().getBestFitness());
+        }
+
+        return best;
+    }
+
+    /**
+     * Returns deep copies of a list of individuals.
+     * @param individuals List of Individual instances
+     * @return List of Individual instances
+     */
+    private List<Individual> copy(List<Individual> individuals) {
+        List<Individual> copies = new ArrayList<Individual>();
+        for (Individual individual: individuals) {
+            copies.add(Individual.copy(individual));
+        }
+
+        return copies;
+    }
+
+    /**
+     * Task which is run for each island.
+     */
+    private interface IslandTask {
+        /**
+         * Runs the task for an island.
+         * @param island EvolutionaryCycle instance of the island
+         */
+        void run(EvolutionaryCycle island);
+    }
+}
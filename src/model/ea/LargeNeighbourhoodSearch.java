@@ -0,0 +1,239 @@
+package model.ea;
+
+import helper.ClassLoaderHelper;
+import helper.ConcurrencyHelper;
+import helper.ConfigurationHelper;
+import helper.RandomHelper;
+import helper.TuiHelper;
+import model.schedule.CompiledPeriod;
+import model.schedule.DayRoster;
+import model.schedule.SchedulingPeriod;
+import writer.AnytimeWriter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+
+/**
+ * This class implements a large neighbourhood search as alternative solver:
+ * in each iteration a chunk of the roster (a week, some nurses or all nurses
+ * of a contract) is destroyed and rebuilt by several randomized greedy repair
+ * attempts, which run concurrently. The best repaired roster replaces the
+ * current one, if it is not worse.
+ */
+public class LargeNeighbourhoodSearch implements ISolver {
+    /**
+     * Number of iterations.
+     */
+    private int maxIterations = ConfigurationHelper.getInstance().getPropertyInteger("LnsIterations", 200);
+
+    /**
+     * Number of repair attempts per iteration.
+     */
+    private int repairAttempts = ConfigurationHelper.getInstance().getPropertyInteger("LnsRepairAttempts", 4);
+
+    /**
+     * Number of nurses destroyed by the nurse chunk.
+     */
+    private int numberOfNurses = ConfigurationHelper.getInstance().getPropertyInteger("LnsNurses", 3);
+
+    /**
+     * Random noise added to the fitness delta of an assignment during the repair.
+     */
+    private double repairNoise = ConfigurationHelper.getInstance().getPropertyDouble("LnsRepairNoise", 1);
+
+    /**
+     * Chunks destroyed ("Week", "Nurses" or "Contract"), one is chosen randomly per iteration.
+     */
+    private String[] chunks = ConfigurationHelper.getInstance().getProperty("LnsDestroy", "Week,Nurses,Contract").split(",");
+
+    /**
+     * Number of random streams used by repair attempts.
+     */
+    private long streams = 0;
+
+    /**
+     * Holds the initializing population (the start individual).
+     */
+    private Population initPopulation = null;
+
+    /**
+     * Returns the initializing population.
+     * @return Initialization population instance
+     */
+    @Override
+    public Population getInitPopulation() {
+        return initPopulation;
+    }
+
+    /**
+     * Runs the large neighbourhood search.
+     * @param period SchedulingPeriod instance
+     * @return Population instance holding the best individual
+     */
+    @Override
+    public Population evolutionize(SchedulingPeriod period) {
+        initPopulation = new Population();
+        initPopulation.addIndividualToPool(ClassLoaderHelper.getInstance().getConstructionHeuristic().getIndividual(period));
+        initPopulation.benchmark();
+
+        Individual current = Individual.copy(initPopulation.getBestIndividual());
+        Individual best = Individual.copy(current);
+        AnytimeWriter.getInstance().offer(best);
+
+        TerminationCondition termination = new TerminationCondition(period, maxIterations);
+        int progress = 0;
+        TuiHelper.getInstance().showProgress(progress, termination.getMaxProgress());
+
+        // search, while termination condition is not met
+        boolean met = maxIterations <= 0;
+        while (!met) {
+            // destroy a chunk of a copy, the current roster is kept for the case of failing repairs
+            final Individual destroyed = Individual.copy(current);
+            final boolean[] employees = new boolean[period.getCompiled().getNumberOfEmployees()];
+            final List<Integer> days = new ArrayList<Integer>();
+            destroy(destroyed, employees, days);
+
+            // repair copies of the destroyed roster concurrently, each attempt with its own random stream
+            List<Callable<Individual>> tasks = new ArrayList<Callable<Individual>>();
+            for (int attempt = 0; attempt < repairAttempts; attempt++) {
+                final Individual repaired = Individual.copy(destroyed);
+                final Random stream = RandomHelper.getInstance().getStream(streams++);
+                tasks.add(new Callable<Individual>() {
+                    @Override
+                    public Individual call() {
+                        return repair(repaired, employees, days, stream) ? repaired : null;
+                    }
+                });
+            }
+
+            for (Individual repaired: ConcurrencyHelper.getInstance().invokeAll(tasks)) {
+                if (repaired != null && repaired.getFitness() <= current.getFitness()) {
+                    current = repaired;
+                }
+            }
+
+            if (current.getFitness() < best.getFitness()) {
+                best = Individual.copy(current);
+                AnytimeWriter.getInstance().offer(best);
+            }
+            met = termination.isMet(best.getFitness());
+
+            // show the progress, if it changed
+            int currentProgress = met ? termination.getMaxProgress() : termination.getProgress();
+            if (currentProgress != progress) {
+                progress = currentProgress;
+                TuiHelper.getInstance().showProgress(progress, termination.getMaxProgress());
+            }
+        }
+        if (termination.getIteration() < maxIterations) {
+            TuiHelper.getInstance().showTermination(termination.getReason(), termination.getIteration());
+        }
+
+        Population population = new Population();
+        population.addIndividualToPool(best);
+        population.benchmark(false);
+
+        return population;
+    }
+
+    /**
+     * Destroys a random chunk of a roster, i.e. the chosen employees are free
+     * on the chosen days.
+     * @param individual Individual instance
+     * @param employees Chosen employees (by employee index), filled by this method
+     * @param days Chosen days, filled by this method
+     */
+    private void destroy(Individual individual, boolean[] employees, List<Integer> days) {
+        CompiledPeriod compiled = individual.getSchedulingPeriod().getCompiled();
+        String chunk = chunks[RandomHelper.getInstance().getInt(chunks.length)].trim();
+        int numberOfDays = individual.getNumberOfDays();
+
+        if (chunk.equals("Week")) {
+            // all employees on seven consecutive days
+            int length = Math.min(7, numberOfDays);
+            int first = RandomHelper.getInstance().getInt(numberOfDays - length + 1);
+            for (int day = first; day < first + length; day++) {
+                days.add(day);
+            }
+            for (int employee = 0; employee < employees.length; employee++) {
+                employees[employee] = true;
+            }
+        } else {
+            // some random nurses or all nurses of a random contract on all days
+            for (int day = 0; day < numberOfDays; day++) {
+                days.add(day);
+            }
+            if (chunk.equals("Contract")) {
+                int contract = compiled.getContractIndex(RandomHelper.getInstance().getInt(employees.length));
+                for (int employee = 0; employee < employees.length; employee++) {
+                    employees[employee] = compiled.getContractIndex(employee) == contract;
+                }
+            } else {
+                for (int i = 0; i < numberOfNurses; i++) {
+                    employees[RandomHelper.getInstance().getInt(employees.length)] = true;
+                }
+            }
+        }
+
+        for (int day: days) {
+            for (int employee = 0; employee < employees.length; employee++) {
+                if (employees[employee] && individual.getShiftTypeIndex(day, employee) != DayRoster.FREE) {
+                    individual.assign(day, employee, DayRoster.FREE);
+                }
+            }
+        }
+    }
+
+    /**
+     * Repairs a destroyed chunk greedily: the missing cover of each day is
+     * assigned to the chosen employee with the required skills and the least
+     * fitness delta (with random noise). Shift types are covered in the cover
+     * order of the day, thus head nurse shifts first.
+     * @param individual Individual instance
+     * @param employees Chosen employees (by employee index)
+     * @param days Chosen days
+     * @param random Random stream of this attempt
+     * @return True, if the repaired roster is feasible
+     */
+    private boolean repair(Individual individual, boolean[] employees, List<Integer> days, Random random) {
+        CompiledPeriod compiled = individual.getSchedulingPeriod().getCompiled();
+
+        for (int day: days) {
+            for (int shiftType: compiled.getCoverOrder(day)) {
+                int missing = compiled.getCover(day, shiftType);
+                for (int employee = 0; employee < employees.length; employee++) {
+                    if (individual.getShiftTypeIndex(day, employee) == shiftType) {
+                        missing--;
+                    }
+                }
+
+                for (; missing > 0; missing--) {
+                    int bestEmployee = -1;
+                    double bestDelta = Double.MAX_VALUE;
+                    for (int employee = 0; employee < employees.length; employee++) {
+                        if (!employees[employee] || individual.getShiftTypeIndex(day, employee) != DayRoster.FREE
+                                || !compiled.hasRequiredSkills(employee, shiftType)) {
+                            continue;
+                        }
+
+                        double delta = individual.getAssignmentDelta(day, employee, shiftType) + random.nextDouble() * repairNoise;
+                        if (delta < bestDelta) {
+                            bestDelta = delta;
+                            bestEmployee = employee;
+                        }
+                    }
+
+                    // no free employee with the required skills left
+                    if (bestEmployee < 0) {
+                        return false;
+                    }
+                    individual.assign(day, bestEmployee, shiftType);
+                }
+            }
+        }
+
+        return individual.isFeasible();
+    }
+}
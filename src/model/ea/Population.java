@@ -1,6 +1,17 @@
 package model.ea;
 
+import helper.ClassLoaderHelper;
+import helper.ConcurrencyHelper;
+import helper.ConfigurationHelper;
+import model.ea.construction.IConstructionHeuristic;
+import model.schedule.SchedulingPeriod;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * This class represents a Population (a pool of individuals) for the evolutionary algorithm.
@@ -19,12 +30,12 @@ public class Population {
     /**
      * Last global identifier.
      */
-    private static long lastId = 0;
+    private static final AtomicLong lastId = new AtomicLong();
 
     /**
      * Identifier for this instance.
      */
-    private long id = lastId++;
+    private long id = lastId.getAndIncrement();
 
     /**
      * Returns the identifier of this instance.
@@ -57,6 +68,55 @@ public class Population {
         return copyInstance;
     }
 
+    /**
+     * Returns an initialization population for a specific scheduling period,
+     * generated by the configured construction heuristic.
+     * @param period SchedulingPeriod instance
+     * @return Population instance
+     */
+    public static Population createInitialPopulation(SchedulingPeriod period) {
+        Population population = new Population();
+
+        IConstructionHeuristic constructionHeuristic = ClassLoaderHelper.getInstance().getConstructionHeuristic();
+
+        for (int i = 0; i < ConfigurationHelper.getInstance().getPropertyInteger("IndividualsPerPopulation", 10); i++) {
+            Individual individual = constructionHeuristic.getIndividual(period);
+            population.addIndividualToPool(individual);
+        }
+
+        return population;
+    }
+
+    /**
+     * Writes the individuals of this population, e.g. into a checkpoint.
+     * @param output DataOutput instance
+     * @throws IOException Exception on IO error.
+     */
+    public void write(DataOutput output) throws IOException {
+        output.writeInt(pool.size());
+        for (Individual individual: pool) {
+            individual.write(output);
+        }
+    }
+
+    /**
+     * Reads a population written by write(). The individuals keep their order,
+     * their fitness is recalculated.
+     * @param input DataInput instance
+     * @param period SchedulingPeriod instance the population was written for
+     * @return Population instance
+     * @throws IOException Exception on IO error.
+     */
+    public static Population read(DataInput input, SchedulingPeriod period) throws IOException {
+        Population population = new Population();
+        for (int size = input.readInt(); population.pool.size() < size; ) {
+            population.pool.add(Individual.read(input, period));
+        }
+        population.benchmark();
+
+        return population;
+    }
+
     /**
      * Returns the pool of this population.
      * @return List of Individual instances
@@ -102,10 +162,39 @@ public class Population {
      * Calculates the fitness of every individual.
      * @param forceRecalculation If true, forces recalculation
      */
-    void benchmark(boolean forceRecalculation) {
+    void benchmark(final boolean forceRecalculation) {
+        ConcurrencyHelper concurrency = ConcurrencyHelper.getInstance();
+        List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+
+        // the pool may hold an individual more than once (e.g. mutated parents), as an individual
+        // is not thread safe, the distinct individuals are split into one chunk per thread
+        Set<Individual> distinct = Collections.newSetFromMap(new IdentityHashMap<Individual, Boolean>());
+        final List<Individual> individuals = new ArrayList<Individual>(pool.size());
+        for (Individual individual: pool) {
+            if (distinct.add(individual)) {
+                individuals.add(individual);
+            }
+        }
+
+        int chunkSize = (individuals.size() + concurrency.getNumberOfThreads() - 1) / concurrency.getNumberOfThreads();
+        for (int from = 0; from < individuals.size(); from += chunkSize) {
+            final List<Individual> chunk = individuals.subList(from, Math.min(from + chunkSize, individuals.size()));
+            tasks.add(new Callable<Object>() {
+                @Override
+                public Object call() {
+                    for (Individual individual: chunk) {
+                        individual.getFitness(forceRecalculation);
+                    }
+
+                    return null;
+                }
+            });
+        }
+        concurrency.invokeAll(tasks);
+
         overallFitness = 0;
         for (Individual individual: pool) {
-            overallFitness += individual.getFitness(forceRecalculation);
+            overallFitness += individual.getFitness();
         }
     }
 
@@ -139,4 +228,17 @@ public class Population {
     public Individual getBestIndividual() {
         return sortByFitness().pool.get(0);
     }
+
+    /**
+     * Returns the best fitness of this population without sorting it.
+     * @return Best fitness or infinity, if the pool is empty
+     */
+    public float getBestFitness() {
+        float best = Float.POSITIVE_INFINITY;
+        for (Individual individual: pool) {
+            best = Math.min(best, individual.getFitness());
+        }
+
+        return best;
+    }
 }
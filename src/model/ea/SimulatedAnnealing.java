@@ -0,0 +1,144 @@
+package model.ea;
+
+import helper.ClassLoaderHelper;
+import helper.ConfigurationHelper;
+import helper.RandomHelper;
+import helper.TuiHelper;
+import model.ea.operators.IMove;
+import model.ea.operators.Neighbourhood;
+import model.schedule.SchedulingPeriod;
+import writer.AnytimeWriter;
+
+/**
+ * This class implements simulated annealing as alternative solver: a single
+ * individual built by the construction heuristic is changed by random moves
+ * of the configured neighbourhoods. Improving moves are always accepted,
+ * worsening moves with a probability decreasing with the temperature. The
+ * temperature is cooled down from the start to the end temperature within
+ * the time limit.
+ */
+public class SimulatedAnnealing implements ISolver {
+    /**
+     * Number of progress steps shown.
+     */
+    private static final int PROGRESS_STEPS = 1000;
+
+    /**
+     * Time limit in milliseconds.
+     */
+    private long timeLimit = ConfigurationHelper.getInstance().getPropertyLong("AnnealingTime", 10000);
+
+    /**
+     * Start temperature.
+     */
+    private double startTemperature = ConfigurationHelper.getInstance().getPropertyDouble("AnnealingStartTemperature", 10);
+
+    /**
+     * End temperature.
+     */
+    private double endTemperature = ConfigurationHelper.getInstance().getPropertyDouble("AnnealingEndTemperature", 0.1);
+
+    /**
+     * Cooling schedule, either "Exponential" or "Linear" over the elapsed time.
+     */
+    private String cooling = ConfigurationHelper.getInstance().getProperty("AnnealingCooling", "Exponential");
+
+    /**
+     * Neighbourhoods the moves are taken from.
+     */
+    private Neighbourhood[] neighbourhoods = getNeighbourhoods(
+            ConfigurationHelper.getInstance().getProperty("AnnealingNeighbourhoods", "SWAP,REASSIGN"));
+
+    /**
+     * Holds the initializing population (the start individual).
+     */
+    private Population initPopulation = null;
+
+    /**
+     * Returns the initializing population.
+     * @return Initialization population instance
+     */
+    @Override
+    public Population getInitPopulation() {
+        return initPopulation;
+    }
+
+    /**
+     * Runs the simulated annealing.
+     * @param period SchedulingPeriod instance
+     * @return Population instance holding the best individual
+     */
+    @Override
+    public Population evolutionize(SchedulingPeriod period) {
+        initPopulation = new Population();
+        initPopulation.addIndividualToPool(ClassLoaderHelper.getInstance().getConstructionHeuristic().getIndividual(period));
+        initPopulation.benchmark();
+
+        Individual current = Individual.copy(initPopulation.getBestIndividual());
+        Individual best = Individual.copy(current);
+        AnytimeWriter.getInstance().offer(best);
+
+        long start = System.nanoTime();
+        long limit = timeLimit * 1000000;
+        int progress = 0;
+        TuiHelper.getInstance().showProgress(progress, PROGRESS_STEPS);
+
+        for (long elapsed = 0; elapsed < limit; elapsed = System.nanoTime() - start) {
+            // show the progress, if it changed
+            if (elapsed * PROGRESS_STEPS / limit > progress) {
+                progress = (int) (elapsed * PROGRESS_STEPS / limit);
+                TuiHelper.getInstance().showProgress(progress, PROGRESS_STEPS);
+            }
+
+            IMove move = neighbourhoods[RandomHelper.getInstance().getInt(neighbourhoods.length)].getRandomMove(current);
+            if (move == null || !move.isFeasible(current)) {
+                continue;
+            }
+
+            float delta = move.getDelta(current);
+            if (delta <= 0 || RandomHelper.getInstance().getDouble() < Math.exp(-delta / getTemperature((double) elapsed / limit))) {
+                move.apply(current);
+
+                if (current.getFitness() < best.getFitness()) {
+                    best = Individual.copy(current);
+                    AnytimeWriter.getInstance().offer(best);
+                }
+            }
+        }
+        TuiHelper.getInstance().showProgress(PROGRESS_STEPS, PROGRESS_STEPS);
+
+        Population population = new Population();
+        population.addIndividualToPool(best);
+        population.benchmark(false);
+
+        return population;
+    }
+
+    /**
+     * Returns the temperature of the cooling schedule.
+     * @param time Elapsed part of the time limit (0 to 1)
+     * @return Temperature
+     */
+    private double getTemperature(double time) {
+        if (cooling.equals("Linear")) {
+            return startTemperature + (endTemperature - startTemperature) * time;
+        }
+
+        return startTemperature * Math.pow(endTemperature / startTemperature, time);
+    }
+
+    /**
+     * Returns the neighbourhoods of a comma separated list of names.
+     * @param names Comma separated names of Neighbourhood values
+     * @return Array of Neighbourhood values
+     */
+    private static Neighbourhood[] getNeighbourhoods(String names) {
+        String[] values = names.split(",");
+        Neighbourhood[] neighbourhoods = new Neighbourhood[values.length];
+        for (int i = 0; i < values.length; i++) {
+            neighbourhoods[i] = Neighbourhood.valueOf(values[i].trim());
+        }
+
+        return neighbourhoods;
+    }
+}
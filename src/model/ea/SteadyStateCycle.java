@@ -0,0 +1,202 @@
+package model.ea;
+
+import helper.ClassLoaderHelper;
+import helper.ConfigurationHelper;
+import helper.RandomHelper;
+import helper.TuiHelper;
+import model.ea.operators.ILocalSearch;
+import model.ea.operators.IMutation;
+import model.ea.operators.IRecombination;
+import model.schedule.SchedulingPeriod;
+import writer.AnytimeWriter;
+
+/**
+ * This class implements a steady-state evolutionary cycle: each step selects
+ * two parents by tournament, creates children with the configured operators and
+ * replaces either the worst individual or the loser of a tournament by each
+ * child, if the child is fitter. Only the children are evaluated, the pool is
+ * neither copied, benchmarked nor sorted, thus the cost of a step does not
+ * depend on the size of the population.
+ */
+public class SteadyStateCycle implements ISolver {
+    /**
+     * Maximum number of steps.
+     */
+    private int maxSteps = ConfigurationHelper.getInstance().getPropertyInteger("SteadyStateSteps", 10000);
+
+    /**
+     * Number of individuals of the tournaments.
+     */
+    private int tournamentSize = ConfigurationHelper.getInstance().getPropertyInteger("SteadyStateTournamentSize", 2);
+
+    /**
+     * Individual replaced by a child, either "Worst" or "Tournament" (the loser of a tournament).
+     */
+    private String replacement = ConfigurationHelper.getInstance().getProperty("SteadyStateReplacement", "Worst");
+
+    /**
+     * The recombination operator is used, if true.
+     */
+    private boolean useRecombination = ConfigurationHelper.getInstance().getPropertyBoolean("UseRecombination");
+
+    /**
+     * The mutation operator is used, if true.
+     */
+    private boolean useMutation = ConfigurationHelper.getInstance().getPropertyBoolean("UseMutation");
+
+    /**
+     * The local search operator is used, if true.
+     */
+    private boolean useLocalSearch = ConfigurationHelper.getInstance().getPropertyBoolean("UseLocalSearch");
+
+    /**
+     * Holds the recombination operator instance.
+     */
+    private IRecombination recombinationOperator = ClassLoaderHelper.getInstance().getRecombinationOperator();
+
+    /**
+     * Holds the mutation operator instance.
+     */
+    private IMutation mutationOperator = ClassLoaderHelper.getInstance().getMutationOperator();
+
+    /**
+     * Holds the local search operator instance (only if used).
+     */
+    private ILocalSearch localSearchOperator = useLocalSearch ? ClassLoaderHelper.getInstance().getLocalSearchOperator() : null;
+
+    /**
+     * Holds the initializing population (for benchmarking purposes against last solutions).
+     */
+    private Population initPopulation = null;
+
+    /**
+     * Holds the current pool.
+     */
+    private SteadyStatePool pool = null;
+
+    /**
+     * Returns the initializing population.
+     * @return Initialization population instance
+     */
+    @Override
+    public Population getInitPopulation() {
+        return initPopulation;
+    }
+
+    /**
+     * Runs the steady-state cycle.
+     * @param period SchedulingPeriod instance
+     * @return Population instance
+     */
+    @Override
+    public Population evolutionize(SchedulingPeriod period) {
+        initPopulation = Population.createInitialPopulation(period);
+        initPopulation.benchmark();
+
+        pool = new SteadyStatePool(Population.copy(initPopulation));
+        AnytimeWriter.getInstance().offer(pool.getBest());
+
+        TerminationCondition termination = new TerminationCondition(period, maxSteps);
+        int progress = 0;
+        TuiHelper.getInstance().showProgress(progress, termination.getMaxProgress());
+
+        // step, while termination condition is not met
+        boolean met = maxSteps <= 0;
+        while (!met) {
+            step();
+            met = termination.isMet(pool.getBest().getFitness());
+
+            // show the progress, if it changed
+            int current = met ? termination.getMaxProgress() : termination.getProgress();
+            if (current != progress) {
+                progress = current;
+                TuiHelper.getInstance().showProgress(progress, termination.getMaxProgress());
+            }
+        }
+        if (termination.getIteration() < maxSteps) {
+            TuiHelper.getInstance().showTermination(termination.getReason(), termination.getIteration());
+        }
+
+        Population population = pool.toPopulation();
+        population.benchmark(false);
+
+        // return the initialized population, if the solution is not better
+        return population.getBestIndividual().getFitness() <= initPopulation.getBestIndividual().getFitness()
+                ? population
+                : initPopulation;
+    }
+
+    /**
+     * Runs one step: creates children of two parents and inserts them into the pool.
+     */
+    private void step() {
+        // the operators may change the parents in place, thus they get copies
+        Population children = new Population();
+        children.addIndividualToPool(Individual.copy(selectWinner()));
+        children.addIndividualToPool(Individual.copy(selectWinner()));
+
+        if (useRecombination) {
+            children = recombinationOperator.recombine(children);
+        }
+        if (useMutation && !children.getPool().isEmpty()) {
+            children = mutationOperator.mutate(children);
+        }
+        if (useLocalSearch && !children.getPool().isEmpty()) {
+            children = localSearchOperator.improve(children);
+        }
+
+        for (Individual child: children.getPool()) {
+            if (child.isFeasible()) {
+                insert(child);
+            }
+        }
+    }
+
+    /**
+     * Replaces the worst individual or the loser of a tournament by a child, if
+     * the child is fitter.
+     * @param child Individual instance
+     */
+    private void insert(Individual child) {
+        Individual replaced = replacement.equals("Tournament") ? selectLoser() : pool.getWorst();
+
+        if (child.getFitness() < replaced.getFitness()) {
+            pool.replace(replaced, child);
+            if (pool.getBest() == child) {
+                AnytimeWriter.getInstance().offer(child);
+            }
+        }
+    }
+
+    /**
+     * Returns the fittest of a number of random individuals.
+     * @return Individual instance
+     */
+    private Individual selectWinner() {
+        Individual winner = pool.get(RandomHelper.getInstance().getInt(pool.size()));
+        for (int i = 1; i < tournamentSize; i++) {
+            Individual competitor = pool.get(RandomHelper.getInstance().getInt(pool.size()));
+            if (competitor.getFitness() < winner.getFitness()) {
+                winner = competitor;
+            }
+        }
+
+        return winner;
+    }
+
+    /**
+     * Returns the least fit of a number of random individuals.
+     * @return Individual instance
+     */
+    private Individual selectLoser() {
+        Individual loser = pool.get(RandomHelper.getInstance().getInt(pool.size()));
+        for (int i = 1; i < tournamentSize; i++) {
+            Individual competitor = pool.get(RandomHelper.getInstance().getInt(pool.size()));
+            if (competitor.getFitness() > loser.getFitness()) {
+                loser = competitor;
+            }
+        }
+
+        return loser;
+    }
+}
@@ -0,0 +1,119 @@
+package model.ea;
+
+import java.util.*;
+
+/**
+ * Pool of individuals for the steady-state cycle. The individuals are kept in
+ * a list for random access (e.g. tournaments) and in a tree ordered by fitness,
+ * thus the best and the worst individual are found and an individual is
+ * replaced in O(log n), without sorting or benchmarking the whole pool. The
+ * fitness of an individual must not change while it is in the pool.
+ */
+public class SteadyStatePool {
+    /**
+     * Individuals in insertion order (positions are reused by replacements).
+     */
+    private final List<Individual> individuals = new ArrayList<Individual>();
+
+    /**
+     * Position of each individual in the list.
+     */
+    private final Map<Individual, Integer> positions = new IdentityHashMap<Individual, Integer>();
+
+    /**
+     * Individuals ordered by fitness, individuals with the same fitness by identifier.
+     */
+    private final TreeSet<Individual> ranking = new TreeSet<Individual>(new Comparator<Individual>() {
+        @Override
+        public int compare(Individual individualA, Individual individualB) {
+            int result = Float.compare(individualA.getFitness(), individualB.getFitness());
+            if (result != 0) {
+                return result;
+            }
+
+            return individualA.getId() < individualB.getId() ? -1
+                    : individualA.getId() == individualB.getId() ? 0
+                    : 1;
+        }
+    });
+
+    /**
+     * Creates a pool holding the individuals of a population.
+     * @param population Population instance
+     */
+    public SteadyStatePool(Population population) {
+        for (Individual individual: population.getPool()) {
+            add(individual);
+        }
+    }
+
+    /**
+     * Adds an individual.
+     * @param individual Individual instance
+     */
+    public void add(Individual individual) {
+        positions.put(individual, individuals.size());
+        individuals.add(individual);
+        ranking.add(individual);
+    }
+
+    /**
+     * Replaces an individual of the pool by another one.
+     * @param individual Individual instance in the pool
+     * @param replacement Individual instance replacing it
+     */
+    public void replace(Individual individual, Individual replacement) {
+        int position = positions.remove(individual);
+        ranking.remove(individual);
+
+        individuals.set(position, replacement);
+        positions.put(replacement, position);
+        ranking.add(replacement);
+    }
+
+    /**
+     * Returns the number of individuals.
+     * @return Number of individuals
+     */
+    public int size() {
+        return individuals.size();
+    }
+
+    /**
+     * Returns the individual at a position, e.g. a random one.
+     * @param position Position
+     * @return Individual instance
+     */
+    public Individual get(int position) {
+        return individuals.get(position);
+    }
+
+    /**
+     * Returns the individual with the best fitness.
+     * @return Best individual
+     */
+    public Individual getBest() {
+        return ranking.first();
+    }
+
+    /**
+     * Returns the individual with the worst fitness.
+     * @return Worst individual
+     */
+    public Individual getWorst() {
+        return ranking.last();
+    }
+
+    /**
+     * Returns a population holding the individuals of this pool.
+     * @return Population instance
+     */
+    public Population toPopulation() {
+        Population population = new Population();
+        for (Individual individual: individuals) {
+            population.addIndividualToPool(individual);
+        }
+
+        return population;
+    }
+}
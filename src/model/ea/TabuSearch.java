@@ -0,0 +1,239 @@
+package model.ea;
+
+import helper.ClassLoaderHelper;
+import helper.ConfigurationHelper;
+import helper.RandomHelper;
+import helper.TuiHelper;
+import model.schedule.SchedulingPeriod;
+import writer.AnytimeWriter;
+
+import java.util.Arrays;
+
+/**
+ * This class implements tabu search as alternative solver: in each iteration
+ * the whole swap neighbourhood (two employees exchange their assignments on a
+ * day) of a single individual is evaluated and the best admissible move is
+ * applied, even if it worsens the fitness.
+ *
+ * An applied move makes the previous assignments of both employees tabu for a
+ * number of iterations, a move is not admissible if it restores a tabu
+ * assignment, unless it results in a new best fitness (aspiration).
+ *
+ * The delta of a swap depends only on the two employees, thus the deltas are
+ * kept between the iterations and only the swaps of the two employees of the
+ * applied move are evaluated again.
+ */
+public class TabuSearch implements ISolver {
+    /**
+     * Number of iterations.
+     */
+    private int maxIterations = ConfigurationHelper.getInstance().getPropertyInteger("TabuIterations", 1000);
+
+    /**
+     * Number of iterations an assignment stays tabu.
+     */
+    private int tenure = ConfigurationHelper.getInstance().getPropertyInteger("TabuTenure", 10);
+
+    /**
+     * Holds the initializing population (the start individual).
+     */
+    private Population initPopulation = null;
+
+    /**
+     * Tabu list: iteration until which an assignment (employee, day, shift type
+     * or free) is tabu, indexed by the attribute index.
+     */
+    private int[] tabuUntil;
+
+    /**
+     * Delta of each swap (day, first employee, second employee), NaN if not
+     * evaluated and infinite if not feasible.
+     */
+    private float[] deltas;
+
+    /**
+     * Number of days.
+     */
+    private int numberOfDays;
+
+    /**
+     * Number of employees.
+     */
+    private int numberOfEmployees;
+
+    /**
+     * Number of shift type values (shift types and free).
+     */
+    private int numberOfShiftValues;
+
+    /**
+     * Returns the initializing population.
+     * @return Initialization population instance
+     */
+    @Override
+    public Population getInitPopulation() {
+        return initPopulation;
+    }
+
+    /**
+     * Runs the tabu search.
+     * @param period SchedulingPeriod instance
+     * @return Population instance holding the best individual
+     */
+    @Override
+    public Population evolutionize(SchedulingPeriod period) {
+        initPopulation = new Population();
+        initPopulation.addIndividualToPool(ClassLoaderHelper.getInstance().getConstructionHeuristic().getIndividual(period));
+        initPopulation.benchmark();
+
+        Individual current = Individual.copy(initPopulation.getBestIndividual());
+        Individual best = Individual.copy(current);
+        AnytimeWriter.getInstance().offer(best);
+
+        numberOfEmployees = period.getCompiled().getNumberOfEmployees();
+        numberOfDays = current.getNumberOfDays();
+        numberOfShiftValues = period.getCompiled().getNumberOfShiftTypes() + 1;
+        tabuUntil = new int[numberOfEmployees * numberOfDays * numberOfShiftValues];
+        deltas = new float[numberOfDays * numberOfEmployees * numberOfEmployees];
+        Arrays.fill(deltas, Float.NaN);
+
+        TerminationCondition termination = new TerminationCondition(period, maxIterations);
+        int progress = 0;
+        TuiHelper.getInstance().showProgress(progress, termination.getMaxProgress());
+
+        // search, while termination condition is not met
+        boolean met = maxIterations <= 0;
+        for (int iteration = 1; !met; iteration++) {
+            // find the best admissible move of the swap neighbourhood
+            int bestDay = -1, bestEmployee1 = -1, bestEmployee2 = -1, ties = 0;
+            float bestDelta = Float.MAX_VALUE;
+            for (int day = 0; day < numberOfDays; day++) {
+                for (int employee1 = 0; employee1 < numberOfEmployees; employee1++) {
+                    int shiftType1 = current.getShiftTypeIndex(day, employee1);
+                    for (int employee2 = employee1 + 1; employee2 < numberOfEmployees; employee2++) {
+                        int shiftType2 = current.getShiftTypeIndex(day, employee2);
+                        if (shiftType1 == shiftType2) {
+                            continue;
+                        }
+
+                        float delta = getDelta(current, employee1, employee2, day);
+                        if (delta > bestDelta || delta == Float.POSITIVE_INFINITY
+                                || current.getFitness() + delta >= best.getFitness()
+                                && (isTabu(employee1, day, shiftType2, iteration) || isTabu(employee2, day, shiftType1, iteration))) {
+                            continue;
+                        }
+
+                        // choose randomly between equally good moves, otherwise the search gets stuck on plateaus
+                        ties = delta < bestDelta ? 1 : ties + 1;
+                        if (ties == 1 || RandomHelper.getInstance().getInt(ties) == 0) {
+                            bestDelta = delta;
+                            bestDay = day;
+                            bestEmployee1 = employee1;
+                            bestEmployee2 = employee2;
+                        }
+                    }
+                }
+            }
+
+            // apply the move, unless all moves are tabu
+            if (bestDay >= 0) {
+                // the previous assignments of both employees become tabu
+                setTabu(bestEmployee1, bestDay, current.getShiftTypeIndex(bestDay, bestEmployee1), iteration + tenure);
+                setTabu(bestEmployee2, bestDay, current.getShiftTypeIndex(bestDay, bestEmployee2), iteration + tenure);
+                current.swap(bestEmployee1, bestEmployee2, bestDay);
+                invalidateDeltas(bestEmployee1);
+                invalidateDeltas(bestEmployee2);
+
+                if (current.getFitness() < best.getFitness()) {
+                    best = Individual.copy(current);
+                    AnytimeWriter.getInstance().offer(best);
+                }
+            }
+            met = termination.isMet(best.getFitness());
+
+            // show the progress, if it changed
+            int currentProgress = met ? termination.getMaxProgress() : termination.getProgress();
+            if (currentProgress != progress) {
+                progress = currentProgress;
+                TuiHelper.getInstance().showProgress(progress, termination.getMaxProgress());
+            }
+        }
+        if (termination.getIteration() < maxIterations) {
+            TuiHelper.getInstance().showTermination(termination.getReason(), termination.getIteration());
+        }
+
+        Population population = new Population();
+        population.addIndividualToPool(best);
+        population.benchmark(false);
+
+        return population;
+    }
+
+    /**
+     * Returns the delta of a swap, evaluates it if the employees changed since
+     * the last evaluation.
+     * @param individual Individual instance
+     * @param employee1 Index of first employee
+     * @param employee2 Index of second employee (greater than the first one)
+     * @param day Day number
+     * @return Fitness delta or infinity, if the swap is not feasible
+     */
+    private float getDelta(Individual individual, int employee1, int employee2, int day) {
+        int index = (day * numberOfEmployees + employee1) * numberOfEmployees + employee2;
+
+        if (Float.isNaN(deltas[index])) {
+            deltas[index] = individual.isSwapFeasible(employee1, employee2, day)
+                    ? individual.getSwapDelta(employee1, employee2, day)
+                    : Float.POSITIVE_INFINITY;
+        }
+
+        return deltas[index];
+    }
+
+    /**
+     * Invalidates the deltas of all swaps of an employee.
+     * @param employee Employee index
+     */
+    private void invalidateDeltas(int employee) {
+        for (int day = 0; day < numberOfDays; day++) {
+            for (int other = 0; other < numberOfEmployees; other++) {
+                int first = Math.min(employee, other), second = Math.max(employee, other);
+                deltas[(day * numberOfEmployees + first) * numberOfEmployees + second] = Float.NaN;
+            }
+        }
+    }
+
+    /**
+     * Returns the attribute index of an assignment.
+     * @param employee Employee index
+     * @param day Day number
+     * @param shiftType Shift type index or DayRoster.FREE
+     * @return Attribute index
+     */
+    private int getAttribute(int employee, int day, int shiftType) {
+        return (employee * numberOfDays + day) * numberOfShiftValues + shiftType + 1;
+    }
+
+    /**
+     * Returns true, if an assignment is tabu in an iteration.
+     * @param employee Employee index
+     * @param day Day number
+     * @param shiftType Shift type index or DayRoster.FREE
+     * @param iteration Iteration
+     * @return True, if tabu
+     */
+    private boolean isTabu(int employee, int day, int shiftType, int iteration) {
+        return tabuUntil[getAttribute(employee, day, shiftType)] >= iteration;
+    }
+
+    /**
+     * Makes an assignment tabu until an iteration.
+     * @param employee Employee index
+     * @param day Day number
+     * @param shiftType Shift type index or DayRoster.FREE
+     * @param iteration Last iteration the assignment is tabu
+     */
+    private void setTabu(int employee, int day, int shiftType, int iteration) {
+        tabuUntil[getAttribute(employee, day, shiftType)] = iteration;
+    }
+}
@@ -0,0 +1,251 @@
+package model.ea;
+
+import helper.ConfigurationHelper;
+import model.schedule.SchedulingPeriod;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Decides when a solver stops: after the maximum number of iterations, after
+ * the time limit of the instance class, after a number of iterations or a
+ * time without improvement (stagnation) or when the target fitness is
+ * reached. A fitness of 0 is the lower bound of every instance, thus the
+ * solver always stops there. Each check costs a clock read and a few
+ * comparisons, thus it can be done every iteration.
+ */
+public class TerminationCondition {
+    /**
+     * Number of progress steps shown with a time limit.
+     */
+    private static final int PROGRESS_STEPS = 1000;
+
+    /**
+     * Maximum number of iterations.
+     */
+    private final int maxIterations;
+
+    /**
+     * Time limit in nano seconds (0 for no limit).
+     */
+    private final long timeLimit;
+
+    /**
+     * Number of iterations without improvement, until the solver stops (0 for no limit).
+     */
+    private final int stagnationIterations;
+
+    /**
+     * Time without improvement in nano seconds, until the solver stops (0 for no limit).
+     */
+    private final long stagnationTime;
+
+    /**
+     * Fitness at which the solver stops.
+     */
+    private final float targetFitness;
+
+    /**
+     * Current iteration.
+     */
+    private int iteration = 0;
+
+    /**
+     * Start time in nano seconds.
+     */
+    private long startTime;
+
+    /**
+     * Best fitness so far.
+     */
+    private float bestFitness = Float.POSITIVE_INFINITY;
+
+    /**
+     * Iteration of the last improvement.
+     */
+    private int improvementIteration = 0;
+
+    /**
+     * Time of the last improvement in nano seconds.
+     */
+    private long improvementTime;
+
+    /**
+     * Reason why the condition is met or null.
+     */
+    private String reason = null;
+
+    /**
+     * Creates the termination condition for a scheduling period. The time limit
+     * is configured per instance class, i.e. the scheduling period identifier
+     * up to the first non-letter ("TimeLimit.sprint" for "sprint_late01"), with
+     * "TimeLimit" as fallback.
+     * @param period SchedulingPeriod instance
+     * @param maxIterations Maximum number of iterations
+     */
+    public TerminationCondition(SchedulingPeriod period, int maxIterations) {
+        ConfigurationHelper configuration = ConfigurationHelper.getInstance();
+
+        this.maxIterations = maxIterations;
+        this.timeLimit = configuration.getPropertyLong("TimeLimit." + getInstanceClass(period),
+                configuration.getPropertyLong("TimeLimit", 0)) * 1000000;
+        this.stagnationIterations = configuration.getPropertyInteger("StagnationIterations", 0);
+        this.stagnationTime = configuration.getPropertyLong("StagnationTime", 0) * 1000000;
+        this.targetFitness = (float) configuration.getPropertyDouble("TargetFitness", 0);
+        this.startTime = System.nanoTime();
+        this.improvementTime = startTime;
+    }
+
+    /**
+     * Returns the instance class of a scheduling period, e.g. "sprint", "medium" or "long".
+     * @param period SchedulingPeriod instance
+     * @return Instance class
+     */
+    private static String getInstanceClass(SchedulingPeriod period) {
+        String id = period.getId() == null ? "" : period.getId();
+        int end = 0;
+        while (end < id.length() && Character.isLetter(id.charAt(end))) {
+            end++;
+        }
+
+        return id.substring(0, end);
+    }
+
+    /**
+     * Counts an iteration and returns true, if the solver has to stop.
+     * @param fitness Best fitness after the iteration
+     * @return True, if the termination condition is met
+     */
+    public boolean isMet(float fitness) {
+        return isMet(fitness, 1);
+    }
+
+    /**
+     * Counts a number of iterations and returns true, if the solver has to stop.
+     * @param fitness Best fitness after the iterations
+     * @param iterations Number of iterations
+     * @return True, if the termination condition is met
+     */
+    public synchronized boolean isMet(float fitness, int iterations) {
+        iteration += iterations;
+
+        return check(fitness, iteration);
+    }
+
+    /**
+     * Returns true, if the solver has to stop within a block of iterations,
+     * which is counted by isMet() at its end. Concurrent workers (e.g. islands)
+     * check it after each of their iterations, thus the time, stagnation and
+     * target limits stop them without waiting for the end of the block.
+     * @param fitness Best fitness of the worker
+     * @param iterations Number of iterations of the block done by the worker
+     * @return True, if the termination condition is met
+     */
+    public synchronized boolean isMetWithin(float fitness, int iterations) {
+        return check(fitness, iteration + iterations);
+    }
+
+    /**
+     * Checks the termination condition at an iteration.
+     * @param fitness Best fitness at the iteration
+     * @param current Iteration
+     * @return True, if the termination condition is met
+     */
+    private boolean check(float fitness, int current) {
+        long now = System.nanoTime();
+
+        if (fitness < bestFitness) {
+            bestFitness = fitness;
+            improvementIteration = current;
+            improvementTime = now;
+        }
+
+        if (fitness <= targetFitness) {
+            reason = "target fitness " + targetFitness + " reached";
+        } else if (timeLimit > 0 && now - startTime >= timeLimit) {
+            reason = "time limit of " + timeLimit / 1000000 + " ms reached";
+        } else if (stagnationIterations > 0 && current - improvementIteration >= stagnationIterations) {
+            reason = "no improvement for " + stagnationIterations + " iterations";
+        } else if (stagnationTime > 0 && now - improvementTime >= stagnationTime) {
+            reason = "no improvement for " + stagnationTime / 1000000 + " ms";
+        } else if (current >= maxIterations) {
+            reason = "maximum of " + maxIterations + " iterations reached";
+        }
+
+        return reason != null;
+    }
+
+    /**
+     * Writes the counted iterations, the best fitness and the elapsed times,
+     * e.g. into a checkpoint.
+     * @param output DataOutput instance
+     * @throws IOException Exception on IO error.
+     */
+    public void write(DataOutput output) throws IOException {
+        long now = System.nanoTime();
+
+        output.writeInt(iteration);
+        output.writeFloat(bestFitness);
+        output.writeInt(improvementIteration);
+        output.writeLong(now - startTime);
+        output.writeLong(now - improvementTime);
+    }
+
+    /**
+     * Reads a state written by write(), the elapsed times continue from the
+     * written ones.
+     * @param input DataInput instance
+     * @throws IOException Exception on IO error.
+     */
+    public void read(DataInput input) throws IOException {
+        long now = System.nanoTime();
+
+        iteration = input.readInt();
+        bestFitness = input.readFloat();
+        improvementIteration = input.readInt();
+        startTime = now - input.readLong();
+        improvementTime = now - input.readLong();
+        reason = null;
+    }
+
+    /**
+     * Returns the reason why the termination condition is met.
+     * @return Reason or null, if the condition is not met
+     */
+    public String getReason() {
+        return reason;
+    }
+
+    /**
+     * Returns the number of iterations counted so far.
+     * @return Number of iterations
+     */
+    public int getIteration() {
+        return iteration;
+    }
+
+    /**
+     * Returns the current progress, either the iterations or the elapsed time
+     * (in progress steps), whichever is further.
+     * @return Progress
+     */
+    public int getProgress() {
+        if (timeLimit == 0) {
+            return iteration;
+        }
+
+        long timeProgress = (System.nanoTime() - startTime) * PROGRESS_STEPS / timeLimit;
+        long iterationProgress = (long) iteration * PROGRESS_STEPS / maxIterations;
+
+        return (int) Math.min(PROGRESS_STEPS, Math.max(timeProgress, iterationProgress));
+    }
+
+    /**
+     * Returns the maximum progress.
+     * @return Maximum progress
+     */
+    public int getMaxProgress() {
+        return timeLimit == 0 ? maxIterations : PROGRESS_STEPS;
+    }
+}
@@ -0,0 +1,234 @@
+package model.ea;
+
+import model.schedule.DayRoster;
+
+/**
+ * Represents the working days of an employee as bitset: bit d of the calendar
+ * is set, if the employee works on day d. Counting and run lengths are
+ * calculated with word operations instead of iterating the days.
+ */
+public class WorkCalendar {
+    /**
+     * Words of the bitset (day d is bit d % 64 of word d / 64).
+     */
+    private final long[] words;
+
+    /**
+     * Number of days.
+     */
+    private final int numberOfDays;
+
+    /**
+     * Creates an empty calendar (no working days).
+     * @param numberOfDays Number of days
+     */
+    public WorkCalendar(int numberOfDays) {
+        this.numberOfDays = numberOfDays;
+        this.words = new long[getNumberOfWords(numberOfDays)];
+    }
+
+    /**
+     * Creates the calendar of an employee from a genome (days x employees).
+     * @param genome Genome
+     * @param numberOfEmployees Number of employees (row length)
+     * @param employee Employee index
+     * @param numberOfDays Number of days
+     */
+    public WorkCalendar(byte[] genome, int numberOfEmployees, int employee, int numberOfDays) {
+        this(numberOfDays);
+
+        for (int day = 0, offset = employee; day < numberOfDays; day++, offset += numberOfEmployees) {
+            if (genome[offset] != DayRoster.FREE) {
+                words[day >>> 6] |= 1L << day;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of words needed for a number of days.
+     * @param numberOfDays Number of days
+     * @return Number of words
+     */
+    public static int getNumberOfWords(int numberOfDays) {
+        return (numberOfDays + 63) >>> 6;
+    }
+
+    /**
+     * Returns the number of days.
+     * @return Number of days
+     */
+    public int getNumberOfDays() {
+        return numberOfDays;
+    }
+
+    /**
+     * Marks a day as working day.
+     * @param day Day index
+     */
+    public void setWorking(int day) {
+        words[day >>> 6] |= 1L << day;
+    }
+
+    /**
+     * Returns true, if the employee works on a day.
+     * @param day Day index
+     * @return True, if working day
+     */
+    public boolean isWorking(int day) {
+        return (words[day >>> 6] & (1L << day)) != 0;
+    }
+
+    /**
+     * Returns the number of working days.
+     * @return Number of working days
+     */
+    public int getNumberOfWorkingDays() {
+        int count = 0;
+        for (long word: words) {
+            count += Long.bitCount(word);
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns the number of working days within a day mask.
+     * @param mask Day mask with the same number of words
+     * @return Number of working days within the mask
+     */
+    public int getNumberOfWorkingDays(long[] mask) {
+        int count = 0;
+        for (int i = 0; i < words.length; i++) {
+            count += Long.bitCount(words[i] & mask[i]);
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns the first working day within a day mask.
+     * @param mask Day mask with the same number of words
+     * @return Day index or -1, if there is no working day within the mask
+     */
+    public int getFirstWorkingDay(long[] mask) {
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i] & mask[i];
+            if (word != 0) {
+                return (i << 6) + Long.numberOfTrailingZeros(word);
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns true, if there is a free day within a day mask after a day.
+     * @param mask Day mask with the same number of words
+     * @param day Day index
+     * @return True, if there is a later free day within the mask
+     */
+    public boolean hasFreeDayAfter(long[] mask, int day) {
+        int from = day + 1;
+        for (int i = from >>> 6; i < words.length; i++) {
+            long word = ~words[i] & mask[i];
+            if (i == from >>> 6) {
+                // ignore the days until the given day
+                word &= -1L << from;
+            }
+            if (word != 0) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns true, if the employee works on all days within a day mask.
+     * @param mask Day mask with the same number of words
+     * @return True, if there is no free day within the mask
+     */
+    public boolean isWorkingOnAll(long[] mask) {
+        for (int i = 0; i < words.length; i++) {
+            if ((~words[i] & mask[i]) != 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns a calendar of a subsequence of the days, e.g. of the weekend days.
+     * @param days Ascending day indices of the subsequence
+     * @return WorkCalendar instance with one day per given day
+     */
+    public WorkCalendar select(int[] days) {
+        WorkCalendar selection = new WorkCalendar(days.length);
+        for (int i = 0; i < days.length; i++) {
+            if (isWorking(days[i])) {
+                selection.setWorking(i);
+            }
+        }
+
+        return selection;
+    }
+
+    /**
+     * Returns the minimum and maximum of consecutive working (or free) days. Only
+     * sequences followed by a day of the other kind are taken into account and a
+     * sequence of n days counts as n - 1 consecutive days. The minimum is the
+     * smallest positive number, both values are 0 if there is no such number.
+     * @param working True for working days, false for free days
+     * @return Array of minimum and maximum
+     */
+    public int[] getConsecutiveDays(boolean working) {
+        int min = 0, max = 0;
+        int day = 0;
+
+        while (true) {
+            // find the next sequence start and the first day of the other kind afterwards
+            int start = nextDay(day, working);
+            if (start < 0) {
+                break;
+            }
+            int end = nextDay(start, !working);
+            if (end < 0) {
+                // the last sequence is not followed by another day
+                break;
+            }
+
+            int consecutive = end - start - 1;
+            if (consecutive > max) {
+                max = consecutive;
+            }
+            if (consecutive > 0 && (min == 0 || consecutive < min)) {
+                min = consecutive;
+            }
+            day = end;
+        }
+
+        return new int[] {min, max};
+    }
+
+    /**
+     * Returns the next working (or free) day from a day on.
+     * @param from Day index to start with
+     * @param working True for working days, false for free days
+     * @return Day index or -1, if there is none
+     */
+    private int nextDay(int from, boolean working) {
+        for (int i = from >>> 6; i < words.length; i++) {
+            long word = working ? words[i] : ~words[i];
+            if (i == from >>> 6) {
+                word &= -1L << from;
+            }
+            if (word != 0) {
+                int day = (i << 6) + Long.numberOfTrailingZeros(word);
+                return day < numberOfDays ? day : -1;
+            }
+        }
+
+        return -1;
+    }
+}
@@ -7,198 +7,191 @@ import model.schedule.SchedulingPeriod;
 
 /**
  * Implements the default fitness calculator which uses algorithms for each
- * soft constraint to calculate the overall fitness.
+ * soft constraint to calculate the overall fitness. The calculator holds no
+ * state, thus it can be used by several threads concurrently.
  */
 @SuppressWarnings("unused")
 public class DefaultFitnessCalculator implements IFitnessCalculator {
-    /**
-     * Holds the current individual instance.
-     */
-    private Individual individual;
+    @Override
+    public float calculate(Individual individual, SchedulingPeriod period) {
+        float fitness = 0;
 
-    /**
-     * Holds the scheduling period instance.
-     */
-    private SchedulingPeriod period;
+        // the fitness is the sum of the deviations of each employee
+        for (Employee employee: period.getEmployees()) {
+            fitness += calculate(individual, period, employee);
+        }
+
+        return fitness;
+    }
 
     @Override
-    public float calculate(Individual individual, SchedulingPeriod period) {
+    public float calculate(Individual individual, SchedulingPeriod period, Employee employee) {
         float fitness = 0;
-        this.individual = individual;
-        this.period = period;
 
         // calculate each deviations
-        fitness += getDeviationNumAssignments();
-        fitness += getDeviationNumConsecutiveDays();
-        fitness += getDeviationWorkingWeekends();
-        fitness += getDeviationUnwantedPatterns();
-        fitness += getDeviationOffRequests();
+        fitness += getDeviationNumAssignments(individual, employee);
+        fitness += getDeviationNumConsecutiveDays(individual, employee);
+        fitness += getDeviationWorkingWeekends(individual, employee);
+        fitness += getDeviationUnwantedPatterns(individual, employee);
+        fitness += getDeviationOffRequests(individual, employee);
 
         return fitness;
     }
 
     /**
-     * Calculates the deviation for Min/MaxNumAssignments for each employee.
+     * Calculates the deviation for Min/MaxNumAssignments of an employee.
+     * @param individual Individual instance
+     * @param employee Employee instance
      * @return Deviation
      */
-    private float getDeviationNumAssignments() {
+    private float getDeviationNumAssignments(Individual individual, Employee employee) {
        float deviation = 0;
 
-       // calculate for each employee
-       for (Employee employee: period.getEmployees()) {
-           Attribute minNumAssignments = employee.getContract().getMinNumAssignments();
-           Attribute maxNumAssignments = employee.getContract().getMaxNumAssignments();
-           int weightMin = minNumAssignments.getWeight();
-           int valueMin = minNumAssignments.getValueInt();
-           int weightMax = maxNumAssignments.getWeight();
-           int valueMax = maxNumAssignments.getValueInt();
-           int numAssignments = individual.getNumAssignments(employee);
-
-           // if soft-constraints are unsatisfied, add deviation
-           if (numAssignments < valueMin) {
-               deviation += (valueMin - numAssignments) * weightMin;
-           }
-           if (numAssignments > valueMax) {
-               deviation += (numAssignments - valueMax) * weightMax;
-           }
+       Attribute minNumAssignments = employee.getContract().getMinNumAssignments();
+       Attribute maxNumAssignments = employee.getContract().getMaxNumAssignments();
+       int weightMin = minNumAssignments.getWeight();
+       int valueMin = minNumAssignments.getValueInt();
+       int weightMax = maxNumAssignments.getWeight();
+       int valueMax = maxNumAssignments.getValueInt();
+       int numAssignments = individual.getNumAssignments(employee);
+
+       // if soft-constraints are unsatisfied, add deviation
+       if (numAssignments < valueMin) {
+           deviation += (valueMin - numAssignments) * weightMin;
+       }
+       if (numAssignments > valueMax) {
+           deviation += (numAssignments - valueMax) * weightMax;
        }
 
        return deviation;
     }
 
     /**
-     * Calculates the deviations for Min/MaxNumConsecutive(Free)Days for each employee.
+     * Calculates the deviations for Min/MaxNumConsecutive(Free)Days of an employee.
+     * @param individual Individual instance
+     * @param employee Employee instance
      * @return Deviation
      */
-    private float getDeviationNumConsecutiveDays() {
+    private float getDeviationNumConsecutiveDays(Individual individual, Employee employee) {
         float deviation = 0;
 
-        // calculate for each employee
-        for (Employee employee: period.getEmployees()) {
-            Attribute minNumConsecutiveWorkDays = employee.getContract().getMinNumAssignments(),
-                    maxNumConsecutiveWorkDays = employee.getContract().getMaxNumAssignments(),
-                    minNumConsecutiveFreeDays = employee.getContract().getMinConsecutiveFreeDays(),
-                    maxNumConsecutiveFreeDays = employee.getContract().getMaxConsecutiveFreeDays();
-
-            int weightMinWork = minNumConsecutiveWorkDays.getWeight(),
-                    weightMaxWork = maxNumConsecutiveWorkDays.getWeight(),
-                    weightMinFree = minNumConsecutiveFreeDays.getWeight(),
-                    weightMaxFree = maxNumConsecutiveFreeDays.getWeight();
-
-            int valueMinWork = minNumConsecutiveWorkDays.getValueInt(),
-                    valueMaxWork = maxNumConsecutiveWorkDays.getValueInt(),
-                    valueMinFree = minNumConsecutiveFreeDays.getValueInt(),
-                    valueMaxFree = maxNumConsecutiveFreeDays.getValueInt();
-
-            int numMinConsecutiveWork = individual.getNumMinConsecutiveWork(employee),
-                    numMaxConsecutiveWork = individual.getNumMaxConsecutiveWork(employee),
-                    numMinConsecutiveFree = individual.getNumMinConsecutiveFree(employee),
-                    numMaxConsecutiveFree = individual.getNumMaxConsecutiveFree(employee);
-
-            // if soft-constraints are unsatisfied, add deviation
-            if (numMinConsecutiveWork < valueMinWork) {
-                deviation += (valueMinWork - numMinConsecutiveWork) * weightMinWork;
-            }
-            if (numMaxConsecutiveWork > valueMaxWork) {
-                deviation += (numMaxConsecutiveWork - valueMaxWork) * weightMaxWork;
-            }
-            if (numMinConsecutiveFree < valueMinFree) {
-                deviation += (valueMinFree - numMinConsecutiveFree) * weightMinFree;
-            }
-            if (numMaxConsecutiveFree > valueMaxFree) {
-                deviation += (numMaxConsecutiveFree - valueMaxFree) * weightMaxFree;
-            }
+        Attribute minNumConsecutiveWorkDays = employee.getContract().getMinNumAssignments(),
+                maxNumConsecutiveWorkDays = employee.getContract().getMaxNumAssignments(),
+                minNumConsecutiveFreeDays = employee.getContract().getMinConsecutiveFreeDays(),
+                maxNumConsecutiveFreeDays = employee.getContract().getMaxConsecutiveFreeDays();
+
+        int weightMinWork = minNumConsecutiveWorkDays.getWeight(),
+                weightMaxWork = maxNumConsecutiveWorkDays.getWeight(),
+                weightMinFree = minNumConsecutiveFreeDays.getWeight(),
+                weightMaxFree = maxNumConsecutiveFreeDays.getWeight();
+
+        int valueMinWork = minNumConsecutiveWorkDays.getValueInt(),
+                valueMaxWork = maxNumConsecutiveWorkDays.getValueInt(),
+                valueMinFree = minNumConsecutiveFreeDays.getValueInt(),
+                valueMaxFree = maxNumConsecutiveFreeDays.getValueInt();
+
+        int numMinConsecutiveWork = individual.getNumMinConsecutiveWork(employee),
+                numMaxConsecutiveWork = individual.getNumMaxConsecutiveWork(employee),
+                numMinConsecutiveFree = individual.getNumMinConsecutiveFree(employee),
+                numMaxConsecutiveFree = individual.getNumMaxConsecutiveFree(employee);
+
+        // if soft-constraints are unsatisfied, add deviation
+        if (numMinConsecutiveWork < valueMinWork) {
+            deviation += (valueMinWork - numMinConsecutiveWork) * weightMinWork;
+        }
+        if (numMaxConsecutiveWork > valueMaxWork) {
+            deviation += (numMaxConsecutiveWork - valueMaxWork) * weightMaxWork;
+        }
+        if (numMinConsecutiveFree < valueMinFree) {
+            deviation += (valueMinFree - numMinConsecutiveFree) * weightMinFree;
+        }
+        if (numMaxConsecutiveFree > valueMaxFree) {
+            deviation += (numMaxConsecutiveFree - valueMaxFree) * weightMaxFree;
         }
 
         return deviation;
     }
 
     /**
-     * Calculates the deviations for (consecutive) working weekends for each employee.
+     * Calculates the deviations for (consecutive) working weekends of an employee.
+     * @param individual Individual instance
+     * @param employee Employee instance
      * @return Deviation
      */
-    private float getDeviationWorkingWeekends() {
+    private float getDeviationWorkingWeekends(Individual individual, Employee employee) {
         float deviation = 0;
 
-        // calculate for each employee
-        for (Employee employee: period.getEmployees()) {
-            Attribute maxWorkingWeekendsTotal = employee.getContract().getMaxWorkingWeekendsInFourWeeks(),
-                    minNumConsecutiveWorkWeekends = employee.getContract().getMinConsecutiveWorkingWeekends(),
-                    maxNumConsecutiveWorkWeekends = employee.getContract().getMaxConsecutiveWorkingWeekends(),
-                    completeWeekends = employee.getContract().getCompleteWeekends(),
-                    identicalShiftTypes = employee.getContract().getIdenticalShiftTypesDuringWeekend(),
-                    noNightShiftsBeforeWeekends = employee.getContract().getNoNightShiftBeforeFreeWeekend();
-
-            int weightMaxWorkingWeekendsTotal = maxWorkingWeekendsTotal.getWeight(),
-                    weightMinConsecutiveWork = minNumConsecutiveWorkWeekends.getWeight(),
-                    weightMaxConsecutiveWork = maxNumConsecutiveWorkWeekends.getWeight(),
-                    weightCompleteWeekends = completeWeekends.getWeight(),
-                    weightIdenticalShiftTypes = identicalShiftTypes.getWeight(),
-                    weightNoNightShiftsBeforeWeekends = noNightShiftsBeforeWeekends.getWeight();
-
-            int valueMaxWorkingWeekendsTotal = maxWorkingWeekendsTotal.getValueInt(),
-                    valueMinConsecutiveWork = minNumConsecutiveWorkWeekends.getValueInt(),
-                    valueMaxConsecutiveWork = maxNumConsecutiveWorkWeekends.getValueInt();
-
-            boolean valueCompleteWeekends = completeWeekends.getValueBoolean(),
-                    valueIdenticalShiftTypes = identicalShiftTypes.getValueBoolean(),
-                    valueNoNightShiftsBeforeWeekends = noNightShiftsBeforeWeekends.getValueBoolean();
-
-            int numWeekendsWorkTotal = individual.getNumTotalWeekendsWork(employee),
-                    numMinConsecutiveWeekendsWork = individual.getNumMinConsecutiveWeekendsWork(employee),
-                    numMaxConsecutiveWeekendsWork = individual.getNumMaxConsecutiveWeekendsWork(employee);
-
-            // if soft-constraints are unsatisfied, add deviation
-            if (numWeekendsWorkTotal > valueMaxWorkingWeekendsTotal) {
-                deviation += (numWeekendsWorkTotal - valueMaxWorkingWeekendsTotal) * weightMaxWorkingWeekendsTotal;
-            }
-            if (numMinConsecutiveWeekendsWork < valueMinConsecutiveWork) {
-                deviation += (valueMinConsecutiveWork - numMinConsecutiveWeekendsWork) * weightMinConsecutiveWork;
-            }
-            if (numMaxConsecutiveWeekendsWork > valueMaxConsecutiveWork) {
-                deviation += (numMaxConsecutiveWeekendsWork - valueMaxConsecutiveWork) * weightMaxConsecutiveWork;
-            }
-            if (valueCompleteWeekends != individual.isCompleteWeekends(employee)) {
-                deviation += weightCompleteWeekends;
-            }
-            if (valueIdenticalShiftTypes != individual.isIdenticalShiftType(employee)) {
-                deviation += weightIdenticalShiftTypes;
-            }
-            if (valueNoNightShiftsBeforeWeekends != individual.isNoNightShiftsBeforeFreeWeekend(employee)) {
-                deviation += weightNoNightShiftsBeforeWeekends;
-            }
+        Attribute maxWorkingWeekendsTotal = employee.getContract().getMaxWorkingWeekendsInFourWeeks(),
+                minNumConsecutiveWorkWeekends = employee.getContract().getMinConsecutiveWorkingWeekends(),
+                maxNumConsecutiveWorkWeekends = employee.getContract().getMaxConsecutiveWorkingWeekends(),
+                completeWeekends = employee.getContract().getCompleteWeekends(),
+                identicalShiftTypes = employee.getContract().getIdenticalShiftTypesDuringWeekend(),
+                noNightShiftsBeforeWeekends = employee.getContract().getNoNightShiftBeforeFreeWeekend();
+
+        int weightMaxWorkingWeekendsTotal = maxWorkingWeekendsTotal.getWeight(),
+                weightMinConsecutiveWork = minNumConsecutiveWorkWeekends.getWeight(),
+                weightMaxConsecutiveWork = maxNumConsecutiveWorkWeekends.getWeight(),
+                weightCompleteWeekends = completeWeekends.getWeight(),
+                weightIdenticalShiftTypes = identicalShiftTypes.getWeight(),
+                weightNoNightShiftsBeforeWeekends = noNightShiftsBeforeWeekends.getWeight();
+
+        int valueMaxWorkingWeekendsTotal = maxWorkingWeekendsTotal.getValueInt(),
+                valueMinConsecutiveWork = minNumConsecutiveWorkWeekends.getValueInt(),
+                valueMaxConsecutiveWork = maxNumConsecutiveWorkWeekends.getValueInt();
+
+        boolean valueCompleteWeekends = completeWeekends.getValueBoolean(),
+                valueIdenticalShiftTypes = identicalShiftTypes.getValueBoolean(),
+                valueNoNightShiftsBeforeWeekends = noNightShiftsBeforeWeekends.getValueBoolean();
+
+        int numWeekendsWorkTotal = individual.getNumTotalWeekendsWork(employee),
+                numMinConsecutiveWeekendsWork = individual.getNumMinConsecutiveWeekendsWork(employee),
+                numMaxConsecutiveWeekendsWork = individual.getNumMaxConsecutiveWeekendsWork(employee);
+
+        // if soft-constraints are unsatisfied, add deviation
+        if (numWeekendsWorkTotal > valueMaxWorkingWeekendsTotal) {
+            deviation += (numWeekendsWorkTotal - valueMaxWorkingWeekendsTotal) * weightMaxWorkingWeekendsTotal;
+        }
+        if (numMinConsecutiveWeekendsWork < valueMinConsecutiveWork) {
+            deviation += (valueMinConsecutiveWork - numMinConsecutiveWeekendsWork) * weightMinConsecutiveWork;
+        }
+        if (numMaxConsecutiveWeekendsWork > valueMaxConsecutiveWork) {
+            deviation += (numMaxConsecutiveWeekendsWork - valueMaxConsecutiveWork) * weightMaxConsecutiveWork;
+        }
+        if (valueCompleteWeekends != individual.isCompleteWeekends(employee)) {
+            deviation += weightCompleteWeekends;
+        }
+        if (valueIdenticalShiftTypes != individual.isIdenticalShiftType(employee)) {
+            deviation += weightIdenticalShiftTypes;
+        }
+        if (valueNoNightShiftsBeforeWeekends != individual.isNoNightShiftsBeforeFreeWeekend(employee)) {
+            deviation += weightNoNightShiftsBeforeWeekends;
         }
 
         return deviation;
     }
 
     /**
-     * Calculates the deviations for unwanted patterns for each employee.
+     * Calculates the deviations for unwanted patterns of an employee.
+     * @param individual Individual instance
+     * @param employee Employee instance
      * @return Deviation
      */
-    private float getDeviationUnwantedPatterns() {
-        float deviation = 0;
-
-        // calculate deviation for each employee
-        for (Employee employee: period.getEmployees()) {
-            deviation += individual.getUnwantedPatternDeviation(employee);
-        }
-
-        return deviation;
+    private float getDeviationUnwantedPatterns(Individual individual, Employee employee) {
+        return individual.getUnwantedPatternDeviation(employee);
     }
 
     /**
-     * Calculates the deviations for day- and shift-off requests for
-     * each employee.
+     * Calculates the deviations for day- and shift-off requests of an
+     * employee.
+     * @param individual Individual instance
+     * @param employee Employee instance
      * @return Deviation
      */
-    private float getDeviationOffRequests() {
+    private float getDeviationOffRequests(Individual individual, Employee employee) {
         float deviation = 0;
 
-        for (Employee employee: period.getEmployees()) {
-            deviation += individual.getDayOffRequestsDeviation(employee);
-            deviation += individual.getShiftOffRequestsDeviation(employee);
-        }
+        deviation += individual.getDayOffRequestsDeviation(employee);
+        deviation += individual.getShiftOffRequestsDeviation(employee);
 
         return deviation;
     }
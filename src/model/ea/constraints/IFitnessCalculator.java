@@ -1,10 +1,12 @@
 package model.ea.constraints;
 
 import model.ea.Individual;
+import model.schedule.Employee;
 import model.schedule.SchedulingPeriod;
 
 /**
- * Defines the general interface for fitness calculation.
+ * Defines the general interface for fitness calculation. A single instance is
+ * shared by all individuals, thus implementations must not hold state.
  */
 public interface IFitnessCalculator {
     /**
@@ -14,4 +16,14 @@ public interface IFitnessCalculator {
      * @return Fitness
      */
     float calculate(Individual individual, SchedulingPeriod period);
+
+    /**
+     * Calculates the part of the fitness caused by a single employee. The
+     * fitness of an individual is the sum of the parts of all employees.
+     * @param individual Individual instance
+     * @param period SchedulingPeriod instance
+     * @param employee Employee instance
+     * @return Fitness part of the employee
+     */
+    float calculate(Individual individual, SchedulingPeriod period, Employee employee);
 }
@@ -0,0 +1,233 @@
+package model.ea.constraints;
+
+import model.ea.Individual;
+import model.schedule.*;
+
+/**
+ * Implements a fitness calculator which evaluates all soft constraints of an
+ * employee in a single pass over the genome column of the employee. Intermediate
+ * values are kept in primitive locals and a reusable scratch buffer per thread,
+ * thus an evaluation creates no garbage and does not use the caches of the
+ * individual. The results are identical to the DefaultFitnessCalculator.
+ */
+public class ScratchFitnessCalculator implements IFitnessCalculator {
+    /**
+     * Scratch buffer of each thread for the occurred unwanted patterns (one bit per pattern).
+     */
+    private final ThreadLocal<long[]> occurredPatterns = new ThreadLocal<long[]>() {
+        @Override
+        protected long[] initialValue() {
+            return new long[1];
+        }
+    };
+
+    @Override
+    public float calculate(Individual individual, SchedulingPeriod period) {
+        float fitness = 0;
+
+        // the fitness is the sum of the deviations of each employee
+        for (int employee = 0; employee < period.getCompiled().getNumberOfEmployees(); employee++) {
+            fitness += calculate(individual, period.getCompiled(), employee);
+        }
+
+        return fitness;
+    }
+
+    @Override
+    public float calculate(Individual individual, SchedulingPeriod period, Employee employee) {
+        return calculate(individual, period.getCompiled(), employee.getIndex());
+    }
+
+    /**
+     * Calculates the deviations of all soft constraints of an employee.
+     * @param individual Individual instance
+     * @param compiled CompiledPeriod instance
+     * @param employee Employee index
+     * @return Deviation
+     */
+    private float calculate(Individual individual, CompiledPeriod compiled, int employee) {
+        byte[] genome = individual.getGenome();
+        int numberOfDays = individual.getNumberOfDays();
+        int numberOfEmployees = compiled.getNumberOfEmployees();
+        int contract = compiled.getContractIndex(employee);
+
+        PatternAutomaton automaton = compiled.getPatternAutomaton(contract);
+        long[] occurred = getOccurredPatterns(automaton.getNumberOfPatterns());
+        int[] daysOfWeek = compiled.getDaysOfWeek();
+        int state = PatternAutomaton.START;
+
+        int assignments = 0, offRequests = 0, unwantedPatterns = 0;
+
+        // consecutive days: length - 1 of the current sequence, minimum and maximum of closed sequences
+        int consecutiveWork = 0, consecutiveFree = 0,
+                minConsecutiveWork = 0, maxConsecutiveWork = 0,
+                minConsecutiveFree = 0, maxConsecutiveFree = 0;
+        boolean yesterdayWork = false, yesterdayFree = false;
+
+        // weekends: same for the sequence of weekend days
+        int weekendsWork = 0, consecutiveWeekendWork = 0,
+                minConsecutiveWeekendWork = 0, maxConsecutiveWeekendWork = 0,
+                firstWeekendShiftType = DayRoster.FREE;
+        boolean lastWeekendWork = false, completeWeekends = true,
+                identicalShiftTypes = true, noNightShifts = true;
+
+        for (int day = 0, offset = employee; day < numberOfDays; day++, offset += numberOfEmployees) {
+            int shiftType = genome[offset];
+            boolean working = shiftType != DayRoster.FREE;
+
+            if (working) {
+                assignments++;
+                offRequests += compiled.getDayOffWeight(employee, day) + compiled.getShiftOffWeight(employee, day);
+
+                if (yesterdayWork) {
+                    consecutiveWork++;
+                }
+                if (consecutiveFree > maxConsecutiveFree) {
+                    maxConsecutiveFree = consecutiveFree;
+                }
+                if (minConsecutiveFree == 0 || consecutiveFree > 0 && consecutiveFree < minConsecutiveFree) {
+                    minConsecutiveFree = consecutiveFree;
+                }
+                consecutiveFree = 0;
+            } else {
+                if (yesterdayFree) {
+                    consecutiveFree++;
+                }
+                if (consecutiveWork > maxConsecutiveWork) {
+                    maxConsecutiveWork = consecutiveWork;
+                }
+                if (minConsecutiveWork == 0 || consecutiveWork > 0 && consecutiveWork < minConsecutiveWork) {
+                    minConsecutiveWork = consecutiveWork;
+                }
+                consecutiveWork = 0;
+            }
+            yesterdayWork = working;
+            yesterdayFree = !working;
+
+            if (compiled.isWeekend(contract, day)) {
+                if (working) {
+                    weekendsWork++;
+                    if (lastWeekendWork) {
+                        consecutiveWeekendWork++;
+                    }
+
+                    // compare with the shift type of the first working weekend day
+                    if (firstWeekendShiftType == DayRoster.FREE) {
+                        firstWeekendShiftType = shiftType;
+                    } else if (shiftType != firstWeekendShiftType) {
+                        identicalShiftTypes = false;
+                    }
+                } else {
+                    if (consecutiveWeekendWork > maxConsecutiveWeekendWork) {
+                        maxConsecutiveWeekendWork = consecutiveWeekendWork;
+                    }
+                    if (minConsecutiveWeekendWork == 0
+                            || consecutiveWeekendWork > 0 && consecutiveWeekendWork < minConsecutiveWeekendWork) {
+                        minConsecutiveWeekendWork = consecutiveWeekendWork;
+                    }
+                    if (firstWeekendShiftType != DayRoster.FREE && compiled.isNight(firstWeekendShiftType)) {
+                        noNightShifts = false;
+                    }
+                    consecutiveWeekendWork = 0;
+                    completeWeekends = false;
+                }
+                lastWeekendWork = working;
+            }
+
+            // each unwanted pattern causes its deviation only once
+            state = automaton.next(state, automaton.getSymbol(daysOfWeek[day], shiftType));
+            for (int pattern: automaton.getOutputs(state)) {
+                if ((occurred[pattern >>> 6] & (1L << pattern)) == 0) {
+                    occurred[pattern >>> 6] |= 1L << pattern;
+                    unwantedPatterns += automaton.getWeight(pattern);
+                }
+            }
+        }
+
+        float deviation = 0;
+
+        // number of assignments
+        deviation += getDeviationMin(compiled, contract, CompiledPeriod.MIN_NUM_ASSIGNMENTS, assignments);
+        deviation += getDeviationMax(compiled, contract, CompiledPeriod.MAX_NUM_ASSIGNMENTS, assignments);
+
+        // consecutive days, working days are compared to Min/MaxNumAssignments like the default calculator does
+        deviation += getDeviationMin(compiled, contract, CompiledPeriod.MIN_NUM_ASSIGNMENTS, minConsecutiveWork);
+        deviation += getDeviationMax(compiled, contract, CompiledPeriod.MAX_NUM_ASSIGNMENTS, maxConsecutiveWork);
+        deviation += getDeviationMin(compiled, contract, CompiledPeriod.MIN_CONSECUTIVE_FREE_DAYS, minConsecutiveFree);
+        deviation += getDeviationMax(compiled, contract, CompiledPeriod.MAX_CONSECUTIVE_FREE_DAYS, maxConsecutiveFree);
+
+        // weekends
+        deviation += getDeviationMax(compiled, contract, CompiledPeriod.MAX_WORKING_WEEKENDS_IN_FOUR_WEEKS, weekendsWork);
+        deviation += getDeviationMin(compiled, contract, CompiledPeriod.MIN_CONSECUTIVE_WORKING_WEEKENDS, minConsecutiveWeekendWork);
+        deviation += getDeviationMax(compiled, contract, CompiledPeriod.MAX_CONSECUTIVE_WORKING_WEEKENDS, maxConsecutiveWeekendWork);
+        deviation += getDeviationBoolean(compiled, contract, CompiledPeriod.COMPLETE_WEEKENDS, completeWeekends);
+        deviation += getDeviationBoolean(compiled, contract, CompiledPeriod.IDENTICAL_SHIFT_TYPES_DURING_WEEKEND, identicalShiftTypes);
+        deviation += getDeviationBoolean(compiled, contract, CompiledPeriod.NO_NIGHT_SHIFT_BEFORE_FREE_WEEKEND, noNightShifts);
+
+        // unwanted patterns, day- and shift-off requests
+        deviation += unwantedPatterns;
+        deviation += offRequests;
+
+        return deviation;
+    }
+
+    /**
+     * Returns the cleared scratch buffer of the current thread for the occurred patterns.
+     * @param numberOfPatterns Number of patterns
+     * @return Scratch buffer (one bit per pattern)
+     */
+    private long[] getOccurredPatterns(int numberOfPatterns) {
+        long[] occurred = occurredPatterns.get();
+        int words = (numberOfPatterns + 63) >>> 6;
+
+        if (occurred.length < words) {
+            occurred = new long[words];
+            occurredPatterns.set(occurred);
+        } else {
+            for (int i = 0; i < words; i++) {
+                occurred[i] = 0;
+            }
+        }
+
+        return occurred;
+    }
+
+    /**
+     * Returns the deviation, if a value is less than the minimum of an attribute.
+     * @param compiled CompiledPeriod instance
+     * @param contract Contract index
+     * @param attribute Attribute index
+     * @param value Value
+     * @return Deviation
+     */
+    private int getDeviationMin(CompiledPeriod compiled, int contract, int attribute, int value) {
+        int min = compiled.getAttributeValue(contract, attribute);
+        return value < min ? (min - value) * compiled.getAttributeWeight(contract, attribute) : 0;
+    }
+
+    /**
+     * Returns the deviation, if a value is greater than the maximum of an attribute.
+     * @param compiled CompiledPeriod instance
+     * @param contract Contract index
+     * @param attribute Attribute index
+     * @param value Value
+     * @return Deviation
+     */
+    private int getDeviationMax(CompiledPeriod compiled, int contract, int attribute, int value) {
+        int max = compiled.getAttributeValue(contract, attribute);
+        return value > max ? (value - max) * compiled.getAttributeWeight(contract, attribute) : 0;
+    }
+
+    /**
+     * Returns the deviation, if a value differs from a boolean attribute.
+     * @param compiled CompiledPeriod instance
+     * @param contract Contract index
+     * @param attribute Attribute index
+     * @param value Value
+     * @return Deviation
+     */
+    private int getDeviationBoolean(CompiledPeriod compiled, int contract, int attribute, boolean value) {
+        return (compiled.getAttributeValue(contract, attribute) == 1) != value
+                ? compiled.getAttributeWeight(contract, attribute) : 0;
+    }
+}
@@ -5,7 +5,8 @@ import model.schedule.SchedulingPeriod;
 
 /**
  * Defines the general interface for construction heuristic generating a sub-optimal,
- * but feasible solution for the nurse rostering problem.
+ * but feasible solution for the nurse rostering problem. A single instance is
+ * shared, thus implementations must not hold state.
  */
 public interface IConstructionHeuristic {
     /**
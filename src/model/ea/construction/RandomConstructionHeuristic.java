@@ -1,14 +1,10 @@
 package model.ea.construction;
 
-import helper.DateTimeHelper;
 import helper.RandomHelper;
 import model.ea.Individual;
+import model.schedule.CompiledPeriod;
 import model.schedule.DayRoster;
-import model.schedule.Employee;
 import model.schedule.SchedulingPeriod;
-import model.schedule.ShiftType;
-import java.util.Date;
-import java.util.Map;
 
 /**
  * Concrete construction heuristic by assigning nurses randomly.
@@ -17,29 +13,27 @@ import java.util.Map;
 public class RandomConstructionHeuristic implements IConstructionHeuristic {
     @Override
     public Individual getIndividual(SchedulingPeriod period) {
+        CompiledPeriod compiled = period.getCompiled();
         Individual individual = new Individual();
         individual.setSchedulingPeriod(period);
-        int numberOfEmployees = period.getEmployees().size();
+        int numberOfEmployees = compiled.getNumberOfEmployees();
 
         // iterate over every day
-        for (int dayNumber = 0; dayNumber < DateTimeHelper.getInstance().getNumberOfDays(period); dayNumber++) {
-            Date currentDate = DateTimeHelper.getInstance().getDateByNumber(period, dayNumber);
-            DayRoster dayRoster = new DayRoster();
-            dayRoster.setDate(currentDate);
-            for (Map.Entry<ShiftType, Integer> cover : period.getCoversByDate(currentDate).entrySet()) {
+        for (int dayNumber = 0; dayNumber < compiled.getNumberOfDays(); dayNumber++) {
+            DayRoster dayRoster = new DayRoster(period);
+            dayRoster.setDate(compiled.getDate(dayNumber));
+            for (int shiftType : compiled.getCoverOrder(dayNumber)) {
                 // try to find random employees which have required skills and are unique per day
-                ShiftType shiftType = cover.getKey();
-                Integer preferredEmployeeCount = cover.getValue();
+                int preferredEmployeeCount = compiled.getCover(dayNumber, shiftType);
                 for (int employeeNumber = 0; employeeNumber < preferredEmployeeCount; employeeNumber++) {
-                    Employee employee;
+                    int employee;
                     do {
-                        int randomEmployeeId = RandomHelper.getInstance().getInt(numberOfEmployees);
-                        employee = period.getEmployeeById(randomEmployeeId);
-                    } while (!employee.hasRequiredSkillsForShiftType(shiftType)
-                            || dayRoster.isEmployeePlanned(employee));
+                        employee = RandomHelper.getInstance().getInt(numberOfEmployees);
+                    } while (!compiled.hasRequiredSkills(employee, shiftType)
+                            || dayRoster.getShiftTypeIndex(employee) != DayRoster.FREE);
 
                     // the random chosen employee fits the criteria, add to day roster
-                    dayRoster.addToDayRoster(shiftType, employee);
+                    dayRoster.setShiftTypeIndex(employee, shiftType);
                 }
             }
             // finally add the generated day roster to the individual
@@ -1,13 +1,9 @@
 package model.ea.construction;
 
-import helper.DateTimeHelper;
 import model.ea.Individual;
+import model.schedule.CompiledPeriod;
 import model.schedule.DayRoster;
-import model.schedule.Employee;
 import model.schedule.SchedulingPeriod;
-import model.schedule.ShiftType;
-
-import java.util.*;
 
 /**
  * Concrete construction heuristic by assigning first available nurses.
@@ -16,29 +12,27 @@ import java.util.*;
 public class SimpleConstructionHeuristic implements IConstructionHeuristic {
     @Override
     public Individual getIndividual(SchedulingPeriod period) {
+        CompiledPeriod compiled = period.getCompiled();
         Individual individual = new Individual();
         individual.setSchedulingPeriod(period);
 
         // iterate over every day
-        for (int dayNumber = 0; dayNumber < DateTimeHelper.getInstance().getNumberOfDays(period); dayNumber++) {
-            Date currentDate = DateTimeHelper.getInstance().getDateByNumber(period, dayNumber);
-            DayRoster dayRoster = new DayRoster();
-            dayRoster.setDate(currentDate);
-            int employeeId = 0;
+        for (int dayNumber = 0; dayNumber < compiled.getNumberOfDays(); dayNumber++) {
+            DayRoster dayRoster = new DayRoster(period);
+            dayRoster.setDate(compiled.getDate(dayNumber));
+            int employee = 0;
 
-            for (Map.Entry<ShiftType, Integer> cover : period.getCoversByDate(currentDate).entrySet()) {
+            for (int shiftType : compiled.getCoverOrder(dayNumber)) {
                 // try to find employees which have required skills and are unique per day
-                ShiftType shiftType = cover.getKey();
-                Integer preferredEmployeeCount = cover.getValue();
+                int preferredEmployeeCount = compiled.getCover(dayNumber, shiftType);
                 for (int employeeNumber = 0; employeeNumber < preferredEmployeeCount; employeeNumber++) {
-                    Employee employee;
-                    do {
-                        employee = period.getEmployeeById(employeeId++);
-                    } while (!employee.hasRequiredSkillsForShiftType(shiftType)
-                            || dayRoster.isEmployeePlanned(employee));
+                    while (!compiled.hasRequiredSkills(employee, shiftType)
+                            || dayRoster.getShiftTypeIndex(employee) != DayRoster.FREE) {
+                        employee++;
+                    }
 
-                    // the random chosen employee fits the criteria, add to day roster
-                    dayRoster.addToDayRoster(shiftType, employee);
+                    // the chosen employee fits the criteria, add to day roster
+                    dayRoster.setShiftTypeIndex(employee++, shiftType);
                 }
             }
 
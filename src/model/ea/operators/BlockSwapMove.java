@@ -0,0 +1,32 @@
+package model.ea.operators;
+
+/**
+ * Swaps the assignments of two employees on a block of consecutive days.
+ */
+public class BlockSwapMove extends SwapMove {
+    /**
+     * Creates a move swapping the assignments of two employees on consecutive days.
+     * @param employee1 Index of first employee
+     * @param employee2 Index of second employee
+     * @param firstDay First day number of the block
+     * @param length Number of days of the block
+     */
+    public BlockSwapMove(int employee1, int employee2, int firstDay, int length) {
+        super(employee1, employee2, getDays(firstDay, length));
+    }
+
+    /**
+     * Returns the day numbers of a block.
+     * @param firstDay First day number
+     * @param length Number of days
+     * @return Day numbers
+     */
+    private static int[] getDays(int firstDay, int length) {
+        int[] days = new int[length];
+        for (int i = 0; i < length; i++) {
+            days[i] = firstDay + i;
+        }
+
+        return days;
+    }
+}
@@ -0,0 +1,21 @@
+package model.ea.operators;
+
+/**
+ * Exchanges two employees between two days: if the first employee works a
+ * shift type on the first day and the second employee works it on the second
+ * day, afterwards each employee works the shift of the other one. The
+ * assignments of both days are swapped, thus the employees change their
+ * working days while the cover stays the same.
+ */
+public class DayExchangeMove extends SwapMove {
+    /**
+     * Creates a move exchanging two employees between two days.
+     * @param employee1 Index of first employee
+     * @param employee2 Index of second employee
+     * @param day1 First day number
+     * @param day2 Second day number
+     */
+    public DayExchangeMove(int employee1, int employee2, int day1, int day2) {
+        super(employee1, employee2, day1, day2);
+    }
+}
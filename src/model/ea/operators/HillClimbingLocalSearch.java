@@ -0,0 +1,46 @@
+package model.ea.operators;
+
+import helper.ConfigurationHelper;
+import helper.RandomHelper;
+import model.ea.Individual;
+import model.ea.Population;
+
+/**
+ * Implements a first-improvement hill climbing: random moves of all
+ * neighbourhoods are evaluated by their fitness delta and the first improving
+ * and feasible move is applied, until the budget of an individual is spent.
+ */
+@SuppressWarnings("unused")
+public class HillClimbingLocalSearch implements ILocalSearch {
+    /**
+     * Number of evaluated moves per individual.
+     */
+    private int maxMoves = ConfigurationHelper.getInstance().getPropertyInteger("LocalSearchMoves", 200);
+
+    /**
+     * Maximum time per individual in milliseconds (0 for no limit).
+     */
+    private long maxTime = ConfigurationHelper.getInstance().getPropertyLong("LocalSearchTime", 0);
+
+    @Override
+    public Population improve(Population individuals) {
+        Neighbourhood[] neighbourhoods = Neighbourhood.values();
+
+        for (Individual individual: individuals.getPool()) {
+            long deadline = System.nanoTime() + maxTime * 1000000;
+
+            for (int moves = 0; moves < maxMoves; moves++) {
+                if (maxTime > 0 && System.nanoTime() > deadline) {
+                    break;
+                }
+
+                IMove move = neighbourhoods[RandomHelper.getInstance().getInt(neighbourhoods.length)].getRandomMove(individual);
+                if (move != null && move.getDelta(individual) < 0 && move.isFeasible(individual)) {
+                    move.apply(individual);
+                }
+            }
+        }
+
+        return individuals;
+    }
+}
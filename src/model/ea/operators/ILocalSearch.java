@@ -0,0 +1,15 @@
+package model.ea.operators;
+
+import model.ea.Population;
+
+/**
+ * Defines the general interface for a local search operator.
+ */
+public interface ILocalSearch {
+    /**
+     * Improves the individuals in place.
+     * @param individuals Population instance
+     * @return Population instance with the improved individuals
+     */
+    Population improve(Population individuals);
+}
@@ -0,0 +1,38 @@
+package model.ea.operators;
+
+import model.ea.Individual;
+
+/**
+ * Defines the general interface for a move, i.e. a small change of an
+ * individual which can be evaluated and reverted without copying the individual.
+ */
+public interface IMove {
+    /**
+     * Returns true, if the individual is still feasible after applying this move.
+     * The individual is left unchanged.
+     * @param individual Individual instance
+     * @return True, if feasible after the move
+     */
+    boolean isFeasible(Individual individual);
+
+    /**
+     * Returns the change of the fitness value of the individual, if this move
+     * is applied. The individual is left unchanged.
+     * @param individual Individual instance
+     * @return Fitness delta (negative, if the move is an improvement)
+     */
+    float getDelta(Individual individual);
+
+    /**
+     * Applies this move to the individual and updates its fitness value.
+     * @param individual Individual instance
+     * @return Fitness delta (negative, if the move is an improvement)
+     */
+    float apply(Individual individual);
+
+    /**
+     * Reverts this move, it must be the last move applied to the individual.
+     * @param individual Individual instance
+     */
+    void undo(Individual individual);
+}
@@ -0,0 +1,132 @@
+package model.ea.operators;
+
+import helper.RandomHelper;
+import model.ea.Individual;
+import model.schedule.DayRoster;
+
+/**
+ * Neighbourhoods of an individual, each one creates random moves of a kind.
+ * All moves keep the cover of the days, thus only the skills of the employees
+ * have to be checked for feasibility.
+ */
+public enum Neighbourhood {
+    /**
+     * Swaps the shift types of two employees working on the same day.
+     */
+    SWAP {
+        @Override
+        public IMove getRandomMove(Individual individual) {
+            int day = getRandomDay(individual, 1);
+            int employee1 = getRandomEmployee(individual, day, true);
+            int employee2 = getRandomEmployee(individual, day, true);
+
+            if (employee1 < 0 || employee2 < 0
+                    || individual.getShiftTypeIndex(day, employee1) == individual.getShiftTypeIndex(day, employee2)) {
+                return null;
+            }
+
+            return new SwapMove(employee1, employee2, day);
+        }
+    },
+
+    /**
+     * Reassigns the shift of an employee to an employee being free on that day.
+     */
+    REASSIGN {
+        @Override
+        public IMove getRandomMove(Individual individual) {
+            int day = getRandomDay(individual, 1);
+            int employee1 = getRandomEmployee(individual, day, true);
+            int employee2 = getRandomEmployee(individual, day, false);
+
+            if (employee1 < 0 || employee2 < 0) {
+                return null;
+            }
+
+            return new SwapMove(employee1, employee2, day);
+        }
+    },
+
+    /**
+     * Swaps the assignments of two employees on two to four consecutive days.
+     */
+    BLOCK_SWAP {
+        @Override
+        public IMove getRandomMove(Individual individual) {
+            int length = Math.min(RandomHelper.getInstance().getInt(2, 5), individual.getNumberOfDays());
+            int numberOfEmployees = individual.getSchedulingPeriod().getEmployees().size();
+            int employee1 = RandomHelper.getInstance().getInt(numberOfEmployees);
+            int employee2 = RandomHelper.getInstance().getInt(numberOfEmployees);
+
+            if (employee1 == employee2) {
+                return null;
+            }
+
+            return new BlockSwapMove(employee1, employee2, getRandomDay(individual, length), length);
+        }
+    },
+
+    /**
+     * Exchanges two employees working the same shift type on two days, like
+     * the SwappingNursesMutation.
+     */
+    DAY_EXCHANGE {
+        @Override
+        public IMove getRandomMove(Individual individual) {
+            int day1 = getRandomDay(individual, 1);
+            int day2 = getRandomDay(individual, 1);
+            int employee1 = getRandomEmployee(individual, day1, true);
+            if (day1 == day2 || employee1 < 0 || individual.getShiftTypeIndex(day2, employee1) != DayRoster.FREE) {
+                return null;
+            }
+
+            int employee2 = getRandomEmployee(individual, day2, true);
+            if (employee2 < 0
+                    || individual.getShiftTypeIndex(day2, employee2) != individual.getShiftTypeIndex(day1, employee1)
+                    || individual.getShiftTypeIndex(day1, employee2) != DayRoster.FREE) {
+                return null;
+            }
+
+            return new DayExchangeMove(employee1, employee2, day1, day2);
+        }
+    };
+
+    /**
+     * Returns a random move of this neighbourhood.
+     * @param individual Individual instance
+     * @return IMove instance or null, if the randomly chosen employees and days don't result in a move
+     */
+    public abstract IMove getRandomMove(Individual individual);
+
+    /**
+     * Returns a random day, such that a block of days starting with it fits into the period.
+     * @param individual Individual instance
+     * @param length Number of days of the block
+     * @return Day number
+     */
+    private static int getRandomDay(Individual individual, int length) {
+        return RandomHelper.getInstance().getInt(individual.getNumberOfDays() - length + 1);
+    }
+
+    /**
+     * Returns a random employee working (or being free) on a day.
+     * @param individual Individual instance
+     * @param day Day number
+     * @param working True for a working employee, false for a free employee
+     * @return Employee index or -1, if there is no such employee
+     */
+    private static int getRandomEmployee(Individual individual, int day, boolean working) {
+        int numberOfEmployees = individual.getSchedulingPeriod().getEmployees().size();
+        int start = RandomHelper.getInstance().getInt(numberOfEmployees);
+
+        // search from a random employee on, thus each matching employee can be found
+        for (int i = 0; i < numberOfEmployees; i++) {
+            int employee = (start + i) % numberOfEmployees;
+            if ((individual.getShiftTypeIndex(day, employee) != DayRoster.FREE) == working) {
+                return employee;
+            }
+        }
+
+        return -1;
+    }
+}
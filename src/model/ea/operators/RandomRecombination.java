@@ -30,20 +30,20 @@ public class RandomRecombination implements IRecombination {
             Individual individual2 = parents.getPool().get(randomIndividual2);
 
             Individual newIndividual = Individual.copy(individual1);
-            newIndividual.resetRosters();
 
-            for (int day = 0; day < individual1.getDayRosters().size(); day++) {
-                DayRoster randomRoster = RandomHelper.getInstance().getBoolean()
-                        ? individual1.getDayRosters().get(day)
-                        : individual2.getDayRosters().get(day);
+            // the hard constraints only concern single days, thus children of feasible
+            // parents are feasible, otherwise recombine this child again
+            do {
+                newIndividual.resetRosters();
 
-                newIndividual.addDayRoster(randomRoster);
-            }
+                for (int day = 0; day < individual1.getDayRosters().size(); day++) {
+                    DayRoster randomRoster = RandomHelper.getInstance().getBoolean()
+                            ? individual1.getDayRosters().get(day)
+                            : individual2.getDayRosters().get(day);
 
-            // if solution is unfeasible, recombine again
-            if (!newIndividual.isFeasible()) {
-                return recombine(parents);
-            }
+                    newIndividual.addDayRoster(randomRoster);
+                }
+            } while (!newIndividual.isFeasible());
 
             newIndividual.getFitness(true);
 
@@ -0,0 +1,65 @@
+package model.ea.operators;
+
+import model.ea.Individual;
+import model.schedule.DayRoster;
+
+/**
+ * Assigns a shift type (or a free day) to an employee on a day, replacing the
+ * previous assignment. The cover of the day changes, thus this move is
+ * feasible only on an individual whose cover is not satisfied, e.g. to
+ * repair a partially destroyed roster.
+ */
+public class ReassignMove implements IMove {
+    /**
+     * Day number.
+     */
+    private final int day;
+
+    /**
+     * Employee index.
+     */
+    private final int employee;
+
+    /**
+     * Shift type index or DayRoster.FREE.
+     */
+    private final int shiftTypeIndex;
+
+    /**
+     * Shift type index before the move was applied.
+     */
+    private int previousShiftTypeIndex = DayRoster.FREE;
+
+    /**
+     * Creates a move assigning a shift type to an employee on a day.
+     * @param day Day number
+     * @param employee Employee index
+     * @param shiftTypeIndex Shift type index or DayRoster.FREE
+     */
+    public ReassignMove(int day, int employee, int shiftTypeIndex) {
+        this.day = day;
+        this.employee = employee;
+        this.shiftTypeIndex = shiftTypeIndex;
+    }
+
+    @Override
+    public boolean isFeasible(Individual individual) {
+        return individual.isAssignmentFeasible(day, employee, shiftTypeIndex);
+    }
+
+    @Override
+    public float getDelta(Individual individual) {
+        return individual.getAssignmentDelta(day, employee, shiftTypeIndex);
+    }
+
+    @Override
+    public float apply(Individual individual) {
+        previousShiftTypeIndex = individual.getShiftTypeIndex(day, employee);
+        return individual.assign(day, employee, shiftTypeIndex);
+    }
+
+    @Override
+    public void undo(Individual individual) {
+        individual.assign(day, employee, previousShiftTypeIndex);
+    }
+}
@@ -25,8 +25,8 @@ public class SingleDayRecombination implements IRecombination {
 		// select a random number between zero and the number of days in the schedule
 		int r = RandomHelper.getInstance().getInt(numberOfDays - 1);
 		
-		DayRoster drParent1 = parent1.getDayRosters().get(r); // save the day rosters of day r of both parents
-		DayRoster drParent2 = parent2.getDayRosters().get(r);
+		DayRoster drParent1 = DayRoster.copy(parent1.getDayRosters().get(r)); // save the day rosters of day r of both parents
+		DayRoster drParent2 = DayRoster.copy(parent2.getDayRosters().get(r));
 		
 		Individual child1 = parents.getPool().get(0); 		// create a new individual with the properties of parent1
 	    child1.getDayRosters().set(r, drParent2); 	// replace one property of this child with a property of parent2
@@ -0,0 +1,58 @@
+package model.ea.operators;
+
+import model.ea.Individual;
+
+/**
+ * Swaps the assignments of two employees on the given days. The planned
+ * employees per day and shift type are not changed by a swap, thus only the
+ * skills of the two employees can make it infeasible.
+ */
+public class SwapMove implements IMove {
+    /**
+     * Index of the first employee.
+     */
+    private final int employee1;
+
+    /**
+     * Index of the second employee.
+     */
+    private final int employee2;
+
+    /**
+     * Day numbers.
+     */
+    private final int[] days;
+
+    /**
+     * Creates a move swapping the assignments of two employees on the given days.
+     * @param employee1 Index of first employee
+     * @param employee2 Index of second employee
+     * @param days Day numbers
+     */
+    public SwapMove(int employee1, int employee2, int... days) {
+        this.employee1 = employee1;
+        this.employee2 = employee2;
+        this.days = days;
+    }
+
+    @Override
+    public boolean isFeasible(Individual individual) {
+        return individual.isSwapFeasible(employee1, employee2, days);
+    }
+
+    @Override
+    public float getDelta(Individual individual) {
+        return individual.getSwapDelta(employee1, employee2, days);
+    }
+
+    @Override
+    public float apply(Individual individual) {
+        return individual.swap(employee1, employee2, days);
+    }
+
+    @Override
+    public void undo(Individual individual) {
+        // a swap is its own inverse
+        individual.swap(employee1, employee2, days);
+    }
+}
@@ -1,19 +1,19 @@
 package model.ea.operators;
 
 import java.util.List;
-import java.util.Map;
 
 import helper.RandomHelper;
 import model.ea.Individual;
 import model.ea.Population;
+import model.schedule.DayRoster;
 import model.schedule.Employee;
 import model.schedule.ShiftType;
 
 @SuppressWarnings("unusued")
 public class SwappingNursesMutation implements IMutation {
 	/**
-	 * For every individual of the selection swap the first nurse of shift x on a random day
-	 * with the first nurse of shift x on another random day.
+	 * For every individual of the selection swap a nurse of shift x on a random day
+	 * with a nurse of shift x on another random day.
 	 * @param selection: either the new created children or, in the case without recombination, mutate the selected parents
 	 * @return selection: the by mutation changed selection
 	 */
@@ -26,32 +26,37 @@ public class SwappingNursesMutation implements IMutation {
 		int randDay2 = RandomHelper.getInstance().getInt(numberOfDays);
 
 		for (Individual individual : selection.getPool()) {
-            List<Map<ShiftType, Employee>> dayRoster1 = individual.getDayRosters().get(randDay1).getDayRoster();
-            List<Map<ShiftType, Employee>> dayRoster2 = individual.getDayRosters().get(randDay2).getDayRoster();
-
-            // get number of (maximum) shifts
-            int numberOfShifts = dayRoster1.size() <= dayRoster2.size()
-                    ? dayRoster1.size() : dayRoster2.size();
-
-			// random number between zero and the number of shifts in a day roster
-			int randShift = RandomHelper.getInstance().getInt(numberOfShifts);
+            DayRoster dayRoster1 = individual.getDayRosters().get(randDay1);
+            DayRoster dayRoster2 = individual.getDayRosters().get(randDay2);
 
             // the nurse of a random shift on a random day
-            Employee nurse1 = dayRoster1.get(randShift).entrySet().iterator().next().getValue();
-            // the nurse of the same shift on another random day
-            Employee nurse2 = dayRoster2.get(randShift).entrySet().iterator().next().getValue();
+            List<Employee> planned1 = dayRoster1.getPlannedEmployees();
+            if (planned1.isEmpty()) {
+                continue;
+            }
+            Employee nurse1 = planned1.get(RandomHelper.getInstance().getInt(planned1.size()));
+            ShiftType st = dayRoster1.getShiftTypeForEmployee(nurse1);
 
-            ShiftType st = individual.getDayRosters().get(randDay1).getShiftTypeForEmployee(nurse1);
+            // a nurse of the same shift on another random day
+            List<Employee> planned2 = dayRoster2.getEmployeesForShiftType(st);
+            if (planned2.isEmpty()) {
+                continue;
+            }
+            Employee nurse2 = planned2.get(RandomHelper.getInstance().getInt(planned2.size()));
 
-            // swap the nurses
-            dayRoster1.get(randShift).replace(st, nurse2);
-            dayRoster2.get(randShift).replace(st, nurse1);
+            // each nurse can only work once a day, skip if the nurses are already planned
+            if (dayRoster1.isEmployeePlanned(nurse2) || dayRoster2.isEmployeePlanned(nurse1)) {
+                continue;
+            }
 
-            // swap back if solution isn't feasible anymore
-            if (!individual.isFeasible()) {
-                dayRoster1.get(randShift).replace(st, nurse1);
-                dayRoster2.get(randShift).replace(st, nurse2);
+            // exchange the nurses between the days, skip if solution wouldn't be feasible anymore
+            IMove move = new DayExchangeMove(nurse1.getIndex(), nurse2.getIndex(), randDay1, randDay2);
+            if (!move.isFeasible(individual)) {
+                continue;
             }
+
+            // the fitness is updated for both nurses only
+            move.apply(individual);
 		}
 
 		return selection;
@@ -0,0 +1,60 @@
+package model.ea.operators;
+
+import helper.ConfigurationHelper;
+import model.ea.Individual;
+import model.ea.Population;
+
+/**
+ * Implements a variable neighbourhood descent: random moves of the current
+ * neighbourhood are evaluated by their fitness delta. An improving and feasible
+ * move is applied and the descent restarts with the first neighbourhood, if a
+ * neighbourhood brings no improvement within its share of moves, the next one
+ * is searched. The descent ends, if no neighbourhood improves the individual
+ * or the budget of the individual is spent.
+ */
+@SuppressWarnings("unused")
+public class VariableNeighbourhoodDescent implements ILocalSearch {
+    /**
+     * Number of evaluated moves per individual.
+     */
+    private int maxMoves = ConfigurationHelper.getInstance().getPropertyInteger("LocalSearchMoves", 200);
+
+    /**
+     * Maximum time per individual in milliseconds (0 for no limit).
+     */
+    private long maxTime = ConfigurationHelper.getInstance().getPropertyLong("LocalSearchTime", 0);
+
+    /**
+     * Number of moves without improvement, until the next neighbourhood is searched.
+     */
+    private int movesPerNeighbourhood = ConfigurationHelper.getInstance().getPropertyInteger("LocalSearchMovesPerNeighbourhood", 50);
+
+    @Override
+    public Population improve(Population individuals) {
+        Neighbourhood[] neighbourhoods = Neighbourhood.values();
+
+        for (Individual individual: individuals.getPool()) {
+            long deadline = System.nanoTime() + maxTime * 1000000;
+            int neighbourhood = 0;
+            int failures = 0;
+
+            for (int moves = 0; moves < maxMoves && neighbourhood < neighbourhoods.length; moves++) {
+                if (maxTime > 0 && System.nanoTime() > deadline) {
+                    break;
+                }
+
+                IMove move = neighbourhoods[neighbourhood].getRandomMove(individual);
+                if (move != null && move.getDelta(individual) < 0 && move.isFeasible(individual)) {
+                    move.apply(individual);
+                    neighbourhood = 0;
+                    failures = 0;
+                } else if (++failures >= movesPerNeighbourhood) {
+                    neighbourhood++;
+                    failures = 0;
+                }
+            }
+        }
+
+        return individuals;
+    }
+}
@@ -46,6 +46,14 @@ public class Attribute {
         }
     }
 
+    /**
+     * Returns the value.
+     * @return Value (Boolean or Integer).
+     */
+    Object getValue() {
+        return value;
+    }
+
     /**
      * Returns on value.
      * @return On value (if any).
@@ -0,0 +1,408 @@
+package model.schedule;
+
+import helper.DateTimeHelper;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.text.ParseException;
+import java.util.*;
+
+/**
+ * Compact binary format of a parsed scheduling period, e.g. for a cache of
+ * parsed instances. References between the models (shift types, patterns,
+ * contracts) are stored as indices or identifiers, requests and covers as
+ * dense runs of primitives. Reading needs no parsing of text besides the
+ * identifiers and descriptions, thus it is much faster than parsing XML.
+ * Dates and times are stored as text and parsed like the instance files,
+ * as their time values depend on the time zone of the JVM.
+ */
+public class BinaryPeriodFormat {
+    /**
+     * Singleton instance.
+     */
+    private final static BinaryPeriodFormat instance = new BinaryPeriodFormat();
+
+    /**
+     * Returns the singleton instance.
+     *
+     * @return Singleton instance
+     */
+    public static BinaryPeriodFormat getInstance() {
+        return BinaryPeriodFormat.instance;
+    }
+
+    /**
+     * Identifies the format ("EANP").
+     */
+    private static final int MAGIC = 0x45414E50;
+
+    /**
+     * Version of the format, increased with each change.
+     */
+    public static final int VERSION = 2;
+
+    /**
+     * Private constructor to avoid bypassing singleton.
+     */
+    private BinaryPeriodFormat() {}
+
+    /**
+     * Writes a scheduling period.
+     * @param period SchedulingPeriod instance
+     * @param output DataOutput instance
+     * @throws IOException Exception on IO error.
+     */
+    public void write(SchedulingPeriod period, DataOutput output) throws IOException {
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        writeString(output, period.getId());
+        writeDate(output, period.getStartDate());
+        writeDate(output, period.getEndDate());
+        writeSkills(output, period.getSkills());
+
+        output.writeInt(period.getShiftTypes().size());
+        for (ShiftType shiftType: period.getShiftTypes()) {
+            writeString(output, shiftType.getId());
+            writeTime(output, shiftType.getStartTime());
+            writeTime(output, shiftType.getEndTime());
+            writeString(output, shiftType.getDescription());
+            writeSkills(output, shiftType.getRequiredSkills());
+        }
+
+        output.writeInt(period.getPatterns().size());
+        for (Pattern pattern: period.getPatterns()) {
+            output.writeInt(pattern.getId());
+            output.writeInt(pattern.getWeight());
+            output.writeInt(pattern.getEntries().size());
+            for (PatternEntry entry: pattern.getEntries().values()) {
+                output.writeInt(entry.getId());
+                output.writeBoolean(entry.isShiftTypeAny());
+                output.writeBoolean(entry.isShiftTypeNone());
+                output.writeInt(entry.getShiftType() == null ? -1 : entry.getShiftType().getIndex());
+                output.writeBoolean(entry.isDayAny());
+                output.writeByte(entry.getDay() == null ? -1 : entry.getDay().ordinal());
+            }
+        }
+
+        output.writeInt(period.getContracts().size());
+        for (Contract contract: period.getContracts()) {
+            writeContract(output, contract);
+        }
+
+        output.writeInt(period.getEmployees().size());
+        for (Employee employee: period.getEmployees()) {
+            output.writeInt(employee.getId());
+            // the name is returned padded for output
+            writeString(output, employee.getName().trim());
+            output.writeInt(employee.getContract() == null ? -1 : employee.getContract().getId());
+            writeSkills(output, employee.getSkills());
+
+            output.writeInt(employee.getDayOffRequests().size());
+            for (DayOff dayOff: employee.getDayOffRequests()) {
+                output.writeInt(dayOff.getWeight());
+                writeDate(output, dayOff.getDate());
+            }
+            output.writeInt(employee.getShiftOffRequests().size());
+            for (ShiftOff shiftOff: employee.getShiftOffRequests()) {
+                output.writeInt(shiftOff.getWeight());
+                output.writeInt(shiftOff.getShiftType() == null ? -1 : shiftOff.getShiftType().getIndex());
+                writeDate(output, shiftOff.getDate());
+            }
+        }
+
+        // the covers are written in their (prioritized) order
+        output.writeInt(period.getDayCovers().size());
+        for (Cover cover: period.getDayCovers()) {
+            output.writeByte(cover.getDay().ordinal());
+            output.writeInt(cover.getCovers().size());
+            for (Map.Entry<ShiftType, Integer> entry: cover.getCovers().entrySet()) {
+                output.writeInt(entry.getKey().getIndex());
+                output.writeInt(entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Reads a scheduling period written by write(). The period is not compiled.
+     * @param buffer ByteBuffer instance, e.g. a mapped file
+     * @return SchedulingPeriod instance
+     * @throws IOException Exception on an unknown format.
+     */
+    public SchedulingPeriod read(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException("Unknown format of scheduling period.");
+        }
+
+        SchedulingPeriod period = new SchedulingPeriod();
+        period.setId(readString(buffer));
+        period.setStartDate(readDate(buffer));
+        period.setEndDate(readDate(buffer));
+        period.setSkills(readSkills(buffer));
+
+        for (int i = buffer.getInt(); i > 0; i--) {
+            ShiftType shiftType = new ShiftType();
+            shiftType.setId(readString(buffer));
+            shiftType.setStartTime(readTime(buffer));
+            shiftType.setEndTime(readTime(buffer));
+            shiftType.setDescription(readString(buffer));
+            shiftType.setRequiredSkills(readSkills(buffer));
+            period.addShiftType(shiftType);
+        }
+        List<ShiftType> shiftTypes = period.getShiftTypes();
+
+        for (int i = buffer.getInt(); i > 0; i--) {
+            Pattern pattern = new Pattern();
+            pattern.setId(buffer.getInt());
+            pattern.setWeight(buffer.getInt());
+            for (int j = buffer.getInt(); j > 0; j--) {
+                PatternEntry entry = new PatternEntry();
+                entry.setId(buffer.getInt());
+                entry.setShiftTypeAny(buffer.get() != 0);
+                entry.setShiftTypeNone(buffer.get() != 0);
+                int shiftType = buffer.getInt();
+                entry.setShiftType(shiftType < 0 ? null : shiftTypes.get(shiftType));
+                entry.setDayAny(buffer.get() != 0);
+                byte day = buffer.get();
+                entry.setDay(day < 0 ? null : Day.values()[day]);
+                pattern.addPatternEntry(entry);
+            }
+            period.addPattern(pattern);
+        }
+
+        List<Contract> contracts = new ArrayList<Contract>();
+        for (int i = buffer.getInt(); i > 0; i--) {
+            contracts.add(readContract(buffer, period));
+        }
+        period.setContracts(contracts);
+
+        for (int i = buffer.getInt(); i > 0; i--) {
+            Employee employee = new Employee();
+            employee.setId(buffer.getInt());
+            employee.setName(readString(buffer));
+            int contract = buffer.getInt();
+            employee.setContract(contract < 0 ? null : period.getContractById(contract));
+            employee.setSkills(readSkills(buffer));
+
+            for (int j = buffer.getInt(); j > 0; j--) {
+                DayOff dayOff = new DayOff();
+                dayOff.setWeight(buffer.getInt());
+                dayOff.setDate(readDate(buffer));
+                employee.addDayOffRequest(dayOff);
+            }
+            for (int j = buffer.getInt(); j > 0; j--) {
+                ShiftOff shiftOff = new ShiftOff();
+                shiftOff.setWeight(buffer.getInt());
+                int shiftType = buffer.getInt();
+                shiftOff.setShiftType(shiftType < 0 ? null : shiftTypes.get(shiftType));
+                shiftOff.setDate(readDate(buffer));
+                employee.addShiftOffRequest(shiftOff);
+            }
+            period.addEmployee(employee);
+        }
+
+        List<Cover> covers = new ArrayList<Cover>();
+        for (int i = buffer.getInt(); i > 0; i--) {
+            Cover cover = new Cover();
+            cover.setDay(Day.values()[buffer.get()]);
+            for (int j = buffer.getInt(); j > 0; j--) {
+                ShiftType shiftType = shiftTypes.get(buffer.getInt());
+                cover.addCover(shiftType, buffer.getInt());
+            }
+            covers.add(cover);
+        }
+        period.setDayCovers(covers);
+
+        return period;
+    }
+
+    /**
+     * Writes a contract.
+     * @param output DataOutput instance
+     * @param contract Contract instance
+     * @throws IOException Exception on IO error.
+     */
+    private void writeContract(DataOutput output, Contract contract) throws IOException {
+        output.writeInt(contract.getId());
+        writeString(output, contract.getDescription());
+
+        output.writeInt(contract.getWeekendDefinition().size());
+        for (Day day: contract.getWeekendDefinition()) {
+            output.writeByte(day.ordinal());
+        }
+
+        List<Attribute> attributes;
+        try {
+            attributes = contract.getAttributes();
+        } catch (IllegalAccessException e) {
+            throw new IOException(e.getMessage());
+        }
+        output.writeInt(attributes.size());
+        for (Attribute attribute: attributes) {
+            writeString(output, attribute.getName());
+            output.writeInt(attribute.getWeight() == null ? Integer.MIN_VALUE : attribute.getWeight());
+            output.writeInt(attribute.getOn() == null ? Integer.MIN_VALUE : attribute.getOn());
+            writeString(output, attribute.getValue() == null ? null : attribute.getValue().toString());
+        }
+
+        output.writeInt(contract.getUnwantedPatterns().size());
+        for (Pattern pattern: contract.getUnwantedPatterns()) {
+            output.writeInt(pattern.getId());
+        }
+    }
+
+    /**
+     * Reads a contract written by writeContract().
+     * @param buffer ByteBuffer instance
+     * @param period SchedulingPeriod instance holding the patterns
+     * @return Contract instance
+     * @throws IOException Exception on an unknown attribute.
+     */
+    private Contract readContract(ByteBuffer buffer, SchedulingPeriod period) throws IOException {
+        Contract contract = new Contract();
+        contract.setId(buffer.getInt());
+        contract.setDescription(readString(buffer));
+
+        List<Day> weekendDefinition = new ArrayList<Day>();
+        for (int i = buffer.getInt(); i > 0; i--) {
+            weekendDefinition.add(Day.values()[buffer.get()]);
+        }
+        contract.setWeekendDefinition(weekendDefinition);
+
+        for (int i = buffer.getInt(); i > 0; i--) {
+            Attribute attribute = new Attribute();
+            attribute.setName(readString(buffer));
+            int weight = buffer.getInt();
+            int on = buffer.getInt();
+            attribute.setWeight(weight == Integer.MIN_VALUE ? null : weight);
+            attribute.setOn(on == Integer.MIN_VALUE ? null : on);
+            String value = readString(buffer);
+            if (value != null) {
+                attribute.setValue(value);
+            }
+            try {
+                contract.setAttribute(attribute);
+            } catch (Exception e) {
+                throw new IOException("Unknown attribute " + attribute.getName());
+            }
+        }
+
+        List<Pattern> unwantedPatterns = new LinkedList<Pattern>();
+        for (int i = buffer.getInt(); i > 0; i--) {
+            unwantedPatterns.add(period.getPatternById(buffer.getInt()));
+        }
+        contract.setUnwantedPatterns(unwantedPatterns);
+
+        return contract;
+    }
+
+    /**
+     * Writes a list of skills.
+     * @param output DataOutput instance
+     * @param skills List of Skill instances
+     * @throws IOException Exception on IO error.
+     */
+    private void writeSkills(DataOutput output, List<Skill> skills) throws IOException {
+        output.writeInt(skills.size());
+        for (Skill skill: skills) {
+            output.writeByte(skill.ordinal());
+        }
+    }
+
+    /**
+     * Reads a list of skills written by writeSkills().
+     * @param buffer ByteBuffer instance
+     * @return List of Skill instances
+     */
+    private List<Skill> readSkills(ByteBuffer buffer) {
+        List<Skill> skills = new ArrayList<Skill>();
+        for (int i = buffer.getInt(); i > 0; i--) {
+            skills.add(Skill.values()[buffer.get()]);
+        }
+
+        return skills;
+    }
+
+    /**
+     * Writes a date in YYYY-MM-DD format.
+     * @param output DataOutput instance
+     * @param date Date instance
+     * @throws IOException Exception on IO error.
+     */
+    private void writeDate(DataOutput output, Date date) throws IOException {
+        writeString(output, DateTimeHelper.getInstance().getDateStringReversed(date, "-"));
+    }
+
+    /**
+     * Reads a date written by writeDate().
+     * @param buffer ByteBuffer instance
+     * @return Date instance
+     * @throws IOException Exception on an invalid date.
+     */
+    private Date readDate(ByteBuffer buffer) throws IOException {
+        try {
+            return DateTimeHelper.getInstance().parseDate(readString(buffer));
+        } catch (ParseException e) {
+            throw new IOException(e.getMessage());
+        }
+    }
+
+    /**
+     * Writes a time in HH:MM:SS format.
+     * @param output DataOutput instance
+     * @param time Date instance
+     * @throws IOException Exception on IO error.
+     */
+    private void writeTime(DataOutput output, Date time) throws IOException {
+        writeString(output, DateTimeHelper.getInstance().getTimeString(time));
+    }
+
+    /**
+     * Reads a time written by writeTime().
+     * @param buffer ByteBuffer instance
+     * @return Date instance
+     * @throws IOException Exception on an invalid time.
+     */
+    private Date readTime(ByteBuffer buffer) throws IOException {
+        try {
+            return DateTimeHelper.getInstance().parseTime(readString(buffer));
+        } catch (ParseException e) {
+            throw new IOException(e.getMessage());
+        }
+    }
+
+    /**
+     * Writes a string as length and UTF-8 bytes, null as length -1.
+     * @param output DataOutput instance
+     * @param value String or null
+     * @throws IOException Exception on IO error.
+     */
+    private void writeString(DataOutput output, String value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+            return;
+        }
+
+        byte[] bytes = value.getBytes("UTF-8");
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    /**
+     * Reads a string written by writeString().
+     * @param buffer ByteBuffer instance
+     * @return String or null
+     * @throws IOException Exception on an unsupported encoding.
+     */
+    private String readString(ByteBuffer buffer) throws IOException {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+
+        return new String(bytes, "UTF-8");
+    }
+}
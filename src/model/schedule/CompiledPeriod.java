@@ -0,0 +1,510 @@
+package model.schedule;
+
+import helper.DateTimeHelper;
+
+import java.util.*;
+
+/**
+ * Immutable, array-backed view of a scheduling period. Employees, shift types,
+ * skills, contracts and the days of the horizon are addressed by dense indices
+ * (0..n-1), so hot paths can work on integers only.
+ */
+public class CompiledPeriod {
+    /***
+     * Indices of the weighted contract attributes.
+     ***/
+
+    public static final int SINGLE_ASSIGNMENT_PER_DAY = 0;
+    public static final int MAX_NUM_ASSIGNMENTS = 1;
+    public static final int MIN_NUM_ASSIGNMENTS = 2;
+    public static final int MAX_CONSECUTIVE_WORKING_DAYS = 3;
+    public static final int MIN_CONSECUTIVE_WORKING_DAYS = 4;
+    public static final int MAX_CONSECUTIVE_FREE_DAYS = 5;
+    public static final int MIN_CONSECUTIVE_FREE_DAYS = 6;
+    public static final int MAX_CONSECUTIVE_WORKING_WEEKENDS = 7;
+    public static final int MIN_CONSECUTIVE_WORKING_WEEKENDS = 8;
+    public static final int MAX_WORKING_WEEKENDS_IN_FOUR_WEEKS = 9;
+    public static final int COMPLETE_WEEKENDS = 10;
+    public static final int IDENTICAL_SHIFT_TYPES_DURING_WEEKEND = 11;
+    public static final int NO_NIGHT_SHIFT_BEFORE_FREE_WEEKEND = 12;
+    public static final int ALTERNATIVE_SKILL_CATEGORY = 13;
+
+    /**
+     * Attribute names in the order of the attribute indices.
+     */
+    private static final String[] ATTRIBUTE_NAMES = {
+            "SingleAssignmentPerDay", "MaxNumAssignments", "MinNumAssignments",
+            "MaxConsecutiveWorkingDays", "MinConsecutiveWorkingDays",
+            "MaxConsecutiveFreeDays", "MinConsecutiveFreeDays",
+            "MaxConsecutiveWorkingWeekends", "MinConsecutiveWorkingWeekends",
+            "MaxWorkingWeekendsInFourWeeks", "CompleteWeekends",
+            "IdenticalShiftTypesDuringWeekend", "NoNightShiftBeforeFreeWeekend",
+            "AlternativeSkillCategory"
+    };
+
+    /**
+     * Number of weighted contract attributes.
+     */
+    public static final int NUMBER_OF_ATTRIBUTES = ATTRIBUTE_NAMES.length;
+
+    /**
+     * Source scheduling period.
+     */
+    private final SchedulingPeriod period;
+
+    /***
+     * Objects by index.
+     ***/
+
+    private final Employee[] employees;
+    private final ShiftType[] shiftTypes;
+    private final Contract[] contracts;
+    private final Skill[] skills = Skill.values();
+    private final Date[] dates;
+
+    /***
+     * Lookups by identifier.
+     ***/
+
+    private final Map<Integer, Employee> employeesById = new HashMap<Integer, Employee>();
+    private final Map<String, ShiftType> shiftTypesById = new HashMap<String, ShiftType>();
+    private final Map<Integer, Contract> contractsById = new HashMap<Integer, Contract>();
+    private final Map<Integer, Pattern> patternsById = new HashMap<Integer, Pattern>();
+
+    /**
+     * Contract index per employee index.
+     */
+    private final int[] employeeContract;
+
+    /**
+     * Skill bit mask (by Skill ordinal) per employee index.
+     */
+    private final int[] employeeSkills;
+
+    /**
+     * Required skill bit mask per shift type index.
+     */
+    private final int[] requiredSkills;
+
+    /**
+     * Day of week (Day ordinal) per day index.
+     */
+    private final int[] dayOfWeek;
+
+    /**
+     * True, if a day index is a weekend day per contract (contract x days).
+     */
+    private final boolean[] weekend;
+
+    /**
+     * Weekend days per contract as day mask (one bit per day, 64 days per word).
+     */
+    private final long[][] weekendMasks;
+
+    /**
+     * Weekend day indices per contract (ascending).
+     */
+    private final int[][] weekendDays;
+
+    /**
+     * Unwanted pattern automaton per contract.
+     */
+    private final PatternAutomaton[] patternAutomata;
+
+    /**
+     * True, if a shift type index is a night shift.
+     */
+    private final boolean[] night;
+
+    /**
+     * Preferred number of employees per day and shift type (days x shift types).
+     */
+    private final int[] covers;
+
+    /**
+     * Shift type indices in covering order (day head nurse shifts first) per day.
+     */
+    private final int[][] coverOrder;
+
+    /**
+     * Summed day-off request weights (employees x days).
+     */
+    private final int[] dayOffWeights;
+
+    /**
+     * Summed shift-off request weights (employees x days).
+     */
+    private final int[] shiftOffWeights;
+
+    /**
+     * Attribute values per contract (contracts x attributes), booleans as 0/1.
+     */
+    private final int[] attributeValues;
+
+    /**
+     * Attribute weights per contract (contracts x attributes).
+     */
+    private final int[] attributeWeights;
+
+    /**
+     * Compiles a scheduling period. The period must not be changed afterwards.
+     * @param period SchedulingPeriod instance
+     */
+    CompiledPeriod(SchedulingPeriod period) {
+        this.period = period;
+
+        employees = period.getEmployees().toArray(new Employee[period.getEmployees().size()]);
+        shiftTypes = period.getShiftTypes().toArray(new ShiftType[period.getShiftTypes().size()]);
+        contracts = period.getContracts().toArray(new Contract[period.getContracts().size()]);
+
+        int numberOfDays = DateTimeHelper.getInstance().getNumberOfDays(period);
+        dates = new Date[numberOfDays];
+        dayOfWeek = new int[numberOfDays];
+        for (int day = 0; day < numberOfDays; day++) {
+            dates[day] = period.getDate(day);
+            dayOfWeek[day] = DateTimeHelper.getInstance().getDayByDate(dates[day]).ordinal();
+        }
+
+        // identifier lookups
+        for (Employee employee: employees) {
+            employeesById.put(employee.getId(), employee);
+        }
+        for (ShiftType shiftType: shiftTypes) {
+            shiftTypesById.put(shiftType.getId(), shiftType);
+        }
+        for (Contract contract: contracts) {
+            contractsById.put(contract.getId(), contract);
+        }
+        for (Pattern pattern: period.getPatterns()) {
+            patternsById.put(pattern.getId(), pattern);
+        }
+
+        // contracts
+        Map<Contract, Integer> contractIndices = new HashMap<Contract, Integer>();
+        weekend = new boolean[contracts.length * numberOfDays];
+        weekendMasks = new long[contracts.length][(numberOfDays + 63) >>> 6];
+        weekendDays = new int[contracts.length][];
+        patternAutomata = new PatternAutomaton[contracts.length];
+        attributeValues = new int[contracts.length * NUMBER_OF_ATTRIBUTES];
+        attributeWeights = new int[contracts.length * NUMBER_OF_ATTRIBUTES];
+        for (int contract = 0; contract < contracts.length; contract++) {
+            contractIndices.put(contracts[contract], contract);
+            int numberOfWeekendDays = 0;
+            for (int day = 0; day < numberOfDays; day++) {
+                weekend[contract * numberOfDays + day] = contracts[contract].getWeekendDefinition()
+                        .contains(Day.values()[dayOfWeek[day]]);
+                if (weekend[contract * numberOfDays + day]) {
+                    weekendMasks[contract][day >>> 6] |= 1L << day;
+                    numberOfWeekendDays++;
+                }
+            }
+            patternAutomata[contract] = new PatternAutomaton(contracts[contract].getUnwantedPatterns(), shiftTypes.length);
+            weekendDays[contract] = new int[numberOfWeekendDays];
+            for (int day = 0, position = 0; day < numberOfDays; day++) {
+                if (weekend[contract * numberOfDays + day]) {
+                    weekendDays[contract][position++] = day;
+                }
+            }
+            for (int attribute = 0; attribute < NUMBER_OF_ATTRIBUTES; attribute++) {
+                Attribute value = getAttribute(contracts[contract], ATTRIBUTE_NAMES[attribute]);
+                if (value != null) {
+                    attributeValues[contract * NUMBER_OF_ATTRIBUTES + attribute] = value.getValueBoolean()
+                            ? 1 : value.getValueInt();
+                    attributeWeights[contract * NUMBER_OF_ATTRIBUTES + attribute] = value.getWeight() == null
+                            ? 0 : value.getWeight();
+                }
+            }
+        }
+
+        // employees
+        employeeContract = new int[employees.length];
+        employeeSkills = new int[employees.length];
+        dayOffWeights = new int[employees.length * numberOfDays];
+        shiftOffWeights = new int[employees.length * numberOfDays];
+        for (int employee = 0; employee < employees.length; employee++) {
+            Integer contract = contractIndices.get(employees[employee].getContract());
+            employeeContract[employee] = contract == null ? -1 : contract;
+            employeeSkills[employee] = getSkillMask(employees[employee].getSkills());
+
+            for (DayOff dayOff: employees[employee].getDayOffRequests()) {
+                int day = getDayIndex(dayOff.getDate());
+                if (day >= 0) {
+                    dayOffWeights[employee * numberOfDays + day] += dayOff.getWeight();
+                }
+            }
+            for (ShiftOff shiftOff: employees[employee].getShiftOffRequests()) {
+                int day = getDayIndex(shiftOff.getDate());
+                if (day >= 0) {
+                    shiftOffWeights[employee * numberOfDays + day] += shiftOff.getWeight();
+                }
+            }
+        }
+
+        // shift types
+        requiredSkills = new int[shiftTypes.length];
+        night = new boolean[shiftTypes.length];
+        for (int shiftType = 0; shiftType < shiftTypes.length; shiftType++) {
+            requiredSkills[shiftType] = getSkillMask(shiftTypes[shiftType].getRequiredSkills());
+            night[shiftType] = shiftTypes[shiftType].isNight();
+        }
+
+        // covers
+        covers = new int[numberOfDays * shiftTypes.length];
+        coverOrder = new int[numberOfDays][];
+        for (int day = 0; day < numberOfDays; day++) {
+            Map<ShiftType, Integer> dayCovers = period.getCoversByDate(dates[day]);
+            if (dayCovers == null) {
+                coverOrder[day] = new int[0];
+                continue;
+            }
+
+            coverOrder[day] = new int[dayCovers.size()];
+            int position = 0;
+            for (Map.Entry<ShiftType, Integer> cover: dayCovers.entrySet()) {
+                coverOrder[day][position++] = cover.getKey().getIndex();
+                covers[day * shiftTypes.length + cover.getKey().getIndex()] = cover.getValue();
+            }
+        }
+    }
+
+    /**
+     * Returns a contract attribute or null, if not available.
+     * @param contract Contract instance
+     * @param name Attribute name
+     * @return Attribute instance or null
+     */
+    private Attribute getAttribute(Contract contract, String name) {
+        try {
+            return contract.getAttribute(name);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns a bit mask (by Skill ordinal) for a list of skills.
+     * @param skillList List of Skill instances
+     * @return Skill bit mask
+     */
+    private int getSkillMask(List<Skill> skillList) {
+        int mask = 0;
+        for (Skill skill: skillList) {
+            mask |= 1 << skill.ordinal();
+        }
+
+        return mask;
+    }
+
+    /**
+     * Returns the day index of a date or -1, if the date is not within the period.
+     * @param date Date instance
+     * @return Day index or -1
+     */
+    public int getDayIndex(Date date) {
+        if (date == null) {
+            return -1;
+        }
+
+        // round to full days, as daylight saving time shifts the difference by an hour
+        long difference = date.getTime() - dates[0].getTime();
+        int day = (int) Math.round(difference / (24d * 60 * 60 * 1000));
+
+        return day >= 0 && day < dates.length ? day : -1;
+    }
+
+    /***
+     * Following getters are trivial and self explanatory, therefore not documented further.
+     ***/
+
+    public SchedulingPeriod getPeriod() {
+        return period;
+    }
+
+    public int getNumberOfDays() {
+        return dates.length;
+    }
+
+    public int getNumberOfEmployees() {
+        return employees.length;
+    }
+
+    public int getNumberOfShiftTypes() {
+        return shiftTypes.length;
+    }
+
+    public int getNumberOfContracts() {
+        return contracts.length;
+    }
+
+    public int getNumberOfSkills() {
+        return skills.length;
+    }
+
+    public Employee getEmployee(int index) {
+        return employees[index];
+    }
+
+    public ShiftType getShiftType(int index) {
+        return shiftTypes[index];
+    }
+
+    public Contract getContract(int index) {
+        return contracts[index];
+    }
+
+    public Skill getSkill(int index) {
+        return skills[index];
+    }
+
+    public Date getDate(int day) {
+        return dates[day];
+    }
+
+    public Employee getEmployeeById(int id) {
+        return employeesById.get(id);
+    }
+
+    public ShiftType getShiftTypeById(String id) {
+        return shiftTypesById.get(id);
+    }
+
+    public Contract getContractById(int id) {
+        return contractsById.get(id);
+    }
+
+    public Pattern getPatternById(int id) {
+        return patternsById.get(id);
+    }
+
+    public int getContractIndex(int employee) {
+        return employeeContract[employee];
+    }
+
+    public int getSkillMask(int employee) {
+        return employeeSkills[employee];
+    }
+
+    public int getRequiredSkillMask(int shiftType) {
+        return requiredSkills[shiftType];
+    }
+
+    public int getDayOfWeek(int day) {
+        return dayOfWeek[day];
+    }
+
+    public int[] getDaysOfWeek() {
+        return dayOfWeek;
+    }
+
+    public boolean isNight(int shiftType) {
+        return night[shiftType];
+    }
+
+    /**
+     * Returns true, if an employee has the required skills for a shift type.
+     * @param employee Employee index
+     * @param shiftType Shift type index
+     * @return True, if employee has a required skill
+     */
+    public boolean hasRequiredSkills(int employee, int shiftType) {
+        return (employeeSkills[employee] & requiredSkills[shiftType]) != 0;
+    }
+
+    /**
+     * Returns true, if a day is a weekend day as of the weekend definition of a contract.
+     * @param contract Contract index
+     * @param day Day index
+     * @return True, if weekend day
+     */
+    public boolean isWeekend(int contract, int day) {
+        return weekend[contract * dates.length + day];
+    }
+
+    /**
+     * Returns the automaton matching the unwanted patterns of a contract.
+     * @param contract Contract index
+     * @return PatternAutomaton instance
+     */
+    public PatternAutomaton getPatternAutomaton(int contract) {
+        return patternAutomata[contract];
+    }
+
+    /**
+     * Returns the weekend days of a contract as day mask (bit d % 64 of word
+     * d / 64 is set, if day d is a weekend day).
+     * @param contract Contract index
+     * @return Day mask
+     */
+    public long[] getWeekendMask(int contract) {
+        return weekendMasks[contract];
+    }
+
+    /**
+     * Returns the weekend day indices of a contract in ascending order.
+     * @param contract Contract index
+     * @return Day indices
+     */
+    public int[] getWeekendDays(int contract) {
+        return weekendDays[contract];
+    }
+
+    /**
+     * Returns the preferred number of employees for a shift type on a day.
+     * @param day Day index
+     * @param shiftType Shift type index
+     * @return Preferred number of employees (0, if not covered)
+     */
+    public int getCover(int day, int shiftType) {
+        return covers[day * shiftTypes.length + shiftType];
+    }
+
+    /**
+     * Returns the covered shift type indices of a day in covering order. The
+     * returned array must not be modified.
+     * @param day Day index
+     * @return Shift type indices
+     */
+    public int[] getCoverOrder(int day) {
+        return coverOrder[day];
+    }
+
+    /**
+     * Returns the summed day-off request weights of an employee on a day.
+     * @param employee Employee index
+     * @param day Day index
+     * @return Summed weights
+     */
+    public int getDayOffWeight(int employee, int day) {
+        return dayOffWeights[employee * dates.length + day];
+    }
+
+    /**
+     * Returns the summed shift-off request weights of an employee on a day.
+     * @param employee Employee index
+     * @param day Day index
+     * @return Summed weights
+     */
+    public int getShiftOffWeight(int employee, int day) {
+        return shiftOffWeights[employee * dates.length + day];
+    }
+
+    /**
+     * Returns the value of a weighted attribute of a contract (booleans as 0/1).
+     * @param contract Contract index
+     * @param attribute Attribute index
+     * @return Attribute value
+     */
+    public int getAttributeValue(int contract, int attribute) {
+        return attributeValues[contract * NUMBER_OF_ATTRIBUTES + attribute];
+    }
+
+    /**
+     * Returns the weight of a weighted attribute of a contract.
+     * @param contract Contract index
+     * @param attribute Attribute index
+     * @return Attribute weight
+     */
+    public int getAttributeWeight(int contract, int attribute) {
+        return attributeWeights[contract * NUMBER_OF_ATTRIBUTES + attribute];
+    }
+}
@@ -55,6 +55,21 @@ public class Contract {
         field.set(this, attribute);
     }
 
+    /**
+     * Returns all weighted attributes, which are set.
+     * @return List of Attribute instances.
+     */
+    List<Attribute> getAttributes() throws IllegalAccessException {
+        List<Attribute> attributes = new ArrayList<Attribute>();
+        for (Field field: getClass().getDeclaredFields()) {
+            if (field.getType() == Attribute.class && field.get(this) != null) {
+                attributes.add((Attribute) field.get(this));
+            }
+        }
+
+        return attributes;
+    }
+
     /***
      * Following getters and setters are trivial and self explanatory, therefore not documented further.
      ***/
@@ -6,45 +6,117 @@ import java.util.*;
 
 /**
  * Represents a roster for a day.
+ *
+ * The roster information is stored as one row of a compact genome, i.e. a
+ * byte per employee (by employee index) holding the index of the assigned
+ * shift type or FREE. A DayRoster is either standalone (owning its row) or
+ * a view onto a row of an individual's genome.
  */
 public class DayRoster {
     /**
-     * Roster information containing an employee for each shift type.
+     * Genome value for an employee without assignment on this day.
      */
-    private List<Map<ShiftType, Employee>> roster = new ArrayList<Map<ShiftType, Employee>>();
+    public static final byte FREE = -1;
+
+    /**
+     * The scheduling period, used to map indices to employees and shift types.
+     */
+    private SchedulingPeriod period;
+
+    /**
+     * Genome holding the roster information (shift type index per employee index).
+     */
+    private byte[] genome;
+
+    /**
+     * Offset of this day's row in the genome.
+     */
+    private int offset;
 
     /**
      * The date of this roster.
      */
     private Date date;
 
+    /**
+     * The day of this roster (cached, derived from date).
+     */
+    private Day day = null;
+
+    /**
+     * Listener notified about changed assignments of a view (may be null).
+     */
+    private AssignmentListener listener = null;
+
+    /**
+     * Creates a standalone, empty day roster.
+     * @param period SchedulingPeriod instance
+     */
+    public DayRoster(SchedulingPeriod period) {
+        this.period = period;
+        this.genome = new byte[period.getEmployees().size()];
+        Arrays.fill(this.genome, FREE);
+    }
+
+    /**
+     * Creates a day roster as a view onto a row of a genome.
+     * @param period SchedulingPeriod instance
+     * @param genome Genome (days x employees)
+     * @param offset Offset of the row in the genome
+     * @param date Date of the row
+     */
+    public DayRoster(SchedulingPeriod period, byte[] genome, int offset, Date date) {
+        this.period = period;
+        this.genome = genome;
+        this.offset = offset;
+        this.date = date;
+    }
+
+    /**
+     * Creates a day roster as a view onto a row of a genome, which notifies a
+     * listener about changed assignments.
+     * @param period SchedulingPeriod instance
+     * @param genome Genome (days x employees)
+     * @param offset Offset of the row in the genome
+     * @param date Date of the row
+     * @param listener AssignmentListener instance
+     */
+    public DayRoster(SchedulingPeriod period, byte[] genome, int offset, Date date, AssignmentListener listener) {
+        this(period, genome, offset, date);
+        this.listener = listener;
+    }
+
     /**
      * Returns a deep copy of this instance.
      * @return DayRoster deep copy instance
      */
     public static DayRoster copy(DayRoster dayRoster) {
-        DayRoster copyInstance = new DayRoster();
+        DayRoster copyInstance = new DayRoster(dayRoster.period);
         copyInstance.setDate(DateTimeHelper.getInstance().getDateCopy(dayRoster.date));
 
-        // deep copy roster information
-        List<Map<ShiftType, Employee>> copyRoster = new ArrayList<Map<ShiftType, Employee>>();
-
-        for (Map<ShiftType, Employee> map: dayRoster.roster) {
-            for (Map.Entry<ShiftType, Employee> entry: map.entrySet()) {
-                // We can use the given references for shift types and employees
-                // here, thus we don't need to deep copy them.
-                ShiftType shiftType = entry.getKey();
-                Employee employee = entry.getValue();
-                Map<ShiftType, Employee> copyMap = new HashMap<ShiftType, Employee>();
-                copyMap.put(shiftType, employee);
-                copyRoster.add(copyMap);
-            }
-        }
-        copyInstance.roster = copyRoster;
+        // copy the row, employees and shift types are referenced by index
+        dayRoster.copyRowTo(copyInstance.genome, 0);
 
         return copyInstance;
     }
 
+    /**
+     * Copies the roster row of this day into a genome.
+     * @param target Target genome
+     * @param targetOffset Offset of the target row
+     */
+    public void copyRowTo(byte[] target, int targetOffset) {
+        System.arraycopy(genome, offset, target, targetOffset, getNumberOfEmployees());
+    }
+
+    /**
+     * Returns the number of employees (the row length).
+     * @return Number of employees
+     */
+    private int getNumberOfEmployees() {
+        return period.getEmployees().size();
+    }
+
     /**
      * Returns the date.
      * @return Date instance
@@ -58,7 +130,11 @@ public class DayRoster {
      * @return Day instance
      */
     public Day getDay() {
-        return DateTimeHelper.getInstance().getDayByDate(date);
+        if (day == null) {
+            day = DateTimeHelper.getInstance().getDayByDate(date);
+        }
+
+        return day;
     }
 
     /**
@@ -67,6 +143,7 @@ public class DayRoster {
      */
     public void setDate(Date date) {
         this.date = date;
+        this.day = null;
     }
 
     /**
@@ -75,23 +152,28 @@ public class DayRoster {
      * @return True, if employee is already planned
      */
     public boolean isEmployeePlanned(Employee employee) {
-        for (Map<ShiftType, Employee> map: roster) {
-            for (Employee employee1: map.values()) {
-                if (employee1.equals(employee)) {
-                    return true;
-                }
-            }
-        }
-
-        return false;
+        return genome[offset + employee.getIndex()] != FREE;
     }
 
     /**
-     * Returns the roster information for this day.
+     * Returns the roster information for this day. The list is built from the
+     * genome row (ordered by shift type and employee) and is read-only.
      * @return Roster information
      */
     public List<Map<ShiftType, Employee>> getDayRoster() {
-        return roster;
+        List<Map<ShiftType, Employee>> roster = new ArrayList<Map<ShiftType, Employee>>();
+        List<Employee> employees = period.getEmployees();
+        List<ShiftType> shiftTypes = period.getShiftTypes();
+
+        for (int shiftTypeIndex = 0; shiftTypeIndex < shiftTypes.size(); shiftTypeIndex++) {
+            for (int employeeIndex = 0; employeeIndex < employees.size(); employeeIndex++) {
+                if (genome[offset + employeeIndex] == shiftTypeIndex) {
+                    roster.add(Collections.singletonMap(shiftTypes.get(shiftTypeIndex), employees.get(employeeIndex)));
+                }
+            }
+        }
+
+        return Collections.unmodifiableList(roster);
     }
 
     /**
@@ -100,15 +182,14 @@ public class DayRoster {
      * @return True, if shift is assigned to appropriate nurse
      */
     public boolean isDemandedShiftAssignedToNurse() {
-        for (Map<ShiftType, Employee> map: roster) {
-            for (Map.Entry<ShiftType, Employee> entry: map.entrySet()) {
-                ShiftType shiftType = entry.getKey();
-                Employee employee = entry.getValue();
+        CompiledPeriod compiled = period.getCompiled();
 
-                // If the nurse doesn't have the required skill, the demand is unsatisfied.
-                if (!employee.hasRequiredSkillsForShiftType(shiftType)) {
-                    return false;
-                }
+        for (int employeeIndex = 0; employeeIndex < compiled.getNumberOfEmployees(); employeeIndex++) {
+            int shiftTypeIndex = genome[offset + employeeIndex];
+
+            // If the nurse doesn't have the required skill, the demand is unsatisfied.
+            if (shiftTypeIndex != FREE && !compiled.hasRequiredSkills(employeeIndex, shiftTypeIndex)) {
+                return false;
             }
         }
 
@@ -116,14 +197,21 @@ public class DayRoster {
     }
 
     /**
-     * Adds a roster information.
+     * Adds a roster information. An employee can only be assigned once per day,
+     * thus a previous assignment of the employee is replaced.
      * @param shiftType ShiftType instance
      * @param employee Employee instance
      */
     public void addToDayRoster(ShiftType shiftType, Employee employee) {
-        Map<ShiftType, Employee> map = new HashMap<ShiftType, Employee>();
-        map.put(shiftType, employee);
-        roster.add(map);
+        setShiftTypeIndex(employee.getIndex(), shiftType.getIndex());
+    }
+
+    /**
+     * Removes the assignment of an employee for this day (if any).
+     * @param employee Employee instance
+     */
+    public void removeFromDayRoster(Employee employee) {
+        setShiftTypeIndex(employee.getIndex(), FREE);
     }
 
     /**
@@ -132,27 +220,76 @@ public class DayRoster {
      * @return ShiftType instance for employee or null
      */
     public ShiftType getShiftTypeForEmployee(Employee employee) {
-        for (Map<ShiftType, Employee> map: roster) {
-            for (Map.Entry<ShiftType, Employee> entry : map.entrySet()) {
-                ShiftType shiftType = entry.getKey();
-                Employee employee1 = entry.getValue();
+        int shiftTypeIndex = genome[offset + employee.getIndex()];
 
-                if (employee1.equals(employee)) {
-                    return shiftType;
-                }
+        return shiftTypeIndex == FREE ? null : period.getShiftTypes().get(shiftTypeIndex);
+    }
+
+    /**
+     * Returns the shift type index of an employee for this day or FREE.
+     * @param employeeIndex Employee index
+     * @return Shift type index or FREE
+     */
+    public int getShiftTypeIndex(int employeeIndex) {
+        return genome[offset + employeeIndex];
+    }
+
+    /**
+     * Sets the shift type index of an employee for this day.
+     * @param employeeIndex Employee index
+     * @param shiftTypeIndex Shift type index or FREE
+     */
+    public void setShiftTypeIndex(int employeeIndex, int shiftTypeIndex) {
+        int previousShiftTypeIndex = genome[offset + employeeIndex];
+        genome[offset + employeeIndex] = (byte) shiftTypeIndex;
+
+        if (listener != null) {
+            listener.assigned(employeeIndex, previousShiftTypeIndex, shiftTypeIndex);
+        }
+    }
+
+    /**
+     * Returns all employees planned on this day.
+     * @return List of Employee instances
+     */
+    public List<Employee> getPlannedEmployees() {
+        List<Employee> planned = new ArrayList<Employee>();
+        List<Employee> employees = period.getEmployees();
+
+        for (int employeeIndex = 0; employeeIndex < employees.size(); employeeIndex++) {
+            if (genome[offset + employeeIndex] != FREE) {
+                planned.add(employees.get(employeeIndex));
             }
         }
 
-        return null;
+        return planned;
+    }
+
+    /**
+     * Returns all employees assigned to a shift type on this day.
+     * @param shiftType ShiftType instance
+     * @return List of Employee instances
+     */
+    public List<Employee> getEmployeesForShiftType(ShiftType shiftType) {
+        List<Employee> assigned = new ArrayList<Employee>();
+        List<Employee> employees = period.getEmployees();
+
+        for (int employeeIndex = 0; employeeIndex < employees.size(); employeeIndex++) {
+            if (genome[offset + employeeIndex] == shiftType.getIndex()) {
+                assigned.add(employees.get(employeeIndex));
+            }
+        }
+
+        return assigned;
     }
 
     @Override
     public String toString() {
         List<String> out = new ArrayList<String>();
         out.add(DateTimeHelper.getInstance().getDateString(date) + ", "
-            + String.format("%9s", DateTimeHelper.getInstance().getDayByDate(date)));
+            + String.format("%9s", getDay()));
 
-        for (Map<ShiftType, Employee> map: roster) {
+        for (Map<ShiftType, Employee> map: getDayRoster()) {
             for (Map.Entry<ShiftType, Employee> entry: map.entrySet()) {
                 ShiftType shiftType = entry.getKey();
                 Employee employee = entry.getValue();
@@ -164,4 +301,17 @@ public class DayRoster {
 
         return out.toString();
     }
+
+    /**
+     * Listener for changed assignments of a day roster.
+     */
+    public interface AssignmentListener {
+        /**
+         * Called after the assignment of an employee changed.
+         * @param employeeIndex Employee index
+         * @param previousShiftTypeIndex Previous shift type index or FREE
+         * @param shiftTypeIndex New shift type index or FREE
+         */
+        void assigned(int employeeIndex, int previousShiftTypeIndex, int shiftTypeIndex);
+    }
 }
@@ -12,6 +12,11 @@ public class Employee {
      */
     private int id;
 
+    /**
+     * Dense index (0..n-1) within the scheduling period, used to address genomes.
+     */
+    private int index;
+
     /**
      * Name.
      */
@@ -65,6 +70,14 @@ public class Employee {
         this.id = id;
     }
 
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
     public String getName() {
         return String.format("%2s", name);
     }
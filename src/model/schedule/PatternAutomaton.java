@@ -0,0 +1,247 @@
+package model.schedule;
+
+import java.util.*;
+
+/**
+ * Deterministic automaton matching a set of unwanted patterns (e.g. all
+ * unwanted patterns of a contract) in a single pass over the days of an
+ * employee.
+ *
+ * The input symbol of a day combines the day of week and the shift type of the
+ * employee on that day (or free). A pattern entry matches a symbol, if its day
+ * is "Any" or the day of week, and its shift type is "Any" and the employee
+ * works, "None" and the employee is free, or the shift type of the employee.
+ * Occurrences may start at every day and may overlap, thus the automaton is
+ * built by subset construction of all partial matches (like Aho-Corasick for
+ * symbol classes instead of single symbols).
+ */
+public class PatternAutomaton {
+    /**
+     * Start state.
+     */
+    public static final int START = 0;
+
+    /**
+     * Number of shift type values (shift types and free).
+     */
+    private final int numberOfShiftValues;
+
+    /**
+     * Number of input symbols.
+     */
+    private final int numberOfSymbols;
+
+    /**
+     * Transition table (states x symbols).
+     */
+    private final int[] transitions;
+
+    /**
+     * Indices of the patterns completely matched when entering a state.
+     */
+    private final int[][] outputs;
+
+    /**
+     * Weight of each pattern.
+     */
+    private final int[] weights;
+
+    /**
+     * Compiles a list of patterns.
+     * @param patterns List of Pattern instances
+     * @param numberOfShiftTypes Number of shift types
+     */
+    public PatternAutomaton(List<Pattern> patterns, int numberOfShiftTypes) {
+        numberOfShiftValues = numberOfShiftTypes + 1;
+        numberOfSymbols = Day.values().length * numberOfShiftValues;
+
+        // flatten the pattern entries: items are the partial matches (pattern, matched entries)
+        weights = new int[patterns.size()];
+        int[] firstItem = new int[patterns.size() + 1];
+        List<PatternEntry> entries = new ArrayList<PatternEntry>();
+        for (int pattern = 0; pattern < patterns.size(); pattern++) {
+            weights[pattern] = patterns.get(pattern).getWeight();
+            firstItem[pattern] = entries.size();
+            entries.addAll(patterns.get(pattern).getEntries().values());
+        }
+        firstItem[patterns.size()] = entries.size();
+
+        // entry (item) x symbol matches
+        boolean[][] matches = new boolean[entries.size()][numberOfSymbols];
+        for (int item = 0; item < entries.size(); item++) {
+            for (int symbol = 0; symbol < numberOfSymbols; symbol++) {
+                matches[item][symbol] = isMatching(entries.get(item), symbol);
+            }
+        }
+
+        // subset construction, a state is the set of items waiting for their entry
+        List<BitSet> states = new ArrayList<BitSet>();
+        Map<BitSet, Integer> stateIndices = new HashMap<BitSet, Integer>();
+        List<int[]> stateTransitions = new ArrayList<int[]>();
+        List<int[]> stateOutputs = new ArrayList<int[]>();
+        states.add(new BitSet());
+        stateIndices.put(states.get(START), START);
+        stateOutputs.add(new int[0]);
+
+        for (int state = 0; state < states.size(); state++) {
+            // every day may start a new occurrence of each pattern
+            BitSet active = (BitSet) states.get(state).clone();
+            for (int pattern = 0; pattern < patterns.size(); pattern++) {
+                if (firstItem[pattern] < firstItem[pattern + 1]) {
+                    active.set(firstItem[pattern]);
+                }
+            }
+
+            int[] next = new int[numberOfSymbols];
+            for (int symbol = 0; symbol < numberOfSymbols; symbol++) {
+                BitSet target = new BitSet();
+                List<Integer> completed = new ArrayList<Integer>();
+                for (int pattern = 0; pattern < patterns.size(); pattern++) {
+                    for (int item = firstItem[pattern]; item < firstItem[pattern + 1]; item++) {
+                        if (active.get(item) && matches[item][symbol]) {
+                            if (item + 1 == firstItem[pattern + 1]) {
+                                // last entry matched, the pattern occurred
+                                if (!completed.contains(pattern)) {
+                                    completed.add(pattern);
+                                }
+                            } else {
+                                target.set(item + 1);
+                            }
+                        }
+                    }
+                }
+
+                // states are distinguished by their items and their outputs
+                BitSet key = (BitSet) target.clone();
+                for (int pattern: completed) {
+                    key.set(entries.size() + pattern);
+                }
+                Integer index = stateIndices.get(key);
+                if (index == null) {
+                    index = states.size();
+                    states.add(target);
+                    stateIndices.put(key, index);
+                    int[] output = new int[completed.size()];
+                    for (int i = 0; i < output.length; i++) {
+                        output[i] = completed.get(i);
+                    }
+                    stateOutputs.add(output);
+                }
+                next[symbol] = index;
+            }
+            stateTransitions.add(next);
+        }
+
+        transitions = new int[states.size() * numberOfSymbols];
+        for (int state = 0; state < states.size(); state++) {
+            System.arraycopy(stateTransitions.get(state), 0, transitions, state * numberOfSymbols, numberOfSymbols);
+        }
+        outputs = stateOutputs.toArray(new int[stateOutputs.size()][]);
+    }
+
+    /**
+     * Returns true, if a pattern entry matches an input symbol.
+     * @param entry PatternEntry instance
+     * @param symbol Input symbol
+     * @return True, if matching
+     */
+    private boolean isMatching(PatternEntry entry, int symbol) {
+        int dayOfWeek = symbol / numberOfShiftValues;
+        int shiftType = symbol % numberOfShiftValues - 1;
+
+        if (!entry.isDayAny() && (entry.getDay() == null || entry.getDay().ordinal() != dayOfWeek)) {
+            return false;
+        }
+        if (entry.isShiftTypeNone()) {
+            return shiftType == DayRoster.FREE;
+        }
+        if (entry.isShiftTypeAny()) {
+            return shiftType != DayRoster.FREE;
+        }
+
+        return entry.getShiftType() != null && entry.getShiftType().getIndex() == shiftType;
+    }
+
+    /**
+     * Returns the input symbol of a day.
+     * @param dayOfWeek Day of week (Day ordinal)
+     * @param shiftType Shift type index or DayRoster.FREE
+     * @return Input symbol
+     */
+    public int getSymbol(int dayOfWeek, int shiftType) {
+        return dayOfWeek * numberOfShiftValues + shiftType + 1;
+    }
+
+    /**
+     * Returns the state following a state for an input symbol.
+     * @param state Current state
+     * @param symbol Input symbol
+     * @return Next state
+     */
+    public int next(int state, int symbol) {
+        return transitions[state * numberOfSymbols + symbol];
+    }
+
+    /**
+     * Returns the number of states.
+     * @return Number of states
+     */
+    public int getNumberOfStates() {
+        return outputs.length;
+    }
+
+    /**
+     * Returns the number of patterns.
+     * @return Number of patterns
+     */
+    public int getNumberOfPatterns() {
+        return weights.length;
+    }
+
+    /**
+     * Returns the indices of the patterns which occurred when entering a state.
+     * @param state State
+     * @return Pattern indices
+     */
+    public int[] getOutputs(int state) {
+        return outputs[state];
+    }
+
+    /**
+     * Returns the weight of a pattern.
+     * @param pattern Pattern index
+     * @return Weight
+     */
+    public int getWeight(int pattern) {
+        return weights[pattern];
+    }
+
+    /**
+     * Returns the deviation of an employee, i.e. the sum of the weights of all
+     * patterns occurring at least once.
+     * @param genome Genome (days x employees)
+     * @param numberOfEmployees Number of employees (row length)
+     * @param employee Employee index
+     * @param daysOfWeek Day of week (Day ordinal) of each day
+     * @param numberOfDays Number of days
+     * @return Deviation
+     */
+    public int getDeviation(byte[] genome, int numberOfEmployees, int employee, int[] daysOfWeek, int numberOfDays) {
+        long[] occurred = new long[(weights.length + 63) >>> 6];
+        int deviation = 0;
+        int state = START;
+
+        for (int day = 0, offset = employee; day < numberOfDays; day++, offset += numberOfEmployees) {
+            state = transitions[state * numberOfSymbols + getSymbol(daysOfWeek[day], genome[offset])];
+            for (int pattern: outputs[state]) {
+                // each pattern causes its deviation only once
+                if ((occurred[pattern >>> 6] & (1L << pattern)) == 0) {
+                    occurred[pattern >>> 6] |= 1L << pattern;
+                    deviation += weights[pattern];
+                }
+            }
+        }
+
+        return deviation;
+    }
+}
@@ -58,6 +58,16 @@ public class SchedulingPeriod {
      */
     private Map<Integer, Pattern> patterns = new LinkedHashMap<Integer, Pattern>();
 
+    /**
+     * Dates of each day of the period (built on first access).
+     */
+    private Date[] dates = null;
+
+    /**
+     * Compiled view of this period (null, if not compiled or changed since).
+     */
+    private CompiledPeriod compiled = null;
+
     /**
      * Sets the source file path.
      * @param path Source file path.
@@ -72,6 +82,10 @@ public class SchedulingPeriod {
      * @return Contract instance or null.
      */
     public Contract getContractById(int id) {
+        if (compiled != null) {
+            return compiled.getContractById(id);
+        }
+
         for (Contract contract: contracts) {
             if (contract.getId() == id) {
                 return contract;
@@ -87,6 +101,10 @@ public class SchedulingPeriod {
      * @return ShiftType instance or null.
      */
     public ShiftType getShiftTypeById(String id) {
+        if (compiled != null) {
+            return compiled.getShiftTypeById(id);
+        }
+
         for (ShiftType shift: shiftTypes) {
             if (shift.getId().equals(id)) {
                 return shift;
@@ -111,6 +129,10 @@ public class SchedulingPeriod {
      * @return Employee instance or null.
      */
     public Employee getEmployeeById(int id) {
+        if (compiled != null) {
+            return compiled.getEmployeeById(id);
+        }
+
         for (Employee employee: employees) {
             if (employee.getId() == id) {
                 return employee;
@@ -125,7 +147,9 @@ public class SchedulingPeriod {
      * @param employee Employee instance.
      */
     public void addEmployee(Employee employee) {
+        employee.setIndex(employees.size());
         employees.add(employee);
+        compiled = null;
     }
 
     /**
@@ -133,7 +157,9 @@ public class SchedulingPeriod {
      * @param shiftType ShiftType instance.
      */
     public void addShiftType(ShiftType shiftType) {
+        shiftType.setIndex(shiftTypes.size());
         shiftTypes.add(shiftType);
+        compiled = null;
     }
 
     /**
@@ -160,6 +186,50 @@ public class SchedulingPeriod {
         return getCoversByDay(DateTimeHelper.getInstance().getDayByDate(date));
     }
 
+    /**
+     * Compiles this period into an array-backed view with dense indices. Must be
+     * called after the period is completely loaded (done by the parsers).
+     * @return CompiledPeriod instance
+     */
+    public CompiledPeriod compile() {
+        compiled = new CompiledPeriod(this);
+        return compiled;
+    }
+
+    /**
+     * Returns the compiled view of this period, compiles it if necessary.
+     * @return CompiledPeriod instance
+     */
+    public CompiledPeriod getCompiled() {
+        CompiledPeriod current = compiled;
+        return current != null ? current : compile();
+    }
+
+    /**
+     * Returns all patterns.
+     * @return Collection of Pattern instances
+     */
+    public Collection<Pattern> getPatterns() {
+        return patterns.values();
+    }
+
+    /**
+     * Returns the date of a day of this period.
+     * @param dayNumber Number of the day from the start date
+     * @return Date instance
+     */
+    public Date getDate(int dayNumber) {
+        if (dates == null) {
+            Date[] periodDates = new Date[DateTimeHelper.getInstance().getNumberOfDays(this)];
+            for (int i = 0; i < periodDates.length; i++) {
+                periodDates[i] = DateTimeHelper.getInstance().getDateByNumber(this, i);
+            }
+            dates = periodDates;
+        }
+
+        return dates[dayNumber];
+    }
+
     /***
      * Following getters and setters are trivial and self explanatory, therefore not documented further.
      ***/
@@ -178,6 +248,8 @@ public class SchedulingPeriod {
 
     public void setStartDate(Date startDate) {
         this.startDate = startDate;
+        this.dates = null;
+        this.compiled = null;
     }
 
     public Date getEndDate() {
@@ -186,6 +258,8 @@ public class SchedulingPeriod {
 
     public void setEndDate(Date endDate) {
         this.endDate = endDate;
+        this.dates = null;
+        this.compiled = null;
     }
 
     public List<Skill> getSkills() {
@@ -202,6 +276,7 @@ public class SchedulingPeriod {
 
     public void setContracts(List<Contract> contracts) {
         this.contracts = contracts;
+        this.compiled = null;
     }
 
     public List<Employee> getEmployees() {
@@ -210,6 +285,14 @@ public class SchedulingPeriod {
 
     public void setEmployees(List<Employee> employees) {
         this.employees = employees;
+        this.compiled = null;
+        for (int i = 0; i < employees.size(); i++) {
+            employees.get(i).setIndex(i);
+        }
+    }
+
+    public List<ShiftType> getShiftTypes() {
+        return shiftTypes;
     }
 
     /**
@@ -222,6 +305,7 @@ public class SchedulingPeriod {
 
     public void setDayCovers(List<Cover> dayCovers) {
         this.dayCovers = dayCovers;
+        this.compiled = null;
     }
 
     /**
@@ -230,6 +314,7 @@ public class SchedulingPeriod {
      */
     public void addPattern(Pattern pattern) {
         patterns.put(pattern.getId(), pattern);
+        compiled = null;
     }
 
     /**
@@ -238,6 +323,10 @@ public class SchedulingPeriod {
      * @return Pattern instance by given patternId if available, otherwise null
      */
     public Pattern getPatternById(int patternId) {
+        if (compiled != null) {
+            return compiled.getPatternById(patternId);
+        }
+
         for (Map.Entry<Integer, Pattern> entry: patterns.entrySet()) {
             if (entry.getKey() == patternId) {
                 return entry.getValue();
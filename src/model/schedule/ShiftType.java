@@ -15,6 +15,11 @@ public class ShiftType {
      */
     private String id;
 
+    /**
+     * Dense index (0..n-1) within the scheduling period, used to address genomes.
+     */
+    private int index;
+
     /**
      * Start time.
      */
@@ -96,10 +101,26 @@ public class ShiftType {
         this.id = id;
     }
 
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Date getStartTime() {
+        return startTime;
+    }
+
     public void setStartTime(Date startTime) {
         this.startTime = startTime;
     }
 
+    public Date getEndTime() {
+        return endTime;
+    }
+
     public void setEndTime(Date endTime) {
         this.endTime = endTime;
     }
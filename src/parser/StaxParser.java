@@ -0,0 +1,459 @@
+package parser;
+
+import helper.ArrayHelper;
+import helper.ConfigurationHelper;
+import helper.DateTimeHelper;
+import model.schedule.*;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Class to parse an XML scheduling instance in a single pass with a streaming
+ * (StAX) reader. No document tree is built, each element is read once and
+ * stored in the scheduling period directly. The result is the same as the one
+ * of the XmlParser, without depending on XOM.
+ */
+@SuppressWarnings("unused")
+public class StaxParser implements IParser {
+    /**
+     * Factory for the stream readers.
+     */
+    private static final XMLInputFactory factory = XMLInputFactory.newInstance();
+
+    /**
+     * Names of the weighted contract attributes.
+     */
+    private String[] weightedAttributes = ConfigurationHelper.getInstance().getPropertyArray("WeightedAttributes");
+
+    /**
+     * Moves the reader to the next child element of the current element.
+     * @param reader XMLStreamReader instance
+     * @return True, if the reader is at the start of a child element, false at the end of the current element
+     * @throws XMLStreamException Exception on invalid XML
+     */
+    private boolean nextElement(XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                return true;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                return false;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Skips the current element including all of its children.
+     * @param reader XMLStreamReader instance
+     * @throws XMLStreamException Exception on invalid XML
+     */
+    private void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        while (nextElement(reader)) {
+            skipElement(reader);
+        }
+    }
+
+    /**
+     * Reads the text of the current element, the reader is moved to its end.
+     * @param reader XMLStreamReader instance
+     * @return Text
+     * @throws XMLStreamException Exception on invalid XML or child elements
+     */
+    private String getText(XMLStreamReader reader) throws XMLStreamException {
+        return reader.getElementText().trim();
+    }
+
+    /**
+     * Parses Skills element and returns a List of Skill instances.
+     * @param reader XMLStreamReader instance at the Skills element
+     * @return List of Skill instances.
+     */
+    private List<Skill> parseSkills(XMLStreamReader reader) throws XMLStreamException {
+        List<Skill> skillList = new ArrayList<Skill>();
+
+        while (nextElement(reader)) {
+            if (!reader.getLocalName().equals("Skill")) {
+                skipElement(reader);
+                continue;
+            }
+
+            String skill = getText(reader);
+            if (skill.equals("Nurse")) {
+                skillList.add(Skill.NURSE);
+            } else if (skill.equals("HeadNurse")) {
+                skillList.add(Skill.HEAD_NURSE);
+            }
+        }
+
+        return skillList;
+    }
+
+    /**
+     * Parses CoverRequirements element.
+     * @param reader XMLStreamReader instance at the CoverRequirements element
+     * @param period SchedulingPeriod instance.
+     */
+    private void parseDayCovers(XMLStreamReader reader, SchedulingPeriod period) throws XMLStreamException, ParseException {
+        List<Cover> coverList = new ArrayList<Cover>();
+
+        while (nextElement(reader)) {
+            if (!reader.getLocalName().equals("DayOfWeekCover")) {
+                skipElement(reader);
+                continue;
+            }
+
+            Cover dayCover = new Cover();
+            while (nextElement(reader)) {
+                if (reader.getLocalName().equals("Day")) {
+                    dayCover.setDay(DateTimeHelper.getInstance().getDayByName(getText(reader)));
+                } else if (reader.getLocalName().equals("Cover")) {
+                    // shift and preferred number may be in any order
+                    ShiftType shiftType = null;
+                    int preferred = 0;
+                    while (nextElement(reader)) {
+                        if (reader.getLocalName().equals("Shift")) {
+                            shiftType = period.getShiftTypeById(getText(reader));
+                        } else if (reader.getLocalName().equals("Preferred")) {
+                            preferred = Integer.parseInt(getText(reader));
+                        } else {
+                            skipElement(reader);
+                        }
+                    }
+                    dayCover.addCover(shiftType, preferred);
+                } else {
+                    skipElement(reader);
+                }
+            }
+            coverList.add(dayCover);
+        }
+
+        period.setDayCovers(coverList);
+    }
+
+    /**
+     * Parses UnwantedPatterns element.
+     * @param reader XMLStreamReader instance at the UnwantedPatterns element
+     * @param period SchedulingPeriod instance.
+     * @param contract Contract instance.
+     */
+    private void parseUnwantedPatterns(XMLStreamReader reader, SchedulingPeriod period, Contract contract) throws XMLStreamException {
+        List<Pattern> unwantedPatternsList = new LinkedList<Pattern>();
+
+        while (nextElement(reader)) {
+            if (reader.getLocalName().equals("Pattern")) {
+                unwantedPatternsList.add(period.getPatternById(Integer.valueOf(getText(reader))));
+            } else {
+                skipElement(reader);
+            }
+        }
+
+        contract.setUnwantedPatterns(unwantedPatternsList);
+    }
+
+    /**
+     * Parses Patterns element.
+     * @param reader XMLStreamReader instance at the Patterns element
+     * @param period SchedulingPeriod instance.
+     */
+    private void parsePatterns(XMLStreamReader reader, SchedulingPeriod period) throws XMLStreamException, ParseException {
+        while (nextElement(reader)) {
+            if (!reader.getLocalName().equals("Pattern")) {
+                skipElement(reader);
+                continue;
+            }
+
+            Pattern pattern = new Pattern();
+            pattern.setId(Integer.parseInt(reader.getAttributeValue(null, "ID")));
+            pattern.setWeight(Integer.parseInt(reader.getAttributeValue(null, "weight")));
+            while (nextElement(reader)) {
+                // PatternEntries
+                while (nextElement(reader)) {
+                    PatternEntry patternEntry = new PatternEntry();
+                    patternEntry.setId(Integer.parseInt(reader.getAttributeValue(null, "index")));
+                    while (nextElement(reader)) {
+                        if (reader.getLocalName().equals("ShiftType")) {
+                            String shiftTypeValue = getText(reader);
+                            if (shiftTypeValue.equals("None")) {
+                                patternEntry.setShiftTypeNone(true);
+                            } else if (shiftTypeValue.equals("Any")) {
+                                patternEntry.setShiftTypeAny(true);
+                            } else {
+                                patternEntry.setShiftType(period.getShiftTypeById(shiftTypeValue));
+                            }
+                        } else if (reader.getLocalName().equals("Day")) {
+                            String dayValue = getText(reader);
+                            if (dayValue.equals("Any")) {
+                                patternEntry.setDayAny(true);
+                            } else {
+                                patternEntry.setDay(DateTimeHelper.getInstance().getDayByName(dayValue));
+                            }
+                        } else {
+                            skipElement(reader);
+                        }
+                    }
+                    pattern.addPatternEntry(patternEntry);
+                }
+            }
+            period.addPattern(pattern);
+        }
+    }
+
+    /**
+     * Parses Contracts element.
+     * @param reader XMLStreamReader instance at the Contracts element
+     * @param period SchedulingPeriod instance.
+     */
+    private void parseContracts(XMLStreamReader reader, SchedulingPeriod period) throws XMLStreamException, ParseException,
+            NoSuchFieldException, IllegalAccessException {
+        List<Contract> contractList = new ArrayList<Contract>();
+
+        while (nextElement(reader)) {
+            if (!reader.getLocalName().equals("Contract")) {
+                skipElement(reader);
+                continue;
+            }
+
+            Contract contract = new Contract();
+            contract.setId(Integer.parseInt(reader.getAttributeValue(null, "ID")));
+            while (nextElement(reader)) {
+                String name = reader.getLocalName();
+                // handle weighted attributes
+                if (ArrayHelper.getInstance().contains(weightedAttributes, name)) {
+                    Attribute attribute = new Attribute();
+                    attribute.setName(name);
+                    String weight = reader.getAttributeValue(null, "weight");
+                    String on = reader.getAttributeValue(null, "on");
+                    if (weight != null) {
+                        attribute.setWeight(Integer.valueOf(weight));
+                    } else if (on != null) {
+                        attribute.setOn(Integer.valueOf(on));
+                    }
+                    attribute.setValue(getText(reader));
+                    contract.setAttribute(attribute);
+                } else if (name.equals("Description")) {
+                    contract.setDescription(getText(reader));
+                } else if (name.equals("UnwantedPatterns")) {
+                    parseUnwantedPatterns(reader, period, contract);
+                } else if (name.equals("WeekendDefinition")) {
+                    contract.setWeekendDefinition(DateTimeHelper.getInstance().getDayListFromString(getText(reader)));
+                } else {
+                    skipElement(reader);
+                }
+            }
+            contractList.add(contract);
+        }
+
+        period.setContracts(contractList);
+    }
+
+    /**
+     * Parses ShiftTypes element.
+     * @param reader XMLStreamReader instance at the ShiftTypes element
+     * @param period SchedulePeriod instance.
+     */
+    private void parseShifts(XMLStreamReader reader, SchedulingPeriod period) throws XMLStreamException, ParseException {
+        while (nextElement(reader)) {
+            if (!reader.getLocalName().equals("Shift")) {
+                skipElement(reader);
+                continue;
+            }
+
+            ShiftType shiftType = new ShiftType();
+            shiftType.setId(reader.getAttributeValue(null, "ID"));
+            while (nextElement(reader)) {
+                if (reader.getLocalName().equals("StartTime")) {
+                    shiftType.setStartTime(DateTimeHelper.getInstance().parseTime(getText(reader)));
+                } else if (reader.getLocalName().equals("EndTime")) {
+                    shiftType.setEndTime(DateTimeHelper.getInstance().parseTime(getText(reader)));
+                } else if (reader.getLocalName().equals("Description")) {
+                    shiftType.setDescription(getText(reader));
+                } else if (reader.getLocalName().equals("Skills")) {
+                    shiftType.setRequiredSkills(parseSkills(reader));
+                } else {
+                    skipElement(reader);
+                }
+            }
+            period.addShiftType(shiftType);
+        }
+    }
+
+    /**
+     * Parses Employees element.
+     * @param reader XMLStreamReader instance at the Employees element
+     * @param period SchedulingPeriod instance.
+     */
+    private void parseEmployees(XMLStreamReader reader, SchedulingPeriod period) throws XMLStreamException {
+        while (nextElement(reader)) {
+            if (!reader.getLocalName().equals("Employee")) {
+                skipElement(reader);
+                continue;
+            }
+
+            Employee employee = new Employee();
+            employee.setId(Integer.parseInt(reader.getAttributeValue(null, "ID")));
+            while (nextElement(reader)) {
+                if (reader.getLocalName().equals("ContractID")) {
+                    employee.setContract(period.getContractById(Integer.parseInt(getText(reader))));
+                } else if (reader.getLocalName().equals("Name")) {
+                    employee.setName(getText(reader));
+                } else if (reader.getLocalName().equals("Skills")) {
+                    employee.setSkills(parseSkills(reader));
+                } else {
+                    skipElement(reader);
+                }
+            }
+            period.addEmployee(employee);
+        }
+    }
+
+    /**
+     * Enriches employees with their day off requests.
+     * @param reader XMLStreamReader instance at the DayOffRequests element
+     * @param period SchedulingPeriod instance.
+     */
+    private void parseDayOffRequests(XMLStreamReader reader, SchedulingPeriod period) throws XMLStreamException, ParseException {
+        while (nextElement(reader)) {
+            if (!reader.getLocalName().equals("DayOff")) {
+                skipElement(reader);
+                continue;
+            }
+
+            Employee employee = null;
+            DayOff dayOff = new DayOff();
+            dayOff.setWeight(Integer.parseInt(reader.getAttributeValue(null, "weight")));
+            while (nextElement(reader)) {
+                if (reader.getLocalName().equals("EmployeeID")) {
+                    employee = period.getEmployeeById(getText(reader));
+                } else if (reader.getLocalName().equals("Date")) {
+                    dayOff.setDate(DateTimeHelper.getInstance().parseDate(getText(reader)));
+                } else {
+                    skipElement(reader);
+                }
+            }
+            // Add day off request to requests of employee if found.
+            if (employee != null) {
+                employee.addDayOffRequest(dayOff);
+            }
+        }
+    }
+
+    /**
+     * Enriches employees with their shift off requests.
+     * @param reader XMLStreamReader instance at the ShiftOffRequests element
+     * @param period SchedulingPeriod instance.
+     */
+    private void parseShiftOffRequests(XMLStreamReader reader, SchedulingPeriod period) throws XMLStreamException, ParseException {
+        while (nextElement(reader)) {
+            if (!reader.getLocalName().equals("ShiftOff")) {
+                skipElement(reader);
+                continue;
+            }
+
+            Employee employee = null;
+            ShiftOff shiftOff = new ShiftOff();
+            shiftOff.setWeight(Integer.parseInt(reader.getAttributeValue(null, "weight")));
+            while (nextElement(reader)) {
+                if (reader.getLocalName().equals("ShiftTypeID")) {
+                    shiftOff.setShiftType(period.getShiftTypeById(getText(reader)));
+                } else if (reader.getLocalName().equals("EmployeeID")) {
+                    employee = period.getEmployeeById(getText(reader));
+                } else if (reader.getLocalName().equals("Date")) {
+                    shiftOff.setDate(DateTimeHelper.getInstance().parseDate(getText(reader)));
+                } else {
+                    skipElement(reader);
+                }
+            }
+            // Add shift off request to requests of employee if found.
+            if (employee != null) {
+                employee.addShiftOffRequest(shiftOff);
+            }
+        }
+    }
+
+    /**
+     * Parses the whole period definition.
+     * @param reader XMLStreamReader instance at the root element (SchedulingPeriod)
+     * @param period SchedulingPeriod instance
+     */
+    private void parseSchedulingPeriod(XMLStreamReader reader, SchedulingPeriod period) throws Throwable {
+        period.setId(reader.getAttributeValue(null, "ID"));
+        while (nextElement(reader)) {
+            String name = reader.getLocalName();
+            if (name.equals("StartDate")) {
+                period.setStartDate(DateTimeHelper.getInstance().parseDate(getText(reader)));
+            } else if (name.equals("EndDate")) {
+                period.setEndDate(DateTimeHelper.getInstance().parseDate(getText(reader)));
+            } else if (name.equals("Skills")) {
+                period.setSkills(parseSkills(reader));
+            } else if (name.equals("ShiftTypes")) {
+                parseShifts(reader, period);
+            } else if (name.equals("Patterns")) {
+                parsePatterns(reader, period);
+            } else if (name.equals("Contracts")) {
+                parseContracts(reader, period);
+            } else if (name.equals("Employees")) {
+                parseEmployees(reader, period);
+            } else if (name.equals("CoverRequirements")) {
+                parseDayCovers(reader, period);
+            } else if (name.equals("DayOffRequests")) {
+                parseDayOffRequests(reader, period);
+            } else if (name.equals("ShiftOffRequests")) {
+                parseShiftOffRequests(reader, period);
+            } else {
+                skipElement(reader);
+            }
+        }
+
+        // If we have day head nurse shifts (DH), we need to prioritize
+        // these shifts to avoid assigning head nurses to normal
+        // shifts (randomly) and run out of head nurses for DH shifts.
+        for (Cover cover: period.getDayCovers()) {
+            cover.prioritizeDayHeadNurseShift();
+        }
+    }
+
+    @Override
+    public SchedulingPeriod loadFile(String path) {
+        try {
+            File xmlFile = new File(path);
+            SchedulingPeriod schedulingPeriod = new SchedulingPeriod();
+            schedulingPeriod.setSourceFile(xmlFile.getAbsolutePath());
+
+            InputStream inputStream = new BufferedInputStream(new FileInputStream(xmlFile));
+            try {
+                XMLStreamReader reader = factory.createXMLStreamReader(inputStream);
+                try {
+                    if (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                        parseSchedulingPeriod(reader, schedulingPeriod);
+                    }
+                } finally {
+                    reader.close();
+                }
+            } finally {
+                inputStream.close();
+            }
+
+            // compile the completely loaded period for index based lookups
+            schedulingPeriod.compile();
+
+            return schedulingPeriod;
+        } catch (Throwable e) {
+            e.printStackTrace();
+        }
+
+        return null;
+    }
+}
@@ -1,14 +1,438 @@
 package parser;
 
-import model.schedule.SchedulingPeriod;
+import helper.ArrayHelper;
+import helper.ConfigurationHelper;
+import helper.DateTimeHelper;
+import model.schedule.*;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.ParseException;
+import java.util.*;
 
 /**
- * Class to parse an Text scheduling instance.
+ * Class to parse a scheduling instance in the text format of the competition.
+ * The file is read in a single pass by a byte level tokenizer, each section is
+ * stored in the scheduling period directly. The result is the same as the one
+ * of the XmlParser for the XML version of an instance (apart from the order of
+ * the entities, which is the one of the text file).
  */
 @SuppressWarnings("unused")
 public class TextParser implements IParser {
+    /**
+     * Names of the boolean contract attributes following the weekend
+     * definition, in the order of the text format.
+     */
+    private static final String[] BOOLEAN_ATTRIBUTES = {"CompleteWeekends", "IdenticalShiftTypesDuringWeekend",
+            "NoNightShiftBeforeFreeWeekend", "TwoFreeDaysAfterNightShifts", "AlternativeSkillCategory"};
+
+    /**
+     * Names of the numeric contract attributes following SingleAssignmentPerDay,
+     * in the order of the text format.
+     */
+    private static final String[] NUMERIC_ATTRIBUTES = {"MaxNumAssignments", "MinNumAssignments",
+            "MaxConsecutiveWorkingDays", "MinConsecutiveWorkingDays", "MaxConsecutiveFreeDays",
+            "MinConsecutiveFreeDays", "MaxConsecutiveWorkingWeekends", "MinConsecutiveWorkingWeekends",
+            "MaxWorkingWeekendsInFourWeeks"};
+
+    /**
+     * Names of the weighted contract attributes.
+     */
+    private String[] weightedAttributes = ConfigurationHelper.getInstance().getPropertyArray("WeightedAttributes");
+
+    /**
+     * Values of a composite field, e.g. (on|weight|value).
+     */
+    private final int[] values = new int[3];
+
+    /**
+     * Parsed dates (as time values) by their text, as a period only has a few
+     * distinct dates, but many requests.
+     */
+    private final Map<String, Long> dates = new HashMap<String, Long>();
+
+    /**
+     * Parses a YYYY-MM-DD date, each distinct date is parsed once.
+     * @param date Date as a string
+     * @return Date instance (a new instance per call)
+     * @throws ParseException Parse exception.
+     */
+    private Date parseDate(String date) throws ParseException {
+        Long time = dates.get(date);
+        if (time == null) {
+            time = DateTimeHelper.getInstance().parseDate(date).getTime();
+            dates.put(date, time);
+        }
+
+        return new Date(time);
+    }
+
+    /**
+     * Parses a list of skills, preceded by their number.
+     * @param tokenizer TextTokenizer instance
+     * @return List of Skill instances.
+     */
+    private List<Skill> parseSkills(TextTokenizer tokenizer) throws IOException, ParseException {
+        List<Skill> skillList = new ArrayList<Skill>();
+
+        int count = tokenizer.nextInt();
+        for (int i = 0; i < count; i++) {
+            Skill skill = getSkill(tokenizer.nextWord());
+            if (skill != null) {
+                skillList.add(skill);
+            }
+        }
+
+        return skillList;
+    }
+
+    /**
+     * Returns a skill by its name.
+     * @param name Name of the skill
+     * @return Skill or null, if unknown
+     */
+    private Skill getSkill(String name) {
+        if (name.equals("Nurse")) {
+            return Skill.NURSE;
+        } else if (name.equals("HeadNurse")) {
+            return Skill.HEAD_NURSE;
+        }
+
+        return null;
+    }
+
+    /**
+     * Parses the SKILLS section.
+     * @param tokenizer TextTokenizer instance
+     * @param count Number of records
+     * @param period SchedulingPeriod instance.
+     */
+    private void parseSkills(TextTokenizer tokenizer, int count, SchedulingPeriod period) throws IOException, ParseException {
+        List<Skill> skillList = new ArrayList<Skill>();
+
+        for (int i = 0; i < count; i++) {
+            Skill skill = getSkill(tokenizer.nextWord());
+            if (skill != null) {
+                skillList.add(skill);
+            }
+            tokenizer.expect(';');
+        }
+
+        period.setSkills(skillList);
+    }
+
+    /**
+     * Parses the SHIFT_TYPES section.
+     * @param tokenizer TextTokenizer instance
+     * @param count Number of records
+     * @param period SchedulingPeriod instance.
+     */
+    private void parseShifts(TextTokenizer tokenizer, int count, SchedulingPeriod period) throws IOException, ParseException {
+        for (int i = 0; i < count; i++) {
+            ShiftType shiftType = new ShiftType();
+            shiftType.setId(tokenizer.nextWord());
+            shiftType.setDescription(tokenizer.nextText());
+            shiftType.setStartTime(DateTimeHelper.getInstance().parseTime(tokenizer.nextWord()));
+            shiftType.setEndTime(DateTimeHelper.getInstance().parseTime(tokenizer.nextWord()));
+            shiftType.setRequiredSkills(parseSkills(tokenizer));
+            tokenizer.expect(';');
+
+            period.addShiftType(shiftType);
+        }
+    }
+
+    /**
+     * Parses the CONTRACTS section. The unwanted patterns are stored by their
+     * identifiers, as the patterns follow the contracts in the text format.
+     * @param tokenizer TextTokenizer instance
+     * @param count Number of records
+     * @param period SchedulingPeriod instance.
+     * @param unwantedPatterns Identifiers of the unwanted patterns per contract
+     */
+    private void parseContracts(TextTokenizer tokenizer, int count, SchedulingPeriod period,
+                                Map<Contract, int[]> unwantedPatterns) throws IOException, ParseException,
+            NoSuchFieldException, IllegalAccessException {
+        List<Contract> contractList = new ArrayList<Contract>();
+
+        for (int i = 0; i < count; i++) {
+            Contract contract = new Contract();
+            contract.setId(tokenizer.nextInt());
+            contract.setDescription(tokenizer.nextText());
+
+            // (on|weight)
+            tokenizer.nextComposite(values);
+            setAttribute(contract, "SingleAssignmentPerDay", values[1], values[0] == 1 ? "true" : "false");
+
+            // (on|weight|value)
+            for (String name: NUMERIC_ATTRIBUTES) {
+                tokenizer.nextComposite(values);
+                setAttribute(contract, name, values[1], String.valueOf(values[2]));
+            }
+
+            contract.setWeekendDefinition(DateTimeHelper.getInstance().getDayListFromString(tokenizer.nextWord()));
+
+            // (on|weight)
+            for (String name: BOOLEAN_ATTRIBUTES) {
+                tokenizer.nextComposite(values);
+                setAttribute(contract, name, values[1], values[0] == 1 ? "true" : "false");
+            }
+
+            int[] patternIds = new int[tokenizer.nextInt()];
+            for (int j = 0; j < patternIds.length; j++) {
+                patternIds[j] = tokenizer.nextInt();
+            }
+            unwantedPatterns.put(contract, patternIds);
+            tokenizer.expect(';');
+
+            contractList.add(contract);
+        }
+
+        period.setContracts(contractList);
+    }
+
+    /**
+     * Sets a weighted attribute of a contract, if it is configured.
+     * @param contract Contract instance
+     * @param name Name of the attribute
+     * @param weight Weight
+     * @param value Value
+     */
+    private void setAttribute(Contract contract, String name, int weight, String value)
+            throws NoSuchFieldException, IllegalAccessException {
+        if (!ArrayHelper.getInstance().contains(weightedAttributes, name)) {
+            return;
+        }
+
+        Attribute attribute = new Attribute();
+        attribute.setName(name);
+        attribute.setWeight(weight);
+        attribute.setValue(value);
+        contract.setAttribute(attribute);
+    }
+
+    /**
+     * Parses the PATTERNS section.
+     * @param tokenizer TextTokenizer instance
+     * @param count Number of records
+     * @param period SchedulingPeriod instance.
+     */
+    private void parsePatterns(TextTokenizer tokenizer, int count, SchedulingPeriod period) throws IOException, ParseException {
+        for (int i = 0; i < count; i++) {
+            Pattern pattern = new Pattern();
+            pattern.setId(tokenizer.nextInt());
+            pattern.setWeight(tokenizer.nextInt());
+
+            int entries = tokenizer.nextInt();
+            for (int j = 0; j < entries; j++) {
+                PatternEntry patternEntry = new PatternEntry();
+                patternEntry.setId(j);
+
+                // (shift type|day)
+                tokenizer.expect('(');
+                String shiftTypeValue = tokenizer.nextWord();
+                if (shiftTypeValue.equals("None")) {
+                    patternEntry.setShiftTypeNone(true);
+                } else if (shiftTypeValue.equals("Any")) {
+                    patternEntry.setShiftTypeAny(true);
+                } else {
+                    patternEntry.setShiftType(period.getShiftTypeById(shiftTypeValue));
+                }
+                tokenizer.expect('|');
+                String dayValue = tokenizer.nextWord();
+                if (dayValue.equals("Any")) {
+                    patternEntry.setDayAny(true);
+                } else {
+                    patternEntry.setDay(DateTimeHelper.getInstance().getDayByName(dayValue));
+                }
+                tokenizer.expect(')');
+
+                pattern.addPatternEntry(patternEntry);
+            }
+            tokenizer.expect(';');
+
+            period.addPattern(pattern);
+        }
+    }
+
+    /**
+     * Parses the EMPLOYEES section.
+     * @param tokenizer TextTokenizer instance
+     * @param count Number of records
+     * @param period SchedulingPeriod instance.
+     */
+    private void parseEmployees(TextTokenizer tokenizer, int count, SchedulingPeriod period) throws IOException, ParseException {
+        for (int i = 0; i < count; i++) {
+            Employee employee = new Employee();
+            employee.setId(tokenizer.nextInt());
+            employee.setName(tokenizer.nextText());
+            employee.setContract(period.getContractById(tokenizer.nextInt()));
+            employee.setSkills(parseSkills(tokenizer));
+            tokenizer.expect(';');
+
+            period.addEmployee(employee);
+        }
+    }
+
+    /**
+     * Parses the DAY_OF_WEEK_COVER section, the covers of a day are combined
+     * in one Cover instance.
+     * @param tokenizer TextTokenizer instance
+     * @param count Number of records
+     * @param period SchedulingPeriod instance.
+     */
+    private void parseDayCovers(TextTokenizer tokenizer, int count, SchedulingPeriod period) throws IOException, ParseException {
+        Map<Day, Cover> covers = new LinkedHashMap<Day, Cover>();
+
+        for (int i = 0; i < count; i++) {
+            Day day = DateTimeHelper.getInstance().getDayByName(tokenizer.nextWord());
+            ShiftType shiftType = period.getShiftTypeById(tokenizer.nextWord());
+            int preferred = tokenizer.nextInt();
+            tokenizer.expect(';');
+
+            Cover dayCover = covers.get(day);
+            if (dayCover == null) {
+                dayCover = new Cover();
+                dayCover.setDay(day);
+                covers.put(day, dayCover);
+            }
+            dayCover.addCover(shiftType, preferred);
+        }
+
+        period.setDayCovers(new ArrayList<Cover>(covers.values()));
+    }
+
+    /**
+     * Enriches employees with their day off requests.
+     * @param tokenizer TextTokenizer instance
+     * @param count Number of records
+     * @param period SchedulingPeriod instance.
+     */
+    private void parseDayOffRequests(TextTokenizer tokenizer, int count, SchedulingPeriod period) throws IOException, ParseException {
+        for (int i = 0; i < count; i++) {
+            Employee employee = period.getEmployeeById(tokenizer.nextInt());
+            DayOff dayOff = new DayOff();
+            dayOff.setDate(parseDate(tokenizer.nextWord()));
+            dayOff.setWeight(tokenizer.nextInt());
+            tokenizer.expect(';');
+
+            // Add day off request to requests of employee if found.
+            if (employee != null) {
+                employee.addDayOffRequest(dayOff);
+            }
+        }
+    }
+
+    /**
+     * Enriches employees with their shift off requests.
+     * @param tokenizer TextTokenizer instance
+     * @param count Number of records
+     * @param period SchedulingPeriod instance.
+     */
+    private void parseShiftOffRequests(TextTokenizer tokenizer, int count, SchedulingPeriod period) throws IOException, ParseException {
+        for (int i = 0; i < count; i++) {
+            Employee employee = period.getEmployeeById(tokenizer.nextInt());
+            ShiftOff shiftOff = new ShiftOff();
+            shiftOff.setDate(parseDate(tokenizer.nextWord()));
+            shiftOff.setShiftType(period.getShiftTypeById(tokenizer.nextWord()));
+            shiftOff.setWeight(tokenizer.nextInt());
+            tokenizer.expect(';');
+
+            // Add shift off request to requests of employee if found.
+            if (employee != null) {
+                employee.addShiftOffRequest(shiftOff);
+            }
+        }
+    }
+
+    /**
+     * Parses the whole period definition, section by section. A section starts
+     * with its name and the number of its records (e.g. "SKILLS = 2;").
+     * @param tokenizer TextTokenizer instance
+     * @param period SchedulingPeriod instance
+     */
+    private void parseSchedulingPeriod(TextTokenizer tokenizer, SchedulingPeriod period) throws Throwable {
+        Map<Contract, int[]> unwantedPatterns = new HashMap<Contract, int[]>();
+
+        while (!tokenizer.isEnd()) {
+            String name = tokenizer.nextWord();
+            tokenizer.consume('=');
+            boolean counted = !tokenizer.consume(';');
+            int count = counted ? tokenizer.nextInt() : 1;
+            if (counted) {
+                tokenizer.expect(';');
+            }
+
+            if (name.equals("SCHEDULING_PERIOD")) {
+                period.setId(tokenizer.nextText());
+                period.setStartDate(parseDate(tokenizer.nextWord()));
+                period.setEndDate(parseDate(tokenizer.nextWord()));
+                tokenizer.expect(';');
+            } else if (name.equals("SKILLS")) {
+                parseSkills(tokenizer, count, period);
+            } else if (name.equals("SHIFT_TYPES")) {
+                parseShifts(tokenizer, count, period);
+            } else if (name.equals("CONTRACTS")) {
+                parseContracts(tokenizer, count, period, unwantedPatterns);
+            } else if (name.equals("PATTERNS")) {
+                parsePatterns(tokenizer, count, period);
+            } else if (name.equals("EMPLOYEES")) {
+                parseEmployees(tokenizer, count, period);
+            } else if (name.equals("DAY_OF_WEEK_COVER")) {
+                parseDayCovers(tokenizer, count, period);
+            } else if (name.equals("DAY_OFF_REQUESTS")) {
+                parseDayOffRequests(tokenizer, count, period);
+            } else if (name.equals("SHIFT_OFF_REQUESTS")) {
+                parseShiftOffRequests(tokenizer, count, period);
+            } else {
+                // sections, which are not used (e.g. date specific covers, day and shift on requests)
+                for (int i = 0; i < count; i++) {
+                    tokenizer.skipRecord();
+                }
+            }
+        }
+
+        // resolve the unwanted patterns, as they are defined after the contracts
+        for (Map.Entry<Contract, int[]> entry: unwantedPatterns.entrySet()) {
+            List<Pattern> unwantedPatternsList = new LinkedList<Pattern>();
+            for (int patternId: entry.getValue()) {
+                unwantedPatternsList.add(period.getPatternById(patternId));
+            }
+            entry.getKey().setUnwantedPatterns(unwantedPatternsList);
+        }
+
+        // If we have day head nurse shifts (DH), we need to prioritize
+        // these shifts to avoid assigning head nurses to normal
+        // shifts (randomly) and run out of head nurses for DH shifts.
+        for (Cover cover: period.getDayCovers()) {
+            cover.prioritizeDayHeadNurseShift();
+        }
+    }
+
     @Override
     public SchedulingPeriod loadFile(String path) {
-        throw new RuntimeException("TextParser not implemented yet.");
+        try {
+            File textFile = new File(path);
+            SchedulingPeriod schedulingPeriod = new SchedulingPeriod();
+            schedulingPeriod.setSourceFile(textFile.getAbsolutePath());
+
+            // the tokenizer buffers the input itself
+            InputStream inputStream = new FileInputStream(textFile);
+            try {
+                parseSchedulingPeriod(new TextTokenizer(inputStream), schedulingPeriod);
+            } finally {
+                inputStream.close();
+            }
+
+            // compile the completely loaded period for index based lookups
+            schedulingPeriod.compile();
+
+            return schedulingPeriod;
+        } catch (Throwable e) {
+            e.printStackTrace();
+        }
+
+        return null;
     }
 }
@@ -0,0 +1,307 @@
+package parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.text.ParseException;
+
+/**
+ * Tokenizer of the competition text format, which reads the bytes of a stream
+ * through an own buffer. Records are terminated by ';', their fields are
+ * separated by ',', composite values are written as (a|b|c) and lines starting
+ * with "//" are comments. Numbers are parsed from the bytes directly, only
+ * words and texts are decoded to strings.
+ */
+class TextTokenizer {
+    /**
+     * Character encoding of the text files.
+     */
+    private static final Charset ENCODING = Charset.forName("UTF-8");
+
+    /**
+     * Size of the input buffer in bytes.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Input stream.
+     */
+    private final InputStream inputStream;
+
+    /**
+     * Input buffer.
+     */
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    /**
+     * Position of the next byte in the input buffer.
+     */
+    private int position = 0;
+
+    /**
+     * Number of valid bytes in the input buffer.
+     */
+    private int limit = 0;
+
+    /**
+     * Offset of the input buffer in the stream (for error messages).
+     */
+    private int bufferOffset = 0;
+
+    /**
+     * Bytes of the current word or text.
+     */
+    private byte[] token = new byte[256];
+
+    /**
+     * Creates a tokenizer of a stream.
+     * @param inputStream Input stream (not buffered, as the tokenizer buffers itself)
+     */
+    TextTokenizer(InputStream inputStream) {
+        this.inputStream = inputStream;
+    }
+
+    /**
+     * Returns the next byte without consuming it.
+     * @return Byte value or -1 at the end of the stream
+     * @throws IOException Exception on IO error.
+     */
+    private int peek() throws IOException {
+        if (position == limit) {
+            bufferOffset += limit;
+            position = 0;
+            limit = Math.max(0, inputStream.read(buffer));
+            if (limit == 0) {
+                return -1;
+            }
+        }
+
+        return buffer[position] & 0xFF;
+    }
+
+    /**
+     * Returns true, if a byte separates tokens.
+     * @param value Byte value
+     * @return True, if delimiter or whitespace
+     */
+    private boolean isDelimiter(int value) {
+        return value <= ' ' || value == ',' || value == ';' || value == '(' || value == ')' || value == '|' || value == '=';
+    }
+
+    /**
+     * Returns a ParseException with the current offset in the stream.
+     * @param message Message
+     * @return ParseException instance
+     */
+    private ParseException getException(String message) {
+        int offset = bufferOffset + position;
+
+        return new ParseException(message + " at offset " + offset, offset);
+    }
+
+    /**
+     * Skips whitespace and comment lines.
+     * @throws IOException Exception on IO error.
+     */
+    private void skipSpace() throws IOException {
+        int value = peek();
+        while (value != -1) {
+            if (value == '/') {
+                // comment up to the end of the line
+                while (value != -1 && value != '\n') {
+                    position++;
+                    value = peek();
+                }
+            } else if (value > ' ') {
+                return;
+            } else {
+                position++;
+                value = peek();
+            }
+        }
+    }
+
+    /**
+     * Skips whitespace and at most one field separator (','), thus list
+     * items may be separated by ',' or whitespace.
+     * @throws IOException Exception on IO error.
+     */
+    private void skipSeparator() throws IOException {
+        skipSpace();
+        if (peek() == ',') {
+            position++;
+            skipSpace();
+        }
+    }
+
+    /**
+     * Appends a byte to the current token.
+     * @param length Current length of the token
+     * @param value Byte value
+     */
+    private void append(int length, int value) {
+        if (length == token.length) {
+            byte[] grown = new byte[token.length * 2];
+            System.arraycopy(token, 0, grown, 0, length);
+            token = grown;
+        }
+        token[length] = (byte) value;
+    }
+
+    /**
+     * Returns true, if the end of the stream is reached (after whitespace and comments).
+     * @return True, if no more tokens follow
+     * @throws IOException Exception on IO error.
+     */
+    boolean isEnd() throws IOException {
+        skipSpace();
+
+        return peek() == -1;
+    }
+
+    /**
+     * Returns true, if the next token is a specific character, which is consumed then.
+     * @param character Character
+     * @return True, if the character was consumed
+     * @throws IOException Exception on IO error.
+     */
+    boolean consume(char character) throws IOException {
+        skipSpace();
+        if (peek() == character) {
+            position++;
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Consumes a specific character.
+     * @param character Character
+     * @throws IOException Exception on IO error.
+     * @throws ParseException Exception, if another character follows.
+     */
+    void expect(char character) throws IOException, ParseException {
+        if (!consume(character)) {
+            throw getException("'" + character + "' expected");
+        }
+    }
+
+    /**
+     * Reads the next word of a field, a word ends at whitespace or a delimiter.
+     * @return Word
+     * @throws IOException Exception on IO error.
+     * @throws ParseException Exception, if no word follows.
+     */
+    String nextWord() throws IOException, ParseException {
+        skipSeparator();
+
+        int length = 0;
+        int value = peek();
+        while (value != -1 && !isDelimiter(value)) {
+            append(length++, value);
+            position++;
+            value = peek();
+        }
+        if (length == 0) {
+            throw getException("Word expected");
+        }
+
+        return new String(token, 0, length, ENCODING);
+    }
+
+    /**
+     * Reads the next text field, a text may contain whitespace and ends at the
+     * next ',' or ';'. Surrounding whitespace is removed.
+     * @return Text
+     * @throws IOException Exception on IO error.
+     */
+    String nextText() throws IOException {
+        skipSeparator();
+
+        int length = 0;
+        int trimmedLength = 0;
+        int value = peek();
+        while (value != -1 && value != ',' && value != ';') {
+            append(length++, value);
+            if (value > ' ') {
+                trimmedLength = length;
+            }
+            position++;
+            value = peek();
+        }
+
+        return new String(token, 0, trimmedLength, ENCODING);
+    }
+
+    /**
+     * Reads the next integer of a field.
+     * @return Integer
+     * @throws IOException Exception on IO error.
+     * @throws ParseException Exception, if no integer follows.
+     */
+    int nextInt() throws IOException, ParseException {
+        skipSeparator();
+
+        boolean negative = false;
+        if (peek() == '-') {
+            negative = true;
+            position++;
+        }
+
+        int result = 0;
+        int digits = 0;
+        int value = peek();
+        while (value >= '0' && value <= '9') {
+            result = result * 10 + value - '0';
+            digits++;
+            position++;
+            value = peek();
+        }
+        if (digits == 0 || value != -1 && !isDelimiter(value)) {
+            throw getException("Integer expected");
+        }
+
+        return negative ? -result : result;
+    }
+
+    /**
+     * Reads a composite value of integers, e.g. (1|1|5).
+     * @param values Array the integers are stored in
+     * @return Number of integers read
+     * @throws IOException Exception on IO error.
+     * @throws ParseException Exception on invalid composite values.
+     */
+    int nextComposite(int[] values) throws IOException, ParseException {
+        skipSeparator();
+        expect('(');
+
+        int count = 0;
+        do {
+            if (count == values.length) {
+                throw getException("Too many values");
+            }
+            values[count++] = nextInt();
+        } while (consume('|'));
+        expect(')');
+
+        return count;
+    }
+
+    /**
+     * Skips the rest of the current record including its terminating ';'.
+     * @throws IOException Exception on IO error.
+     * @throws ParseException Exception, if the stream ends within the record.
+     */
+    void skipRecord() throws IOException, ParseException {
+        int value = peek();
+        while (value != ';') {
+            if (value == -1) {
+                throw getException("';' expected");
+            }
+            position++;
+            value = peek();
+        }
+        position++;
+    }
+}
@@ -270,6 +270,7 @@ public class XmlParser implements IParser {
                 if (element.getLocalName().equals("DayOff")) {
                     Employee employee = null;
                     DayOff dayOff = new DayOff();
+                    dayOff.setWeight(Integer.parseInt(element.getAttributeValue("weight")));
                     for (int j = 0; j < dayOffRequest.getChildCount(); j++) {
                         if (element.getChild(j) instanceof Element) {
                             Element dayOffInfo = (Element) element.getChild(j);
@@ -387,7 +388,12 @@ public class XmlParser implements IParser {
             Builder parser = new Builder();
             Document doc = parser.build(xmlFile);
 
-            return parseSchedulingPeriod(doc.getRootElement(), schedulingPeriod);
+            parseSchedulingPeriod(doc.getRootElement(), schedulingPeriod);
+
+            // compile the completely loaded period for index based lookups
+            schedulingPeriod.compile();
+
+            return schedulingPeriod;
         } catch (Throwable e) {
             e.printStackTrace();
         }
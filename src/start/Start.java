@@ -2,13 +2,17 @@ package start;
 
 import helper.ClassLoaderHelper;
 import helper.ConfigurationHelper;
+import helper.InstanceCacheHelper;
 import helper.TuiHelper;
 import model.ea.EvolutionaryCycle;
+import model.ea.ISolver;
 import model.ea.Individual;
 import model.ea.Population;
 import model.schedule.SchedulingPeriod;
 import parser.IParser;
-import writer.IWriter;
+import writer.AnytimeWriter;
+
+import java.util.Arrays;
 
 /**
  * Start class to initialize the application.
@@ -34,18 +38,33 @@ public class Start {
 
     /**
      * Default main method.
+     * Arguments: [--resume checkpoint file] [scheduling period file]
      * @param args Optional arguments for the JVM
      */
     public static void main(String[] args) {
+        // a checkpoint to resume from is given by "--resume <file>"
+        String checkpoint = null;
+        if (args.length >= 2 && args[0].equals("--resume")) {
+            checkpoint = args[1];
+            args = Arrays.copyOfRange(args, 2, args.length);
+        }
+
         // read scheduling period information
         SchedulingPeriod period = getInstance().parseSchedulingPeriod(args.length == 1 ? args[0] : null);
 
-        // create and run the evolutionary cycle
-        EvolutionaryCycle evolutionaryCycle = new EvolutionaryCycle();
-        Population evolutionizedPopulation = evolutionaryCycle.evolutionize(period);
+        // create and run (or resume) the configured solver (by default the evolutionary cycle)
+        ISolver solver = ClassLoaderHelper.getInstance().getSolver();
+        Population evolutionizedPopulation;
+        if (checkpoint == null) {
+            evolutionizedPopulation = solver.evolutionize(period);
+        } else if (solver instanceof EvolutionaryCycle) {
+            evolutionizedPopulation = ((EvolutionaryCycle) solver).resume(period, checkpoint);
+        } else {
+            throw new RuntimeException("Only the solver EvolutionaryCycle can resume from a checkpoint.");
+        }
 
         // retrieve best individual from initialized and evolutionized populations
-        Individual bestInitialized = evolutionaryCycle.getInitPopulation().getBestIndividual();
+        Individual bestInitialized = solver.getInitPopulation().getBestIndividual();
         Individual best = evolutionizedPopulation.getBestIndividual();
 
         TuiHelper.getInstance().showEAResult(best, bestInitialized);
@@ -63,9 +82,9 @@ public class Start {
             return "\"SolutionWrite\" in config.properties is set to \"false\", no solution file written.";
         }
 
-        IWriter writer = ClassLoaderHelper.getInstance().getWriter();
+        // the final solution replaces the file written while running (if any)
         try {
-            return "Solution file written to: " + writer.writeFile(individual);
+            return "Solution file written to: " + AnytimeWriter.getInstance().writeFile(individual);
         } catch (Exception e) {
             return "Error writing solution file: " + e.getMessage();
         }
@@ -85,7 +104,7 @@ public class Start {
             filePath = fileOverride;
         }
 
-        // try to load and return the desired scheduling period
-        return parser.loadFile(filePath);
+        // try to load and return the desired scheduling period (from the cache, if enabled and cached)
+        return InstanceCacheHelper.getInstance().loadFile(filePath, parser);
     }
 }
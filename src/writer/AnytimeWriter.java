@@ -0,0 +1,235 @@
+package writer;
+
+import helper.ClassLoaderHelper;
+import helper.ConcurrencyHelper;
+import helper.ConfigurationHelper;
+import helper.FilesystemHelper;
+import model.ea.Individual;
+import model.ea.Population;
+
+import java.io.File;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the best solution found so far while a solver is running, thus a
+ * valid solution file exists even if the application is killed. Solvers
+ * offer their best individuals, a copy of an improved one is written by a
+ * background thread with the configured writer, at most once per interval.
+ * Each file is written to a temporary file first and then renamed, thus the
+ * solution file is always complete.
+ */
+public class AnytimeWriter {
+    /**
+     * Singleton instance.
+     */
+    private final static AnytimeWriter instance = new AnytimeWriter();
+
+    /**
+     * Returns the singleton instance.
+     * @return Singleton instance
+     */
+    public static AnytimeWriter getInstance() {
+        return AnytimeWriter.instance;
+    }
+
+    /**
+     * Solutions are written while running, if true.
+     */
+    private final boolean enabled = ConfigurationHelper.getInstance().getPropertyBoolean("SolutionWrite")
+            && ConfigurationHelper.getInstance().getPropertyBoolean("SolutionWriteAnytime");
+
+    /**
+     * Minimum time between two writes in milliseconds.
+     */
+    private final long interval = ConfigurationHelper.getInstance().getPropertyLong("SolutionWriteInterval", 1000);
+
+    /**
+     * Full path of the solution file (resolved once, thus all writes of a run replace the same file).
+     */
+    private String fullPath = null;
+
+    /**
+     * Fitness of the best offered individual.
+     */
+    private float bestFitness = Float.POSITIVE_INFINITY;
+
+    /**
+     * Copy of the best individual waiting to be written or null.
+     */
+    private Individual pending = null;
+
+    /**
+     * True, if a write is scheduled.
+     */
+    private boolean scheduled = false;
+
+    /**
+     * Time of the last write in nano seconds.
+     */
+    private long lastWrite = 0;
+
+    /**
+     * Writer of the solution files (created on first use and reused, thus it may keep per period data).
+     */
+    private IWriter writer = null;
+
+    /**
+     * Executor of the background writes (created on first use).
+     */
+    private ScheduledExecutorService executor = null;
+
+    /**
+     * Private constructor to avoid bypassing singleton.
+     */
+    private AnytimeWriter() {}
+
+    /**
+     * Offers the best individual of a population, it is written if it is better
+     * than all individuals offered before.
+     * @param population Population instance
+     */
+    public void offer(Population population) {
+        if (!enabled) {
+            return;
+        }
+
+        // find the best individual without sorting the population
+        Individual best = null;
+        for (Individual individual: population.getPool()) {
+            if (best == null || individual.getFitness() < best.getFitness()) {
+                best = individual;
+            }
+        }
+        if (best != null) {
+            offer(best);
+        }
+    }
+
+    /**
+     * Offers an individual, it is written if it is better than all individuals
+     * offered before. The individual is copied, thus the caller may change it.
+     * @param individual Individual instance
+     */
+    public synchronized void offer(Individual individual) {
+        if (!enabled || executor != null && executor.isShutdown() || individual.getFitness() >= bestFitness) {
+            return;
+        }
+
+        bestFitness = individual.getFitness();
+        pending = Individual.copy(individual);
+
+        // schedule a write, unless there is one scheduled already (which writes the latest copy)
+        if (!scheduled) {
+            scheduled = true;
+            long delay = Math.max(0, lastWrite + interval * 1000000 - System.nanoTime());
+            getExecutor().schedule(new Runnable() {
+                @Override
+                public void run() {
+                    writePending();
+                }
+            }, lastWrite == 0 ? 0 : delay, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Writes the pending individual (run by the background thread).
+     */
+    private void writePending() {
+        Individual individual;
+        synchronized (this) {
+            individual = pending;
+            pending = null;
+            scheduled = false;
+            lastWrite = System.nanoTime();
+        }
+
+        if (individual != null) {
+            try {
+                write(individual);
+            } catch (Exception e) {
+                System.err.println("Error writing solution file: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Stops the background writes and writes the final solution file.
+     * @param individual Individual instance
+     * @return Full path to solution file
+     * @throws Exception Exception on fail
+     */
+    public String writeFile(Individual individual) throws Exception {
+        synchronized (this) {
+            if (executor == null) {
+                executor = ConcurrencyHelper.getInstance().createScheduledExecutorService("writer");
+            }
+            executor.shutdownNow();
+        }
+
+        // wait for a running write, the final write must not be replaced by it
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        return write(individual);
+    }
+
+    /**
+     * Writes an individual to a temporary file in the directory of the solution
+     * file and renames it to the solution file.
+     * @param individual Individual instance
+     * @return Full path to solution file
+     * @throws Exception Exception on fail
+     */
+    private String write(Individual individual) throws Exception {
+        File file = new File(getFullPath());
+        File temporaryFile = File.createTempFile(file.getName() + ".", ".tmp", file.getAbsoluteFile().getParentFile());
+
+        try {
+            getWriter().writeFile(individual, temporaryFile.getPath());
+            FilesystemHelper.getInstance().replaceFile(temporaryFile, file);
+        } finally {
+            if (temporaryFile.exists()) {
+                temporaryFile.delete();
+            }
+        }
+
+        return file.getPath();
+    }
+
+    /**
+     * Returns the full path of the solution file, resolves it on first use.
+     * @return Full path
+     */
+    private synchronized String getFullPath() {
+        if (fullPath == null) {
+            fullPath = FilesystemHelper.getInstance().getFullPath(
+                    ConfigurationHelper.getInstance().getProperty("SolutionFilename", "solution.xml"));
+        }
+
+        return fullPath;
+    }
+
+    /**
+     * Returns the writer of the solution files, creates it on first use.
+     * @return IWriter instance
+     */
+    private synchronized IWriter getWriter() {
+        if (writer == null) {
+            writer = ClassLoaderHelper.getInstance().getWriter();
+        }
+
+        return writer;
+    }
+
+    /**
+     * Returns the executor of the background writes, creates it on first use.
+     * @return ScheduledExecutorService instance
+     */
+    private ScheduledExecutorService getExecutor() {
+        if (executor == null) {
+            executor = ConcurrencyHelper.getInstance().createScheduledExecutorService("writer");
+        }
+
+        return executor;
+    }
+}
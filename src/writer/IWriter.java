@@ -12,4 +12,12 @@ public interface IWriter {
      * @return Full path to solution file, if written successfully
      */
     String writeFile(Individual individual) throws Exception;
+
+    /**
+     * Writes a solution file to a path.
+     * @param individual Individual instance
+     * @param fullPath Full path to solution file
+     * @throws Exception Exception on fail
+     */
+    void writeFile(Individual individual, String fullPath) throws Exception;
 }
@@ -0,0 +1,263 @@
+package writer;
+
+import helper.ConfigurationHelper;
+import helper.DateTimeHelper;
+import helper.FilesystemHelper;
+import model.ea.Individual;
+import model.schedule.CompiledPeriod;
+import model.schedule.SchedulingPeriod;
+
+import java.io.*;
+
+/**
+ * Class to write an XML solution file without building a document tree. The
+ * encoded text of the dates, employees and shift types is computed once per
+ * scheduling period and the assignments are streamed directly from the genome
+ * to a buffered byte stream, thus writing a solution of a long period allocates
+ * almost nothing. The output equals the one of the XmlWriter.
+ */
+@SuppressWarnings("unused")
+public class StreamingXmlWriter implements IWriter {
+    /**
+     * Character encoding of the solution file.
+     */
+    private static final String ENCODING = "UTF-8";
+
+    /**
+     * Size of the output buffer in bytes.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Markup preceding the scheduling period identifier.
+     */
+    private static final byte[] HEADER = getBytes("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\r\n"
+            + "<Solution>\r\n  <SchedulingPeriodID>");
+
+    /**
+     * Markup between the scheduling period identifier and the competitor.
+     */
+    private static final byte[] COMPETITOR = getBytes("</SchedulingPeriodID>\r\n  <Competitor>");
+
+    /**
+     * Markup between the competitor and the penalty.
+     */
+    private static final byte[] PENALTY = getBytes("</Competitor>\r\n  <SoftConstraintsPenalty>");
+
+    /**
+     * Markup closing the penalty.
+     */
+    private static final byte[] PENALTY_END = getBytes("</SoftConstraintsPenalty>\r\n");
+
+    /**
+     * Markup preceding the date of an assignment.
+     */
+    private static final byte[] ASSIGNMENT = getBytes("  <Assignment>\r\n    <Date>");
+
+    /**
+     * Markup between the date and the employee of an assignment.
+     */
+    private static final byte[] EMPLOYEE = getBytes("</Date>\r\n    <Employee>");
+
+    /**
+     * Markup between the employee and the shift type of an assignment.
+     */
+    private static final byte[] SHIFT_TYPE = getBytes("</Employee>\r\n    <ShiftType>");
+
+    /**
+     * Markup closing an assignment.
+     */
+    private static final byte[] ASSIGNMENT_END = getBytes("</ShiftType>\r\n  </Assignment>\r\n");
+
+    /**
+     * Markup closing the solution.
+     */
+    private static final byte[] FOOTER = getBytes("</Solution>\r\n");
+
+    /**
+     * Scheduling period the encoded texts belong to.
+     */
+    private SchedulingPeriod period = null;
+
+    /**
+     * Encoded scheduling period identifier.
+     */
+    private byte[] periodId;
+
+    /**
+     * Encoded competitor name.
+     */
+    private byte[] competitor;
+
+    /**
+     * Encoded date per day index.
+     */
+    private byte[][] dates;
+
+    /**
+     * Encoded employee identifier per employee index.
+     */
+    private byte[][] employees;
+
+    /**
+     * Encoded shift type identifier per shift type index.
+     */
+    private byte[][] shiftTypes;
+
+    /**
+     * Writes a solution file in XML format.
+     * @param individual Individual instance
+     * @return Full path
+     * @throws Exception Exception on fail
+     */
+    @Override
+    public String writeFile(Individual individual) throws Exception {
+        String filename = ConfigurationHelper.getInstance().getProperty("SolutionFilename", "solution.xml");
+        String fullPath = FilesystemHelper.getInstance().getFullPath(filename);
+
+        writeFile(individual, fullPath);
+
+        // return full path, if written successfully, otherwise null
+        return fullPath;
+    }
+
+    /**
+     * Writes a solution file in XML format to a path.
+     * @param individual Individual instance
+     * @param fullPath Full path
+     * @throws Exception Exception on fail
+     */
+    @Override
+    public synchronized void writeFile(Individual individual, String fullPath) throws Exception {
+        prepare(individual.getSchedulingPeriod());
+
+        OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(fullPath), BUFFER_SIZE);
+        try {
+            write(individual, outputStream);
+        } finally {
+            outputStream.close();
+        }
+    }
+
+    /**
+     * Writes the solution of an individual to a stream.
+     * @param individual Individual instance
+     * @param outputStream Output stream
+     * @throws IOException Exception on IO error.
+     */
+    private void write(Individual individual, OutputStream outputStream) throws IOException {
+        outputStream.write(HEADER);
+        outputStream.write(periodId);
+        outputStream.write(COMPETITOR);
+        outputStream.write(competitor);
+        outputStream.write(PENALTY);
+        outputStream.write(getBytes(String.valueOf(individual.getFitness())));
+        outputStream.write(PENALTY_END);
+
+        // assignments are ordered by day, shift type and employee like the day rosters
+        byte[] genome = individual.getGenome();
+        int numberOfEmployees = employees.length;
+
+        for (int day = 0; day < individual.getNumberOfDays(); day++) {
+            int offset = day * numberOfEmployees;
+
+            for (int shiftTypeIndex = 0; shiftTypeIndex < shiftTypes.length; shiftTypeIndex++) {
+                for (int employeeIndex = 0; employeeIndex < numberOfEmployees; employeeIndex++) {
+                    if (genome[offset + employeeIndex] == shiftTypeIndex) {
+                        outputStream.write(ASSIGNMENT);
+                        outputStream.write(dates[day]);
+                        outputStream.write(EMPLOYEE);
+                        outputStream.write(employees[employeeIndex]);
+                        outputStream.write(SHIFT_TYPE);
+                        outputStream.write(shiftTypes[shiftTypeIndex]);
+                        outputStream.write(ASSIGNMENT_END);
+                    }
+                }
+            }
+        }
+
+        outputStream.write(FOOTER);
+    }
+
+    /**
+     * Computes the encoded texts of a scheduling period, if it differs from
+     * the one of the last solution.
+     * @param schedulingPeriod SchedulingPeriod instance
+     */
+    private void prepare(SchedulingPeriod schedulingPeriod) {
+        if (schedulingPeriod == period) {
+            return;
+        }
+
+        CompiledPeriod compiled = schedulingPeriod.getCompiled();
+
+        periodId = getText(schedulingPeriod.getId());
+        competitor = getText(ConfigurationHelper.getInstance().getProperty("CompetitorName"));
+
+        dates = new byte[compiled.getNumberOfDays()][];
+        for (int day = 0; day < dates.length; day++) {
+            dates[day] = getText(DateTimeHelper.getInstance().getDateStringReversed(compiled.getDate(day), "-"));
+        }
+
+        employees = new byte[compiled.getNumberOfEmployees()][];
+        for (int employeeIndex = 0; employeeIndex < employees.length; employeeIndex++) {
+            employees[employeeIndex] = getText(String.valueOf(compiled.getEmployee(employeeIndex).getId()));
+        }
+
+        shiftTypes = new byte[compiled.getNumberOfShiftTypes()][];
+        for (int shiftTypeIndex = 0; shiftTypeIndex < shiftTypes.length; shiftTypeIndex++) {
+            shiftTypes[shiftTypeIndex] = getText(compiled.getShiftType(shiftTypeIndex).getId());
+        }
+
+        period = schedulingPeriod;
+    }
+
+    /**
+     * Returns the encoded text content of an element, with the markup
+     * characters escaped.
+     * @param text Text (null is written as empty text)
+     * @return Encoded text
+     */
+    private static byte[] getText(String text) {
+        if (text == null) {
+            return new byte[0];
+        }
+
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char character = text.charAt(i);
+            switch (character) {
+                case '&':
+                    escaped.append("&amp;");
+                    break;
+                case '<':
+                    escaped.append("&lt;");
+                    break;
+                case '>':
+                    escaped.append("&gt;");
+                    break;
+                case '\r':
+                    escaped.append("&#x0D;");
+                    break;
+                default:
+                    escaped.append(character);
+            }
+        }
+
+        return getBytes(escaped.toString());
+    }
+
+    /**
+     * Returns the encoded bytes of a string.
+     * @param text String
+     * @return Encoded bytes
+     */
+    private static byte[] getBytes(String text) {
+        try {
+            return text.getBytes(ENCODING);
+        } catch (UnsupportedEncodingException e) {
+            // UTF-8 is supported by every Java platform
+            throw new IllegalStateException(e);
+        }
+    }
+}
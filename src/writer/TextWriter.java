@@ -1,14 +1,272 @@
 package writer;
 
+import helper.ConfigurationHelper;
+import helper.DateTimeHelper;
+import helper.FilesystemHelper;
 import model.ea.Individual;
+import model.schedule.CompiledPeriod;
+import model.schedule.SchedulingPeriod;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
 /**
- * Class to write a text solution file.
+ * Class to write a solution file in the text format of the competition. The
+ * layout follows the one of the text instances: a SOLUTION section with the
+ * scheduling period identifier, the competitor and the penalty, followed by an
+ * ASSIGNMENTS section with one "EmployeeID, Date, ShiftType;" record per
+ * assignment. The encoded dates, employees and shift types are computed once
+ * per scheduling period and the records are streamed from the genome into a
+ * buffer, which is written to the file channel whenever it is full.
  */
 @SuppressWarnings("unused")
 public class TextWriter implements IWriter {
+    /**
+     * Character encoding of the solution file.
+     */
+    private static final String ENCODING = "UTF-8";
+
+    /**
+     * Size of the output buffer in bytes.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Line separating the sections.
+     */
+    private static final String SEPARATOR = "////////////////////////////////////////////////////////////////////\n";
+
+    /**
+     * Header of the SOLUTION section.
+     */
+    private static final byte[] SOLUTION = getBytes(SEPARATOR + "SOLUTION;\n" + SEPARATOR);
+
+    /**
+     * Separator between the fields of a record.
+     */
+    private static final byte[] FIELD = getBytes(", ");
+
+    /**
+     * End of a record.
+     */
+    private static final byte[] RECORD_END = getBytes(";\n");
+
+    /**
+     * Header of the ASSIGNMENTS section (followed by the number of assignments).
+     */
+    private static final byte[] ASSIGNMENTS = getBytes("\n\n" + SEPARATOR + "ASSIGNMENTS = ");
+
+    /**
+     * End of the header of the ASSIGNMENTS section.
+     */
+    private static final byte[] ASSIGNMENTS_END = getBytes(";\n" + SEPARATOR);
+
+    /**
+     * Output buffer.
+     */
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    /**
+     * Scheduling period the encoded texts belong to.
+     */
+    private SchedulingPeriod period = null;
+
+    /**
+     * Encoded scheduling period identifier.
+     */
+    private byte[] periodId;
+
+    /**
+     * Encoded competitor name.
+     */
+    private byte[] competitor;
+
+    /**
+     * Encoded date per day index.
+     */
+    private byte[][] dates;
+
+    /**
+     * Encoded employee identifier per employee index.
+     */
+    private byte[][] employees;
+
+    /**
+     * Encoded shift type identifier per shift type index.
+     */
+    private byte[][] shiftTypes;
+
+    /**
+     * Writes a solution file in text format.
+     * @param individual Individual instance
+     * @return Full path
+     * @throws Exception Exception on fail
+     */
     @Override
-    public String writeFile(Individual individual) {
-        throw new RuntimeException(TextWriter.class.toString() + " not implemented yet.");
+    public String writeFile(Individual individual) throws Exception {
+        String filename = ConfigurationHelper.getInstance().getProperty("SolutionFilename", "solution.txt");
+        String fullPath = FilesystemHelper.getInstance().getFullPath(filename);
+
+        writeFile(individual, fullPath);
+
+        // return full path, if written successfully, otherwise null
+        return fullPath;
+    }
+
+    /**
+     * Writes a solution file in text format to a path.
+     * @param individual Individual instance
+     * @param fullPath Full path
+     * @throws Exception Exception on fail
+     */
+    @Override
+    public synchronized void writeFile(Individual individual, String fullPath) throws Exception {
+        prepare(individual.getSchedulingPeriod());
+
+        FileOutputStream fileOutputStream = new FileOutputStream(fullPath);
+        try {
+            FileChannel channel = fileOutputStream.getChannel();
+            buffer.clear();
+            write(individual, channel);
+            flush(channel);
+        } finally {
+            fileOutputStream.close();
+        }
+    }
+
+    /**
+     * Writes the solution of an individual to a channel.
+     * @param individual Individual instance
+     * @param channel File channel
+     * @throws IOException Exception on IO error.
+     */
+    private void write(Individual individual, FileChannel channel) throws IOException {
+        byte[] genome = individual.getGenome();
+        int numberOfEmployees = employees.length;
+        int numberOfDays = individual.getNumberOfDays();
+
+        put(channel, SOLUTION);
+        put(channel, periodId);
+        put(channel, FIELD);
+        put(channel, competitor);
+        put(channel, FIELD);
+        put(channel, getBytes(String.valueOf(individual.getFitness())));
+        put(channel, RECORD_END);
+
+        // the number of assignments precedes the records
+        int assignments = 0;
+        for (int i = 0; i < numberOfDays * numberOfEmployees; i++) {
+            if (genome[i] >= 0 && genome[i] < shiftTypes.length) {
+                assignments++;
+            }
+        }
+        put(channel, ASSIGNMENTS);
+        put(channel, getBytes(String.valueOf(assignments)));
+        put(channel, ASSIGNMENTS_END);
+
+        // assignments are ordered by day, shift type and employee like the day rosters
+        for (int day = 0; day < numberOfDays; day++) {
+            int offset = day * numberOfEmployees;
+
+            for (int shiftTypeIndex = 0; shiftTypeIndex < shiftTypes.length; shiftTypeIndex++) {
+                for (int employeeIndex = 0; employeeIndex < numberOfEmployees; employeeIndex++) {
+                    if (genome[offset + employeeIndex] == shiftTypeIndex) {
+                        put(channel, employees[employeeIndex]);
+                        put(channel, FIELD);
+                        put(channel, dates[day]);
+                        put(channel, FIELD);
+                        put(channel, shiftTypes[shiftTypeIndex]);
+                        put(channel, RECORD_END);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Puts bytes into the output buffer, the buffer is written to the channel,
+     * if it is full.
+     * @param channel File channel
+     * @param bytes Bytes
+     * @throws IOException Exception on IO error.
+     */
+    private void put(FileChannel channel, byte[] bytes) throws IOException {
+        int offset = 0;
+        while (offset < bytes.length) {
+            if (!buffer.hasRemaining()) {
+                flush(channel);
+            }
+
+            int length = Math.min(bytes.length - offset, buffer.remaining());
+            buffer.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    /**
+     * Writes the content of the output buffer to the channel and clears it.
+     * @param channel File channel
+     * @throws IOException Exception on IO error.
+     */
+    private void flush(FileChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Computes the encoded texts of a scheduling period, if it differs from
+     * the one of the last solution.
+     * @param schedulingPeriod SchedulingPeriod instance
+     */
+    private void prepare(SchedulingPeriod schedulingPeriod) {
+        if (schedulingPeriod == period) {
+            return;
+        }
+
+        CompiledPeriod compiled = schedulingPeriod.getCompiled();
+
+        periodId = getBytes(schedulingPeriod.getId());
+        competitor = getBytes(ConfigurationHelper.getInstance().getProperty("CompetitorName", ""));
+
+        dates = new byte[compiled.getNumberOfDays()][];
+        for (int day = 0; day < dates.length; day++) {
+            dates[day] = getBytes(DateTimeHelper.getInstance().getDateStringReversed(compiled.getDate(day), "-"));
+        }
+
+        employees = new byte[compiled.getNumberOfEmployees()][];
+        for (int employeeIndex = 0; employeeIndex < employees.length; employeeIndex++) {
+            employees[employeeIndex] = getBytes(String.valueOf(compiled.getEmployee(employeeIndex).getId()));
+        }
+
+        shiftTypes = new byte[compiled.getNumberOfShiftTypes()][];
+        for (int shiftTypeIndex = 0; shiftTypeIndex < shiftTypes.length; shiftTypeIndex++) {
+            shiftTypes[shiftTypeIndex] = getBytes(compiled.getShiftType(shiftTypeIndex).getId());
+        }
+
+        period = schedulingPeriod;
+    }
+
+    /**
+     * Returns the encoded bytes of a string.
+     * @param text String (null is written as empty text)
+     * @return Encoded bytes
+     */
+    private static byte[] getBytes(String text) {
+        if (text == null) {
+            return new byte[0];
+        }
+
+        try {
+            return text.getBytes(ENCODING);
+        } catch (UnsupportedEncodingException e) {
+            // UTF-8 is supported by every Java platform
+            throw new IllegalStateException(e);
+        }
     }
 }
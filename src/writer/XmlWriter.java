@@ -28,7 +28,7 @@ public class XmlWriter implements IWriter {
         Element competitor = new Element("Competitor");
         Element penalty = new Element("SoftConstraintsPenalty");
 
-        periodId.appendChild(String.valueOf(individual.getId()));
+        periodId.appendChild(individual.getSchedulingPeriod().getId());
         competitor.appendChild(ConfigurationHelper.getInstance().getProperty("CompetitorName"));
         penalty.appendChild(String.valueOf(individual.getFitness()));
 
@@ -75,13 +75,27 @@ public class XmlWriter implements IWriter {
         String filename = ConfigurationHelper.getInstance().getProperty("SolutionFilename", "solution.xml");
         String fullPath = FilesystemHelper.getInstance().getFullPath(filename);
 
-        FileOutputStream fileOutputStream = new FileOutputStream(fullPath);
-        Serializer serializer = new Serializer(fileOutputStream, "UTF-8");
-        serializer.setIndent(2);
-        serializer.write(getDocument(individual));
-
+        writeFile(individual, fullPath);
 
         // return full path, if written successfully, otherwise null
         return fullPath;
     }
+
+    /**
+     * Writes a solution file in XML format to a path.
+     * @param individual Individual instance
+     * @param fullPath Full path
+     * @throws Exception Exception on fail
+     */
+    @Override
+    public void writeFile(Individual individual, String fullPath) throws Exception {
+        FileOutputStream fileOutputStream = new FileOutputStream(fullPath);
+        try {
+            Serializer serializer = new Serializer(fileOutputStream, "UTF-8");
+            serializer.setIndent(2);
+            serializer.write(getDocument(individual));
+        } finally {
+            fileOutputStream.close();
+        }
+    }
 }